@@ -0,0 +1,115 @@
+package io.kafbat.ui.serdes.builtin;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.util.JsonFormat;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link ProtobufJsonPrinter} with DynamicMessage parsing + JsonFormat printing (that is used for
+ * messages printer can't be compiled for) on the same binary message. Run with
+ * {@code ./gradlew :api:jmh -PjmhIncludes=ProtobufJsonPrinterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProtobufJsonPrinterBenchmark {
+
+  private static final ProtobufSchema SCHEMA = new ProtobufSchema(
+      """
+          syntax = "proto3";
+          package bench;
+
+          import "google/protobuf/timestamp.proto";
+
+          message Order {
+            enum Status {
+              NEW = 0;
+              PAID = 1;
+              SHIPPED = 2;
+            }
+            message Item {
+              string sku = 1;
+              int32 quantity = 2;
+              double price = 3;
+              repeated string tags = 4;
+            }
+            int64 id = 1;
+            string customer = 2;
+            Status status = 3;
+            repeated Item items = 4;
+            map<string, string> attributes = 5;
+            google.protobuf.Timestamp created_at = 6;
+            bytes payload = 7;
+            bool gift = 8;
+          }
+          """
+  );
+
+  private static final String SMALL_JSON = """
+      {
+        "id": "42", "customer": "customer-1", "status": "PAID",
+        "items": [{ "sku": "sku-1", "quantity": 1, "price": 9.99 }],
+        "created_at": "2024-01-02T03:04:05.123Z"
+      }
+      """;
+
+  // ~1KB message: many items, attributes and a binary payload
+  private static final String LARGE_JSON = """
+      {
+        "id": "9000000000", "customer": "customer with a longer name \\u2028 юникод", "status": "SHIPPED",
+        "items": [%s],
+        "attributes": { "channel": "web", "region": "eu-west-1", "promo": "SPRING", "note": "leave at door" },
+        "created_at": "2024-01-02T03:04:05.123Z",
+        "payload": "AQIDBAUGBwgJCgsMDQ4PEBESExQVFhcYGRobHB0eHyAhIiMkJSYnKCkqKywtLi8w",
+        "gift": true
+      }
+      """.formatted(String.join(",", Collections.nCopies(
+      20, "{ \"sku\": \"sku-12345\", \"quantity\": 3, \"price\": 19.5, \"tags\": [\"a\", \"b\", \"c\"] }")));
+
+  @Param({"small", "large"})
+  private String message;
+
+  private Descriptor descriptor;
+  private byte[] data;
+  private ProtobufJsonPrinter printer;
+  private JsonFormat.Printer jsonFormatPrinter;
+
+  @Setup
+  public void setup() throws IOException {
+    descriptor = SCHEMA.toDescriptor("bench.Order");
+    var builder = DynamicMessage.newBuilder(descriptor);
+    JsonFormat.parser().merge("small".equals(message) ? SMALL_JSON : LARGE_JSON, builder);
+    data = builder.build().toByteArray();
+
+    printer = ProtobufJsonPrinter.compiled(descriptor, true).orElseThrow();
+    jsonFormatPrinter = JsonFormat.printer()
+        .includingDefaultValueFields()
+        .omittingInsignificantWhitespace()
+        .preservingProtoFieldNames();
+    if (!printer.print(data, 0, data.length).equals(jsonFormat())) {
+      throw new IllegalStateException("Printers' outputs differ");
+    }
+  }
+
+  @Benchmark
+  public String compiledPrinter() throws IOException {
+    return printer.print(data, 0, data.length);
+  }
+
+  @Benchmark
+  public String jsonFormat() throws IOException {
+    return jsonFormatPrinter.print(DynamicMessage.parseFrom(descriptor, data));
+  }
+}
@@ -1,6 +1,7 @@
 package io.kafbat.ui;
 
 import io.kafbat.ui.service.ssl.SkipSecurityProvider;
+import io.kafbat.ui.util.BlockingSchedulers;
 import io.kafbat.ui.util.DynamicConfigOperations;
 import java.security.Security;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -22,7 +23,10 @@ public class KafkaUiApplication {
     Security.addProvider(new SkipSecurityProvider());
 
     new SpringApplicationBuilder(KafkaUiApplication.class)
-        .initializers(DynamicConfigOperations.dynamicConfigPropertiesInitializer())
+        .initializers(
+            DynamicConfigOperations.dynamicConfigPropertiesInitializer(),
+            BlockingSchedulers.virtualThreadsInitializer()
+        )
         .build()
         .run(args);
   }
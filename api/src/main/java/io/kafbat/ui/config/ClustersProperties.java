@@ -49,6 +49,15 @@ public class ClustersProperties {
 
   Boolean messageRelativeTimestamp;
 
+  VirtualThreadsProperties virtualThreads = new VirtualThreadsProperties();
+
+  @Data
+  public static class VirtualThreadsProperties {
+    boolean enabled = false; // applied on application startup, see BlockingSchedulers
+    boolean pinningDiagnostics = true;
+    long pinnedThresholdMs = 20;
+  }
+
   @Data
   public static class Csv {
     String lineDelimeter = "crlf";
@@ -99,6 +108,8 @@ public class ClustersProperties {
     boolean readOnly = false;
 
     Long pollingThrottleRate;
+    Integer deserializationParallelism;
+    String keyLookupPartitioner; // org.apache.kafka.clients.producer.Partitioner implementation
 
     List<@Valid Masking> masking;
 
@@ -111,6 +122,84 @@ public class ClustersProperties {
     Integer maxPageSize;
     Integer defaultPageSize;
     Integer responseTimeoutMs;
+    Integer fetchParallelism;
+    ConsumersPoolProperties consumersPool = new ConsumersPoolProperties();
+    StickySessionsProperties stickySessions = new StickySessionsProperties();
+    SearchJobsProperties searchJobs = new SearchJobsProperties();
+    AdaptiveWindowProperties adaptiveWindow = new AdaptiveWindowProperties();
+    EventsBatchingProperties eventsBatching = new EventsBatchingProperties();
+    SharedTailingProperties sharedTailing = new SharedTailingProperties();
+    AdmissionProperties admission = new AdmissionProperties();
+    PageCacheProperties pageCache = new PageCacheProperties();
+    DeserializerCircuitProperties deserializerCircuit = new DeserializerCircuitProperties();
+  }
+
+  @Data
+  public static class ConsumersPoolProperties {
+    boolean enabled = false;
+    int maxSize = 8; // per cluster
+    int minIdle = 1;
+    long idleTimeoutMs = Duration.ofMinutes(5).toMillis();
+    long maxLifetimeMs = Duration.ofMinutes(30).toMillis();
+  }
+
+  @Data
+  public static class StickySessionsProperties {
+    boolean enabled = false;
+    long ttlMs = Duration.ofMinutes(1).toMillis();
+    int maxSessions = 50;
+    long maxBufferedBytes = 4 * 1024 * 1024; // per session
+  }
+
+  @Data
+  public static class SearchJobsProperties {
+    int parallelism = 0; // per job, number of available processors if not set
+    int maxRunningJobs = 4;
+    int maxStoredMessages = 10_000; // per job
+    long maxStoredBytes = 64 * 1024 * 1024; // per job, estimated size of stored messages
+    long resultsTtlMs = Duration.ofHours(1).toMillis();
+  }
+
+  @Data
+  public static class AdaptiveWindowProperties {
+    boolean enabled = true;
+    int maxGrowthFactor = 8; // per polling round
+    long maxBytesPerRound = 32 * 1024 * 1024;
+  }
+
+  @Data
+  public static class EventsBatchingProperties {
+    int maxBatchSize = 500; // max number of events coalesced into one batch
+    long lingerMs = 100; // max time the first event of a batch waits for others
+  }
+
+  @Data
+  public static class SharedTailingProperties {
+    boolean enabled = false; // opt-in, tailing requests of the same topic and serdes share one consumer
+    int subscriberBufferSize = 10_000; // events, oldest are dropped for slow subscribers
+  }
+
+  @Data
+  public static class AdmissionProperties {
+    // limits are opt-in, 0 = unlimited
+    int maxConcurrentPerCluster = 0;
+    int maxConcurrentPerUser = 0;
+    int maxQueued = 0; // per cluster, requests above are rejected
+    long maxInFlightBytes = 0; // across all clusters
+  }
+
+  @Data
+  public static class PageCacheProperties {
+    boolean enabled = false; // opt-in, first pages of EARLIEST and FROM_TIMESTAMP modes can be served stale
+    long maxWeightBytes = 64L * 1024 * 1024; // approximate size of cached messages
+    long ttlMs = Duration.ofMinutes(10).toMillis(); // pages can change due to retention or compaction
+  }
+
+  @Data
+  public static class DeserializerCircuitProperties {
+    boolean enabled = false; // opt-in, serde failures are counted (and records marked) regardless
+    int failureThreshold = 10; // consecutive failures after which serde is skipped
+    int probeInterval = 1000; // every N-th skipped record probes serde again
   }
 
   @Data
@@ -1,5 +1,8 @@
 package io.kafbat.ui.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.kafbat.ui.util.TopicMessagesFramesEncoder;
 import java.util.Collections;
 import java.util.Map;
 import lombok.AllArgsConstructor;
@@ -7,9 +10,12 @@ import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.autoconfigure.web.reactive.WebFluxProperties;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.server.reactive.ContextPathCompositeHandler;
 import org.springframework.http.server.reactive.HttpHandler;
 import org.springframework.jmx.export.MBeanExporter;
@@ -53,4 +59,15 @@ public class Config {
   public JsonNullableModule jsonNullableModule() {
     return new JsonNullableModule();
   }
+
+  @Bean
+  // alternative encodings for topic messages stream, selected by Accept header
+  public CodecCustomizer messagesStreamCodecsCustomizer(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                                        ObjectMapper objectMapper) {
+    ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+    return configurer -> {
+      configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+      configurer.customCodecs().register(new TopicMessagesFramesEncoder(objectMapper));
+    };
+  }
 }
@@ -12,6 +12,9 @@ import io.kafbat.ui.model.CreateTopicMessageDTO;
 import io.kafbat.ui.model.MessageFilterIdDTO;
 import io.kafbat.ui.model.MessageFilterRegistrationDTO;
 import io.kafbat.ui.model.MessageFilterTypeDTO;
+import io.kafbat.ui.model.MessagesSearchJobDTO;
+import io.kafbat.ui.model.MessagesSearchRequestDTO;
+import io.kafbat.ui.model.MessagesSearchResultsDTO;
 import io.kafbat.ui.model.PollingModeDTO;
 import io.kafbat.ui.model.SeekDirectionDTO;
 import io.kafbat.ui.model.SeekTypeDTO;
@@ -27,6 +30,8 @@ import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.service.DeserializationService;
 import io.kafbat.ui.service.MessagesService;
 import io.kafbat.ui.service.mcp.McpTool;
+import io.kafbat.ui.service.search.MessagesSearchService;
+import io.kafbat.ui.util.BlockingSchedulers;
 import java.util.List;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -38,7 +43,6 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequiredArgsConstructor
@@ -47,6 +51,7 @@ public class MessagesController extends AbstractController implements MessagesAp
 
   private final MessagesService messagesService;
   private final DeserializationService deserializationService;
+  private final MessagesSearchService messagesSearchService;
 
   @Override
   public Mono<ResponseEntity<Void>> deleteTopicMessages(
@@ -104,6 +109,8 @@ public class MessagesController extends AbstractController implements MessagesAp
                                                                              String keySerde,
                                                                              String valueSerde,
                                                                              String cursor,
+                                                                             String key,
+                                                                             Boolean batched,
                                                                              ServerWebExchange exchange) {
     var contextBuilder = AccessContext.builder()
         .cluster(clusterName)
@@ -130,9 +137,13 @@ public class MessagesController extends AbstractController implements MessagesAp
           smartFilterId,
           limit,
           keySerde,
-          valueSerde
+          valueSerde,
+          key
       );
     }
+    if (Boolean.TRUE.equals(batched)) {
+      messagesFlux = messagesService.batchEvents(messagesFlux);
+    }
     return accessControlService.validateAccess(accessContext)
         .then(Mono.just(ResponseEntity.ok(messagesFlux)))
         .doOnEach(sig -> auditService.audit(accessContext, sig));
@@ -177,7 +188,7 @@ public class MessagesController extends AbstractController implements MessagesAp
 
     return validateAccess(context).then(
         Mono.just(dto)
-            .subscribeOn(Schedulers.boundedElastic())
+            .subscribeOn(BlockingSchedulers.boundedElastic())
             .map(ResponseEntity::ok)
     );
   }
@@ -197,4 +208,78 @@ public class MessagesController extends AbstractController implements MessagesAp
         .map(reg -> messagesService.registerMessageFilter(reg.getFilterCode()))
         .map(id -> ResponseEntity.ok(new MessageFilterIdDTO().id(id)));
   }
+
+  @Override
+  public Mono<ResponseEntity<MessagesSearchJobDTO>> startMessagesSearch(String clusterName,
+                                                                        String topicName,
+                                                                        Mono<MessagesSearchRequestDTO> request,
+                                                                        ServerWebExchange exchange) {
+    var context = AccessContext.builder()
+        .cluster(clusterName)
+        .topicActions(topicName, MESSAGES_READ)
+        .operationName("startMessagesSearch")
+        .build();
+
+    return validateAccess(context)
+        .then(request)
+        .flatMap(r -> messagesSearchService.startSearch(getCluster(clusterName), topicName, r))
+        .map(ResponseEntity::ok)
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<MessagesSearchJobDTO>> getMessagesSearch(String clusterName,
+                                                                      String topicName,
+                                                                      String jobId,
+                                                                      ServerWebExchange exchange) {
+    var context = AccessContext.builder()
+        .cluster(clusterName)
+        .topicActions(topicName, MESSAGES_READ)
+        .operationName("getMessagesSearch")
+        .build();
+
+    return validateAccess(context)
+        .then(Mono.fromSupplier(() -> messagesSearchService.getJob(getCluster(clusterName), topicName, jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build())))
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<Void>> cancelMessagesSearch(String clusterName,
+                                                         String topicName,
+                                                         String jobId,
+                                                         ServerWebExchange exchange) {
+    var context = AccessContext.builder()
+        .cluster(clusterName)
+        .topicActions(topicName, MESSAGES_READ)
+        .operationName("cancelMessagesSearch")
+        .build();
+
+    return validateAccess(context)
+        .then(Mono.fromRunnable(() -> messagesSearchService.cancel(getCluster(clusterName), topicName, jobId)))
+        .doOnEach(sig -> audit(context, sig))
+        .thenReturn(ResponseEntity.ok().build());
+  }
+
+  @Override
+  public Mono<ResponseEntity<MessagesSearchResultsDTO>> getMessagesSearchResults(String clusterName,
+                                                                                 String topicName,
+                                                                                 String jobId,
+                                                                                 Integer page,
+                                                                                 Integer perPage,
+                                                                                 ServerWebExchange exchange) {
+    var context = AccessContext.builder()
+        .cluster(clusterName)
+        .topicActions(topicName, MESSAGES_READ)
+        .operationName("getMessagesSearchResults")
+        .build();
+
+    return validateAccess(context)
+        .then(Mono.fromSupplier(() -> messagesSearchService
+            .getResults(getCluster(clusterName), topicName, jobId, page, perPage)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build())))
+        .doOnEach(sig -> audit(context, sig));
+  }
 }
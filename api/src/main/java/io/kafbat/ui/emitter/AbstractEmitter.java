@@ -17,15 +17,24 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
   }
 
   protected PolledRecords poll(FluxSink<TopicMessageEventDTO> sink, EnhancedConsumer consumer) {
-    var records = consumer.pollEnhanced(pollingSettings.getPollTimeout());
+    var records = poll(consumer);
     sendConsuming(sink, records);
     return records;
   }
 
+  // polls without reporting consuming stats, caller is responsible for calling sendConsuming()
+  protected PolledRecords poll(EnhancedConsumer consumer) {
+    return consumer.pollEnhanced(pollingSettings.getPollTimeout());
+  }
+
   protected boolean isSendLimitReached() {
     return messagesProcessing.limitReached();
   }
 
+  protected long sentMessagesCount() {
+    return messagesProcessing.sentMessages();
+  }
+
   protected void send(FluxSink<TopicMessageEventDTO> sink,
                       Iterable<ConsumerRecord<Bytes, Bytes>> records,
                       @Nullable Cursor.Tracking cursor) {
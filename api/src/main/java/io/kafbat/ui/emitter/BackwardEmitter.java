@@ -24,12 +24,23 @@ public class BackwardEmitter extends RangePollingEmitter {
         consumerSupplier,
         consumerPosition,
         messagesPerPage,
-        new MessagesProcessing(deserializer, filter, false, messagesPerPage),
+        new MessagesProcessing(
+            deserializer,
+            filter,
+            false,
+            messagesPerPage,
+            pollingSettings.getDeserializationParallelism()
+        ),
         pollingSettings,
         cursor
     );
   }
 
+  @Override
+  protected boolean isForward() {
+    return false;
+  }
+
   @Override
   protected TreeMap<TopicPartition, FromToOffset> nextPollingRange(TreeMap<TopicPartition, FromToOffset> prevRange,
                                                                    SeekOperations seekOperations) {
@@ -44,7 +55,7 @@ public class BackwardEmitter extends RangePollingEmitter {
       );
     }
 
-    int msgsToPollPerPartition = Math.max(1, (int) Math.ceil((double) messagesPerPage / readToOffsets.size()));
+    long msgsToPollPerPartition = pollingWindow.sizePerPartition(readToOffsets.size());
     TreeMap<TopicPartition, FromToOffset> result = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
     readToOffsets.forEach((tp, toOffset) -> {
       long tpStartOffset = seekOperations.getBeginOffsets().get(tp);
@@ -0,0 +1,46 @@
+package io.kafbat.ui.emitter;
+
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool substring search over raw bytes. Pattern's shift table is built once,
+ * so single instance should be reused for all records.
+ */
+final class BytesMatcher {
+
+  private final byte[] pattern;
+  private final int[] shifts = new int[256];
+
+  BytesMatcher(byte[] pattern) {
+    this.pattern = pattern.clone();
+    Arrays.fill(shifts, pattern.length);
+    for (int i = 0; i < pattern.length - 1; i++) {
+      shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+    }
+  }
+
+  boolean foundIn(byte[] data) {
+    return foundIn(data, 0, data.length);
+  }
+
+  boolean foundIn(byte[] data, int offset, int length) {
+    int patternLen = pattern.length;
+    if (patternLen == 0) {
+      return true;
+    }
+    int last = patternLen - 1;
+    int end = offset + length - patternLen;
+    int pos = offset;
+    while (pos <= end) {
+      int i = last;
+      while (data[pos + i] == pattern[i]) {
+        if (i == 0) {
+          return true;
+        }
+        i--;
+      }
+      pos += shifts[data[pos + last] & 0xFF];
+    }
+    return false;
+  }
+}
@@ -0,0 +1,184 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.config.ClustersProperties.ConsumersPoolProperties;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import io.micrometer.core.instrument.Meter;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * Per-cluster pool of consumers, used to avoid consumer creation (and broker connections/metadata
+ * fetching) on each messages polling request. Leased consumer is returned to the pool on close().
+ * When all pooled consumers are leased, non-pooled consumer is created, so callers never wait for a lease.
+ */
+@Slf4j
+public class ConsumersPool implements AutoCloseable {
+
+  private static final Duration EVICTION_RUNS_INTERVAL = Duration.ofSeconds(30);
+
+  private final GenericObjectPool<EnhancedConsumer> pool;
+  private final Supplier<EnhancedConsumer> consumerFactory;
+  private final AtomicLong overflowLeases = new AtomicLong();
+  private final ApplicationMetrics metrics;
+  private final String name;
+  private List<Meter> meters = List.of();
+
+  public ConsumersPool(Supplier<EnhancedConsumer> consumerFactory,
+                       ConsumersPoolProperties properties,
+                       ApplicationMetrics metrics) {
+    this(consumerFactory, properties, metrics, "default");
+  }
+
+  /**
+   * Name is used to distinguish metrics of cluster's pools. Meters are not registered on creation, see
+   * {@link #registerMeters()}.
+   */
+  public ConsumersPool(Supplier<EnhancedConsumer> consumerFactory,
+                       ConsumersPoolProperties properties,
+                       ApplicationMetrics metrics,
+                       String name) {
+    this.consumerFactory = consumerFactory;
+    this.pool = new GenericObjectPool<>(
+        new PooledConsumerFactory(Duration.ofMillis(properties.getMaxLifetimeMs())),
+        poolConfig(properties)
+    );
+    this.metrics = metrics;
+    this.name = name;
+    prewarm();
+  }
+
+  /**
+   * Pool that replaces another one with the same name should only register its meters after replaced pool's
+   * meters are removed, otherwise registry returns replaced pool's meters instead of registering new ones.
+   */
+  public synchronized void registerMeters() {
+    meters = metrics.meterConsumersPool(this, name);
+  }
+
+  public synchronized void removeMeters() {
+    metrics.removeMeters(meters);
+    meters = List.of();
+  }
+
+  private static GenericObjectPoolConfig<EnhancedConsumer> poolConfig(ConsumersPoolProperties properties) {
+    var config = new GenericObjectPoolConfig<EnhancedConsumer>();
+    config.setMaxTotal(properties.getMaxSize());
+    config.setMaxIdle(properties.getMaxSize());
+    config.setMinIdle(Math.min(properties.getMinIdle(), properties.getMaxSize()));
+    config.setBlockWhenExhausted(false);
+    config.setTestOnBorrow(true);
+    config.setTestOnReturn(true);
+    config.setTestWhileIdle(true);
+    config.setTimeBetweenEvictionRuns(EVICTION_RUNS_INTERVAL);
+    // idle consumers above minIdle are evicted after idle timeout
+    config.setSoftMinEvictableIdleDuration(Duration.ofMillis(properties.getIdleTimeoutMs()));
+    config.setJmxEnabled(false);
+    return config;
+  }
+
+  private void prewarm() {
+    try {
+      pool.preparePool();
+    } catch (Exception e) {
+      log.warn("Error pre-warming consumers pool", e);
+    }
+  }
+
+  public EnhancedConsumer lease() {
+    EnhancedConsumer consumer;
+    try {
+      consumer = pool.borrowObject();
+    } catch (NoSuchElementException exhausted) {
+      overflowLeases.incrementAndGet();
+      return consumerFactory.get();
+    } catch (Exception e) {
+      log.warn("Error leasing consumer from pool, creating non-pooled consumer", e);
+      return consumerFactory.get();
+    }
+    consumer.markLeased();
+    return consumer;
+  }
+
+  void release(EnhancedConsumer consumer) {
+    try {
+      pool.returnObject(consumer);
+    } catch (Exception e) {
+      log.warn("Error returning consumer to pool", e);
+    }
+  }
+
+  public int leasedCount() {
+    return pool.getNumActive();
+  }
+
+  public int idleCount() {
+    return pool.getNumIdle();
+  }
+
+  public long createdCount() {
+    return pool.getCreatedCount();
+  }
+
+  public long destroyedCount() {
+    return pool.getDestroyedCount();
+  }
+
+  public long overflowLeasesCount() {
+    return overflowLeases.get();
+  }
+
+  @Override
+  public void close() {
+    removeMeters();
+    pool.close();
+  }
+
+  private class PooledConsumerFactory extends BasePooledObjectFactory<EnhancedConsumer> {
+
+    private final Duration maxLifetime;
+
+    PooledConsumerFactory(Duration maxLifetime) {
+      this.maxLifetime = maxLifetime;
+    }
+
+    @Override
+    public EnhancedConsumer create() {
+      EnhancedConsumer consumer = consumerFactory.get();
+      consumer.attachToPool(ConsumersPool.this);
+      return consumer;
+    }
+
+    @Override
+    public PooledObject<EnhancedConsumer> wrap(EnhancedConsumer consumer) {
+      return new DefaultPooledObject<>(consumer);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<EnhancedConsumer> p) {
+      boolean expired = p.getCreateInstant().plus(maxLifetime).isBefore(Instant.now());
+      return !expired && p.getObject().isHealthy();
+    }
+
+    @Override
+    public void passivateObject(PooledObject<EnhancedConsumer> p) {
+      // if reset fails, consumer is destroyed by pool
+      p.getObject().resetForReuse();
+    }
+
+    @Override
+    public void destroyObject(PooledObject<EnhancedConsumer> p) {
+      p.getObject().closeNow();
+    }
+  }
+
+}
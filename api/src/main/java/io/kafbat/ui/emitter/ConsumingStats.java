@@ -3,6 +3,7 @@ package io.kafbat.ui.emitter;
 import io.kafbat.ui.model.TopicMessageConsumingDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.model.TopicMessageNextPageCursorDTO;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
 import javax.annotation.Nullable;
 import reactor.core.publisher.FluxSink;
 
@@ -28,7 +29,9 @@ class ConsumingStats {
     filterApplyErrors++;
   }
 
-  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink, @Nullable Cursor.Tracking cursor) {
+  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink,
+                       @Nullable Cursor.Tracking cursor,
+                       ConsumerRecordDeserializer.FallbackStats fallbackStats) {
     sink.next(
         new TopicMessageEventDTO()
             .type(TopicMessageEventDTO.TypeEnum.DONE)
@@ -37,7 +40,10 @@ class ConsumingStats {
                     ? new TopicMessageNextPageCursorDTO().id(cursor.registerCursor())
                     : null
             )
-            .consuming(createConsumingStats())
+            .consuming(
+                createConsumingStats()
+                    .deserializeFailures(fallbackStats.failures())
+                    .deserializeFallbacksShortCircuited(fallbackStats.shortCircuited()))
     );
   }
 
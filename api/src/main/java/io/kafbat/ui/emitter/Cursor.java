@@ -2,41 +2,92 @@ package io.kafbat.ui.emitter;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
+import io.kafbat.ui.config.ClustersProperties.StickySessionsProperties;
 import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.MessagesPageScope;
 import io.kafbat.ui.model.PollingModeDTO;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.apache.kafka.common.TopicPartition;
 
 public record Cursor(ConsumerRecordDeserializer deserializer,
                      ConsumerPosition consumerPosition,
                      Predicate<TopicMessageDTO> filter,
-                     int limit) {
+                     int limit,
+                     @Nullable MessagesPageScope pageScope) {
 
   public static class Tracking {
     private final ConsumerRecordDeserializer deserializer;
     private final ConsumerPosition originalPosition;
     private final Predicate<TopicMessageDTO> filter;
     private final int limit;
-    private final Function<Cursor, String> registerAction;
+    private final BiFunction<Cursor, PollingSession, String> registerAction;
+    @Nullable
+    private final StickySessionsProperties stickySessions; // null if sticky sessions are disabled
+    @Nullable
+    private final MessagesPageScope pageScope;
 
     //topic -> partition -> offset
     private final Table<String, Integer, Long> trackingOffsets = HashBasedTable.create();
 
+    @Nullable
+    private PollingSession resumedSession;
+    @Nullable
+    private PollingSession sessionToKeep;
+
     public Tracking(ConsumerRecordDeserializer deserializer,
                     ConsumerPosition originalPosition,
                     Predicate<TopicMessageDTO> filter,
                     int limit,
-                    Function<Cursor, String> registerAction) {
+                    BiFunction<Cursor, PollingSession, String> registerAction,
+                    @Nullable StickySessionsProperties stickySessions,
+                    @Nullable MessagesPageScope pageScope) {
       this.deserializer = deserializer;
       this.originalPosition = originalPosition;
       this.filter = filter;
       this.limit = limit;
       this.registerAction = registerAction;
+      this.stickySessions = stickySessions;
+      this.pageScope = pageScope;
+    }
+
+    // session of the previous page, that should be continued by emitter
+    public Tracking resumeSession(@Nullable PollingSession session) {
+      this.resumedSession = session;
+      return this;
+    }
+
+    @Nullable
+    PollingSession takeResumedSession() {
+      var session = resumedSession;
+      resumedSession = null;
+      return session;
+    }
+
+    boolean keepsSessions() {
+      return stickySessions != null;
+    }
+
+    long maxSessionBufferedBytes() {
+      return stickySessions == null ? 0 : stickySessions.getMaxBufferedBytes();
+    }
+
+    // session will be registered with the cursor
+    void keepSession(PollingSession session) {
+      this.sessionToKeep = session;
+    }
+
+    // closes session if it was not registered (if cursor was not registered)
+    void closeUnregisteredSession() {
+      if (sessionToKeep != null) {
+        sessionToKeep.close();
+        sessionToKeep = null;
+      }
     }
 
     void trackOffset(String topic, int partition, long offset) {
@@ -55,34 +106,41 @@ public record Cursor(ConsumerRecordDeserializer deserializer,
       return result;
     }
 
+    // offsets next page's polling will start from
+    Map<TopicPartition, Long> nextPageOffsets() {
+      return getOffsetsMap(
+          switch (originalPosition.pollingMode()) {
+            case TO_OFFSET, TO_TIMESTAMP, LATEST, KEY_LOOKUP -> 0;
+            // when doing forward polling we need to start from latest msg's offset + 1
+            case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> 1;
+            case TAILING, SAMPLING -> throw new IllegalStateException();
+          }
+      );
+    }
+
     String registerCursor() {
+      var session = sessionToKeep;
+      sessionToKeep = null;
       return registerAction.apply(
           new Cursor(
               deserializer,
               new ConsumerPosition(
                   switch (originalPosition.pollingMode()) {
-                    case TO_OFFSET, TO_TIMESTAMP, LATEST -> PollingModeDTO.TO_OFFSET;
+                    case TO_OFFSET, TO_TIMESTAMP, LATEST, KEY_LOOKUP -> PollingModeDTO.TO_OFFSET;
                     case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> PollingModeDTO.FROM_OFFSET;
-                    case TAILING -> throw new IllegalStateException();
+                    case TAILING, SAMPLING -> throw new IllegalStateException();
                   },
                   originalPosition.topic(),
                   originalPosition.partitions(),
                   null,
-                  new ConsumerPosition.Offsets(
-                      null,
-                      getOffsetsMap(
-                          switch (originalPosition.pollingMode()) {
-                            case TO_OFFSET, TO_TIMESTAMP, LATEST -> 0;
-                            // when doing forward polling we need to start from latest msg's offset + 1
-                            case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> 1;
-                            case TAILING -> throw new IllegalStateException();
-                          }
-                      )
-                  )
+                  new ConsumerPosition.Offsets(null, nextPageOffsets()),
+                  originalPosition.bounds()
               ),
               filter,
-              limit
-          )
+              limit,
+              pageScope
+          ),
+          session
       );
     }
   }
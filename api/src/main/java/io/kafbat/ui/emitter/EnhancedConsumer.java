@@ -9,6 +9,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -19,10 +20,26 @@ import org.apache.kafka.common.utils.Bytes;
 
 public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
 
+  private static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
   private final PollingThrottler throttler;
   private final ApplicationMetrics metrics;
   private String pollingTopic;
 
+  // not null for consumers managed by ConsumersPool
+  @Nullable
+  private ConsumersPool pool;
+  private volatile boolean leased;
+  private volatile boolean failed;
+
+  @Nullable
+  private PolledBytesBudget.Account ownBudgetAccount;
+  // account polled bytes are charged to, can be shared with other consumers of the same emitter
+  @Nullable
+  private PolledBytesBudget.Account budgetAccount;
+  // if false, polled bytes stay charged until account is released explicitly
+  private boolean releaseBudgetOnPoll = true;
+
   public EnhancedConsumer(Properties properties,
                           PollingThrottler throttler,
                           ApplicationMetrics metrics) {
@@ -32,10 +49,40 @@ public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
     metrics.activeConsumers().incrementAndGet();
   }
 
+  // polled bytes will be counted in the budget until next poll or close
+  public EnhancedConsumer withBytesBudget(PolledBytesBudget budget) {
+    releaseBudget();
+    this.ownBudgetAccount = budget.newAccount();
+    this.budgetAccount = ownBudgetAccount;
+    return this;
+  }
+
+  /**
+   * Bytes polled by this consumer are charged to owner's account and stay charged (across polls) until
+   * owner's {@link #releaseBudget()} is called, or this consumer is closed. Used when records of multiple polls
+   * (possibly by multiple consumers) are buffered before they are processed. Owner can be this consumer itself.
+   */
+  void chargePolledBytesTo(EnhancedConsumer owner) {
+    this.budgetAccount = owner.budgetAccount;
+    this.releaseBudgetOnPoll = false;
+  }
+
   public PolledRecords pollEnhanced(Duration dur) {
+    if (releaseBudgetOnPoll) {
+      releaseBudget(); // previously polled records are processed at this point
+    }
     var stopwatch = Stopwatch.createStarted();
-    ConsumerRecords<Bytes, Bytes> polled = poll(dur);
+    ConsumerRecords<Bytes, Bytes> polled;
+    try {
+      polled = poll(dur);
+    } catch (RuntimeException e) {
+      failed = true;
+      throw e;
+    }
     PolledRecords polledEnhanced = PolledRecords.create(polled, stopwatch.elapsed());
+    if (budgetAccount != null) {
+      budgetAccount.charge(polledEnhanced.bytes());
+    }
     var throttled = throttler.throttleAfterPoll(polledEnhanced.bytes());
     metrics.meterPolledRecords(pollingTopic, polledEnhanced, throttled);
     return polledEnhanced;
@@ -69,8 +116,67 @@ public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
     throw new UnsupportedOperationException();
   }
 
+  void attachToPool(ConsumersPool pool) {
+    this.pool = pool;
+  }
+
+  void markLeased() {
+    this.leased = true;
+  }
+
+  // consumer can be reused if it did not fail on polling
+  boolean isHealthy() {
+    return !failed;
+  }
+
+  // clears assignment (and paused partitions with it) and fetched data, so next lease starts from clean state
+  void resetForReuse() {
+    unsubscribe();
+    pollingTopic = null;
+    releaseBudget();
+    budgetAccount = ownBudgetAccount;
+    releaseBudgetOnPoll = true;
+  }
+
+  // pending wakeup can't be cleared, so woken up consumer is not returned to the pool
+  void interruptPolling() {
+    failed = true;
+    wakeup();
+  }
+
+  void releaseBudget() {
+    if (budgetAccount != null) {
+      budgetAccount.release();
+    }
+  }
+
+  @Override
+  public void close() {
+    close(DEFAULT_CLOSE_TIMEOUT);
+  }
+
+  /**
+   * Pooled consumers are returned to the pool instead of being closed. Pool closes them physically
+   * on eviction via {@link #closeNow()}.
+   */
   @Override
   public void close(Duration timeout) {
+    if (pool != null) {
+      if (leased) {
+        leased = false;
+        pool.release(this);
+      }
+      return;
+    }
+    doClose(timeout);
+  }
+
+  void closeNow() {
+    doClose(DEFAULT_CLOSE_TIMEOUT);
+  }
+
+  private void doClose(Duration timeout) {
+    releaseBudget();
     metrics.activeConsumers().decrementAndGet();
     super.close(timeout);
   }
@@ -0,0 +1,234 @@
+package io.kafbat.ui.emitter;
+
+import dev.cel.common.CelAbstractSyntaxTree;
+import dev.cel.common.ast.CelConstant;
+import dev.cel.common.ast.CelExpr;
+import dev.cel.common.ast.CelExpr.ExprKind.Kind;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.ConsumerPosition.OffsetsBounds;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Extracts partition, offset and timestamp conditions from smart filter, so they can be applied
+ * to consumer position before polling (instead of filtering out every polled record). Only conditions
+ * that are top-level conjuncts (joined with &&) and compare record's field with a literal are used.
+ * Timestamp can only be used as lower bound, since records' timestamps are not ordered within partition.
+ * Filter itself is still applied to polled records.
+ */
+public final class FilterPushdown {
+
+  public static final FilterPushdown NONE = new FilterPushdown(null, null, null, null);
+
+  @Nullable
+  private final Set<Integer> partitions; // null if not restricted
+  @Nullable
+  private final Long fromOffset;
+  @Nullable
+  private final Long toOffset;
+  @Nullable
+  private final Long fromTimestamp;
+
+  private FilterPushdown(@Nullable Set<Integer> partitions,
+                         @Nullable Long fromOffset,
+                         @Nullable Long toOffset,
+                         @Nullable Long fromTimestamp) {
+    this.partitions = partitions;
+    this.fromOffset = fromOffset;
+    this.toOffset = toOffset;
+    this.fromTimestamp = fromTimestamp;
+  }
+
+  static FilterPushdown extract(CelAbstractSyntaxTree ast, String recordVarName) {
+    var collector = new BoundsCollector(recordVarName);
+    collector.collect(ast.getExpr());
+    return new FilterPushdown(collector.partitions, collector.fromOffset, collector.toOffset, collector.fromTimestamp);
+  }
+
+  public Optional<Set<Integer>> partitions() {
+    return Optional.ofNullable(partitions);
+  }
+
+  public Optional<OffsetsBounds> offsetsBounds() {
+    return fromOffset == null && toOffset == null && fromTimestamp == null
+        ? Optional.empty()
+        : Optional.of(new OffsetsBounds(fromOffset, toOffset, fromTimestamp));
+  }
+
+  /**
+   * Narrows position's partitions and sets offsets bounds. Partitions are not narrowed if conditions
+   * do not match any of the existing partitions (filter will reject all records in this case).
+   */
+  public ConsumerPosition apply(ConsumerPosition position, Collection<Integer> topicPartitions) {
+    if (this == NONE) {
+      return position;
+    }
+    List<TopicPartition> narrowed = position.partitions();
+    if (partitions != null) {
+      var candidates = position.partitions().isEmpty()
+          ? topicPartitions
+          : position.partitions().stream().map(TopicPartition::partition).toList();
+      var matching = candidates.stream()
+          .filter(partitions::contains)
+          .map(p -> new TopicPartition(position.topic(), p))
+          .toList();
+      if (!matching.isEmpty()) {
+        narrowed = matching;
+      }
+    }
+    return position.withBounds(narrowed, offsetsBounds().orElse(position.bounds()));
+  }
+
+  private static class BoundsCollector {
+
+    private final String recordVarName;
+
+    private Set<Integer> partitions;
+    private Long fromOffset;
+    private Long toOffset;
+    private Long fromTimestamp;
+
+    BoundsCollector(String recordVarName) {
+      this.recordVarName = recordVarName;
+    }
+
+    void collect(CelExpr expr) {
+      if (expr.exprKind().getKind() != Kind.CALL) {
+        return;
+      }
+      var call = expr.call();
+      if (call.target().isPresent()) {
+        return;
+      }
+      String function = call.function();
+      if (function.equals("_&&_")) {
+        call.args().forEach(this::collect);
+      } else if (function.equals("@in") && call.args().size() == 2) {
+        collectIn(call.args().get(0), call.args().get(1));
+      } else if (call.args().size() == 2) {
+        var left = call.args().get(0);
+        var right = call.args().get(1);
+        if (recordField(left) != null && intLiteral(right) != null) {
+          collectComparison(recordField(left), function, intLiteral(right));
+        } else if (recordField(right) != null && intLiteral(left) != null) {
+          collectComparison(recordField(right), mirror(function), intLiteral(left));
+        }
+      }
+    }
+
+    private void collectIn(CelExpr field, CelExpr list) {
+      if (!"partition".equals(recordField(field)) || list.exprKind().getKind() != Kind.CREATE_LIST) {
+        return;
+      }
+      Set<Integer> values = new HashSet<>();
+      for (CelExpr element : list.createList().elements()) {
+        Long value = intLiteral(element);
+        if (value == null) {
+          return;
+        }
+        values.add(value.intValue());
+      }
+      restrictPartitions(values);
+    }
+
+    private void collectComparison(String field, String function, long value) {
+      switch (field) {
+        case "partition" -> {
+          if (function.equals("_==_")) {
+            restrictPartitions(Set.of((int) value));
+          }
+        }
+        case "offset" -> {
+          switch (function) {
+            case "_==_" -> {
+              raiseFromOffset(value);
+              lowerToOffset(increment(value));
+            }
+            case "_>_" -> raiseFromOffset(increment(value));
+            case "_>=_" -> raiseFromOffset(value);
+            case "_<_" -> lowerToOffset(value);
+            case "_<=_" -> lowerToOffset(increment(value));
+            default -> {
+              // not a range condition
+            }
+          }
+        }
+        case "timestampMs" -> {
+          switch (function) {
+            case "_==_", "_>=_" -> raiseFromTimestamp(value);
+            case "_>_" -> raiseFromTimestamp(increment(value));
+            default -> {
+              // upper timestamp bound can't be converted to offset
+            }
+          }
+        }
+        default -> {
+          // other fields can't be pushed down
+        }
+      }
+    }
+
+    private void restrictPartitions(Set<Integer> values) {
+      if (partitions == null) {
+        partitions = new HashSet<>(values);
+      } else {
+        partitions.retainAll(values);
+      }
+    }
+
+    private void raiseFromOffset(long offset) {
+      fromOffset = fromOffset == null ? offset : Math.max(fromOffset, offset);
+    }
+
+    private void lowerToOffset(long offset) {
+      toOffset = toOffset == null ? offset : Math.min(toOffset, offset);
+    }
+
+    private void raiseFromTimestamp(long ts) {
+      fromTimestamp = fromTimestamp == null ? ts : Math.max(fromTimestamp, ts);
+    }
+
+    private static long increment(long value) {
+      return value == Long.MAX_VALUE ? value : value + 1;
+    }
+
+    // operator with swapped operands ("5 < x" -> "x > 5")
+    private static String mirror(String function) {
+      return switch (function) {
+        case "_<_" -> "_>_";
+        case "_<=_" -> "_>=_";
+        case "_>_" -> "_<_";
+        case "_>=_" -> "_<=_";
+        default -> function;
+      };
+    }
+
+    @Nullable
+    private String recordField(CelExpr expr) {
+      if (expr.exprKind().getKind() == Kind.SELECT) {
+        var select = expr.select();
+        var operand = select.operand();
+        if (!select.testOnly()
+            && operand.exprKind().getKind() == Kind.IDENT
+            && operand.ident().name().equals(recordVarName)) {
+          return select.field();
+        }
+      }
+      return null;
+    }
+
+    @Nullable
+    private static Long intLiteral(CelExpr expr) {
+      if (expr.exprKind().getKind() == Kind.CONSTANT
+          && expr.constant().getKind() == CelConstant.Kind.INT64_VALUE) {
+        return expr.constant().int64Value();
+      }
+      return null;
+    }
+  }
+}
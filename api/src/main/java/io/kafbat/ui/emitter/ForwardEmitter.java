@@ -24,12 +24,23 @@ public class ForwardEmitter extends RangePollingEmitter {
         consumerSupplier,
         consumerPosition,
         messagesPerPage,
-        new MessagesProcessing(deserializer, filter, true, messagesPerPage),
+        new MessagesProcessing(
+            deserializer,
+            filter,
+            true,
+            messagesPerPage,
+            pollingSettings.getDeserializationParallelism()
+        ),
         pollingSettings,
         cursor
     );
   }
 
+  @Override
+  protected boolean isForward() {
+    return true;
+  }
+
   @Override
   protected TreeMap<TopicPartition, FromToOffset> nextPollingRange(TreeMap<TopicPartition, FromToOffset> prevRange,
                                                                    SeekOperations seekOperations) {
@@ -44,7 +55,7 @@ public class ForwardEmitter extends RangePollingEmitter {
       );
     }
 
-    int msgsToPollPerPartition = Math.max(1, (int) Math.ceil((double) messagesPerPage / readFromOffsets.size()));
+    long msgsToPollPerPartition = pollingWindow.sizePerPartition(readFromOffsets.size());
     TreeMap<TopicPartition, FromToOffset> result = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
     readFromOffsets.forEach((tp, fromOffset) -> {
       long tpEndOffset = seekOperations.getEndOffsets().get(tp);
@@ -0,0 +1,61 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties.EventsBatchingProperties;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import reactor.core.publisher.Flux;
+
+/**
+ * Coalesces messages events stream into BATCH events. Each batch carries messages emitted within linger time
+ * (but not more than max batch size events) together with the latest phase and consuming stats that were emitted
+ * in the same time frame. DONE event is never coalesced and is sent right after the batch preceding it.
+ */
+public final class MessageEventsBatching {
+
+  private static final Set<TypeEnum> COALESCED_TYPES = EnumSet.of(TypeEnum.MESSAGE, TypeEnum.PHASE, TypeEnum.CONSUMING);
+
+  private MessageEventsBatching() {
+  }
+
+  public static Flux<TopicMessageEventDTO> batch(Flux<TopicMessageEventDTO> events,
+                                                 EventsBatchingProperties properties) {
+    // fair backpressure: batches are only flushed on linger timeout when subscriber requested them
+    return events
+        .bufferTimeout(Math.max(1, properties.getMaxBatchSize()), Duration.ofMillis(properties.getLingerMs()), true)
+        .concatMapIterable(MessageEventsBatching::coalesce);
+  }
+
+  @VisibleForTesting
+  static List<TopicMessageEventDTO> coalesce(List<TopicMessageEventDTO> events) {
+    List<TopicMessageEventDTO> result = new ArrayList<>(2);
+    TopicMessageEventDTO batch = null;
+    for (TopicMessageEventDTO event : events) {
+      if (!COALESCED_TYPES.contains(event.getType())) {
+        if (batch != null) {
+          result.add(batch);
+          batch = null;
+        }
+        result.add(event);
+        continue;
+      }
+      if (batch == null) {
+        batch = new TopicMessageEventDTO().type(TypeEnum.BATCH).messages(new ArrayList<>());
+      }
+      switch (event.getType()) {
+        case MESSAGE -> batch.getMessages().add(event.getMessage());
+        case PHASE -> batch.setPhase(event.getPhase());
+        default -> batch.setConsuming(event.getConsuming());
+      }
+    }
+    if (batch != null) {
+      result.add(batch);
+    }
+    return result;
+  }
+}
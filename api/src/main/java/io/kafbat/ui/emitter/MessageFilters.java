@@ -7,6 +7,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.NullValue;
@@ -14,6 +15,10 @@ import dev.cel.common.CelAbstractSyntaxTree;
 import dev.cel.common.CelOptions;
 import dev.cel.common.CelValidationException;
 import dev.cel.common.CelValidationResult;
+import dev.cel.common.ast.CelExpr;
+import dev.cel.common.ast.CelExpr.ExprKind.Kind;
+import dev.cel.common.navigation.CelNavigableAst;
+import dev.cel.common.navigation.CelNavigableExpr;
 import dev.cel.common.types.CelType;
 import dev.cel.common.types.CelTypeProvider;
 import dev.cel.common.types.MapType;
@@ -28,17 +33,28 @@ import dev.cel.runtime.CelRuntime;
 import dev.cel.runtime.CelRuntimeFactory;
 import io.kafbat.ui.exception.CelException;
 import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.util.ContentUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
+import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.text.StringEscapeUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.utils.Bytes;
 
 @Slf4j
 @UtilityClass
@@ -47,6 +63,17 @@ public class MessageFilters {
   private static final String CEL_RECORD_VAR_NAME = "record";
   private static final String CEL_RECORD_TYPE_NAME = TopicMessageDTO.class.getSimpleName();
 
+  private static final Map<String, CelType> CEL_RECORD_FIELDS = Map.of(
+      "partition", SimpleType.INT,
+      "offset", SimpleType.INT,
+      "timestampMs", SimpleType.INT,
+      "keyAsText", SimpleType.STRING,
+      "valueAsText", SimpleType.STRING,
+      "headers", MapType.create(SimpleType.STRING, SimpleType.STRING),
+      "key", SimpleType.DYN,
+      "value", SimpleType.DYN
+  );
+
   private static final CelCompiler CEL_COMPILER = createCompiler();
   private static final CelRuntime CEL_RUNTIME = createRuntime();
   private static final Object CELL_NULL_VALUE = NullValue.NULL_VALUE;
@@ -54,6 +81,7 @@ public class MessageFilters {
   private static final ObjectMapper OBJECT_MAPPER =
       new ObjectMapper().configure(DeserializationFeature.USE_LONG_FOR_INTS, true);
   private static final Pattern HEX_IN_UNICODE_ESCAPE = Pattern.compile("(?<=\\\\u)[0-9A-F]{4}");
+  private static final char UTF8_REPLACEMENT_CHAR = '\uFFFD';
 
   public static Predicate<TopicMessageDTO> noop() {
     return e -> true;
@@ -69,6 +97,72 @@ public class MessageFilters {
         || (escapedLower != null && msgContains(msg, escapedLower));
   }
 
+  /**
+   * Creates filter that works on raw (not yet deserialized) record and rejects records that
+   * certainly won't pass {@link #containsStringFilter(String)}. Key/value bytes are only checked if
+   * corresponding deserializer produces text that contains input bytes as-is (UTF-8 string), otherwise
+   * record is passed for full check. Returns null if pre-filtering is not possible.
+   */
+  @Nullable
+  public static Predicate<ConsumerRecord<Bytes, Bytes>> containsStringRawPreFilter(String string,
+                                                                                  boolean keyIsRawText,
+                                                                                  boolean valueIsRawText) {
+    if ((!keyIsRawText && !valueIsRawText) || string.indexOf(UTF8_REPLACEMENT_CHAR) >= 0) {
+      return null;
+    }
+    List<BytesMatcher> matchers = new ArrayList<>();
+    List<String> searchStrings = new ArrayList<>();
+    searchStrings.add(string);
+    @Nullable String escapedUpper = escapeNonAscii(string);
+    if (escapedUpper != null) {
+      searchStrings.add(escapedUpper);
+      searchStrings.add(HEX_IN_UNICODE_ESCAPE.matcher(escapedUpper).replaceAll(m -> m.group().toLowerCase()));
+    }
+    searchStrings.forEach(s -> matchers.add(new BytesMatcher(s.getBytes(StandardCharsets.UTF_8))));
+
+    return rec -> rawContains(rec.key(), keyIsRawText, matchers)
+        || rawContains(rec.value(), valueIsRawText, matchers)
+        || rawHeadersContain(rec.headers(), searchStrings, matchers);
+  }
+
+  // returns true if bytes contain one of the patterns, or if it is not possible to check that on raw bytes
+  private static boolean rawContains(@Nullable Bytes bytes, boolean isRawText, List<BytesMatcher> matchers) {
+    if (bytes == null) {
+      return false;
+    }
+    if (!isRawText) {
+      return true;
+    }
+    byte[] data = bytes.get();
+    for (BytesMatcher matcher : matchers) {
+      if (matcher.foundIn(data)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean rawHeadersContain(Headers headers, List<String> searchStrings, List<BytesMatcher> matchers) {
+    for (Header header : headers) {
+      if (header.key() != null && searchStrings.stream().anyMatch(header.key()::contains)) {
+        return true;
+      }
+      byte[] value = header.value();
+      if (value != null) {
+        for (BytesMatcher matcher : matchers) {
+          if (matcher.foundIn(value)) {
+            return true;
+          }
+        }
+        // non-text header values are shown as numbers or hex strings, so we can't check them on raw bytes
+        if (!ContentUtils.isValidUtf8(value)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   @Nullable
   static String escapeNonAscii(String input) {
     String escaped = StringEscapeUtils.escapeJson(input);
@@ -107,17 +201,63 @@ public class MessageFilters {
       CelAbstractSyntaxTree ast = celValidationResult.getAst();
       CelRuntime.Program program = CEL_RUNTIME.createProgram(ast);
 
-      return createPredicate(script, program);
+      return createPredicate(script, program, referencedRecordFields(ast));
     } catch (CelValidationException | CelEvaluationException e) {
       throw new CelException(script, e);
     }
   }
 
-  private static Predicate<TopicMessageDTO> createPredicate(String originalScript, CelRuntime.Program program) {
+  @VisibleForTesting
+  @SneakyThrows
+  static Set<String> referencedRecordFields(String script) {
+    return referencedRecordFields(CEL_COMPILER.compile(script).getAst());
+  }
+
+  /**
+   * Returns conditions of the script that can be applied to consumer position before polling.
+   */
+  public static FilterPushdown celScriptPushdown(String script) {
+    CelValidationResult celValidationResult = CEL_COMPILER.compile(script);
+    if (celValidationResult.hasError()) {
+      throw new CelException(script, celValidationResult.getErrorString());
+    }
+    try {
+      return FilterPushdown.extract(celValidationResult.getAst(), CEL_RECORD_VAR_NAME);
+    } catch (CelValidationException e) {
+      throw new CelException(script, e);
+    }
+  }
+
+  /**
+   * Returns fields of the record variable that expression can access. Only these fields are passed to
+   * the program, so key/value json parsing is skipped when script does not use them.
+   * If record is used not only in field selections (e.g. compared as a whole), all fields are returned.
+   */
+  private static Set<String> referencedRecordFields(CelAbstractSyntaxTree ast) {
+    Set<String> fields = new HashSet<>();
+    List<CelNavigableExpr> recordIdents = CelNavigableAst.fromAst(ast).getRoot().allNodes()
+        .filter(node -> node.expr().exprKind().getKind() == Kind.IDENT
+            && node.expr().ident().name().equals(CEL_RECORD_VAR_NAME))
+        .toList();
+    for (CelNavigableExpr ident : recordIdents) {
+      Optional<CelExpr> select = ident.parent()
+          .map(CelNavigableExpr::expr)
+          .filter(parent -> parent.exprKind().getKind() == Kind.SELECT);
+      if (select.isEmpty()) {
+        return CEL_RECORD_FIELDS.keySet();
+      }
+      fields.add(select.get().select().field());
+    }
+    return fields;
+  }
+
+  private static Predicate<TopicMessageDTO> createPredicate(String originalScript,
+                                                            CelRuntime.Program program,
+                                                            Set<String> usedFields) {
     return topicMessage -> {
       Object programResult;
       try {
-        programResult = program.eval(recordToArgs(topicMessage));
+        programResult = program.eval(recordToArgs(topicMessage, usedFields));
       } catch (CelEvaluationException e) {
         throw new CelException(originalScript, e);
       }
@@ -133,52 +273,56 @@ public class MessageFilters {
     };
   }
 
-  private static Map<String, Map<String, Object>> recordToArgs(TopicMessageDTO topicMessage) {
+  // only fields that are used by the script are calculated
+  private static Map<String, Map<String, Object>> recordToArgs(TopicMessageDTO topicMessage, Set<String> fields) {
     Map<String, Object> args = new HashMap<>();
 
-    args.put("partition", topicMessage.getPartition());
-    args.put("offset", topicMessage.getOffset());
+    if (fields.contains("partition")) {
+      args.put("partition", topicMessage.getPartition());
+    }
+    if (fields.contains("offset")) {
+      args.put("offset", topicMessage.getOffset());
+    }
 
-    if (topicMessage.getTimestamp() != null) {
+    if (fields.contains("timestampMs") && topicMessage.getTimestamp() != null) {
       args.put("timestampMs", topicMessage.getTimestamp().toInstant().toEpochMilli());
     }
 
     if (topicMessage.getKey() != null) {
-      args.put("key", parseToJsonOrReturnAsIs(topicMessage.getKey()));
-      args.put("keyAsText", topicMessage.getKey());
+      if (fields.contains("key")) {
+        args.put("key", parseToJsonOrReturnAsIs(topicMessage.getKey()));
+      }
+      if (fields.contains("keyAsText")) {
+        args.put("keyAsText", topicMessage.getKey());
+      }
     }
 
     if (topicMessage.getValue() != null) {
-      args.put("value", parseToJsonOrReturnAsIs(topicMessage.getValue()));
-      args.put("valueAsText", topicMessage.getValue());
+      if (fields.contains("value")) {
+        args.put("value", parseToJsonOrReturnAsIs(topicMessage.getValue()));
+      }
+      if (fields.contains("valueAsText")) {
+        args.put("valueAsText", topicMessage.getValue());
+      }
     }
 
-    args.put("headers", Objects.requireNonNullElse(topicMessage.getHeaders(), emptyMap()));
+    if (fields.contains("headers")) {
+      args.put("headers", Objects.requireNonNullElse(topicMessage.getHeaders(), emptyMap()));
+    }
 
     return Map.of("record", args);
   }
 
   private static CelCompiler createCompiler() {
-    Map<String, CelType> fields = Map.of(
-        "partition", SimpleType.INT,
-        "offset", SimpleType.INT,
-        "timestampMs", SimpleType.INT,
-        "keyAsText", SimpleType.STRING,
-        "valueAsText", SimpleType.STRING,
-        "headers", MapType.create(SimpleType.STRING, SimpleType.STRING),
-        "key", SimpleType.DYN,
-        "value", SimpleType.DYN
-    );
-
     ImmutableSet<String> names = ImmutableSet
         .<String>builder()
-        .addAll(fields.keySet())
+        .addAll(CEL_RECORD_FIELDS.keySet())
         .build();
 
     StructType recordType = StructType.create(
         CEL_RECORD_TYPE_NAME,
         names,
-        fieldName -> Optional.ofNullable(fields.get(fieldName))
+        fieldName -> Optional.ofNullable(CEL_RECORD_FIELDS.get(fieldName))
     );
 
     return CelCompilerFactory.standardCelCompilerBuilder()
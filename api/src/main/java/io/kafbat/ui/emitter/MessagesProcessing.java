@@ -5,35 +5,82 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.model.TopicMessagePhaseDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.utils.Bytes;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Slf4j
-@RequiredArgsConstructor
 class MessagesProcessing {
 
+  // shared across all emitters, serdes can do blocking calls (like schema registry requests)
+  private static final Scheduler PROCESSING_SCHEDULER = BlockingSchedulers.newBoundedElastic("messages-processing");
+
+  // number of records that are deserialized & filtered by one task in parallel mode
+  private static final int PARALLEL_BATCH_SIZE = 32;
+
   private final ConsumingStats consumingStats = new ConsumingStats();
   private long sentMessages = 0;
 
   private final ConsumerRecordDeserializer deserializer;
+  // deserializer can be reused by next pages, so its stats are reported relative to this point
+  private final ConsumerRecordDeserializer.FallbackStats initialFallbackStats;
   private final Predicate<TopicMessageDTO> filter;
   private final boolean ascendingSortBeforeSend;
   private final @Nullable Integer limit;
+  private final int parallelism;
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit) {
+    this(deserializer, filter, ascendingSortBeforeSend, limit, 1);
+  }
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit,
+                     int parallelism) {
+    this.deserializer = deserializer;
+    this.initialFallbackStats = deserializer.fallbackStats();
+    this.filter = filter;
+    this.ascendingSortBeforeSend = ascendingSortBeforeSend;
+    this.limit = limit;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  // result of record deserialization and filter application
+  private record ProcessedRecord(ConsumerRecord<Bytes, Bytes> rec,
+                                 @Nullable TopicMessageDTO message, // null if record was rejected by pre-filter
+                                 boolean matched,
+                                 boolean filterApplyError) {
+  }
+
+  long sentMessages() {
+    return sentMessages;
+  }
 
   boolean limitReached() {
     return limit != null && sentMessages >= limit;
@@ -42,28 +89,101 @@ class MessagesProcessing {
   void send(FluxSink<TopicMessageEventDTO> sink,
             Iterable<ConsumerRecord<Bytes, Bytes>> polled,
             @Nullable Cursor.Tracking cursor) {
-    sortForSending(polled, ascendingSortBeforeSend)
-        .forEach(rec -> {
-          if (!limitReached() && !sink.isCancelled()) {
-            TopicMessageDTO topicMessage = deserializer.deserialize(rec);
-            try {
-              if (filter.test(topicMessage)) {
-                sink.next(
-                    new TopicMessageEventDTO()
-                        .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
-                        .message(topicMessage)
-                );
-                sentMessages++;
-              }
-              if (cursor != null) {
-                cursor.trackOffset(rec.topic(), rec.partition(), rec.offset());
-              }
-            } catch (Exception e) {
-              consumingStats.incFilterApplyError();
-              log.trace("Error applying filter for message {}", topicMessage);
-            }
+    if (limitReached() || sink.isCancelled()) {
+      return;
+    }
+    // serdes resolve what they need for the whole batch (like schemas) at once, before records are processed
+    deserializer.prefetch(polled);
+    var sorted = sortForSending(polled, ascendingSortBeforeSend);
+    if (parallelism > 1) {
+      var sortedList = Lists.newArrayList(sorted);
+      if (sortedList.size() > PARALLEL_BATCH_SIZE) {
+        sendProcessedInParallel(sink, sortedList, cursor);
+        return;
+      }
+    }
+    sorted.forEach(rec -> {
+      if (!limitReached() && !sink.isCancelled()) {
+        emit(sink, process(rec), cursor);
+      }
+    });
+  }
+
+  /*
+   * Records are split into batches that are deserialized & filtered on shared scheduler, while emitting
+   * is done on caller's thread in original (sorted) order. Not more than `parallelism` batches are processed
+   * at the same time, so we don't do (much) excessive work when limit is reached.
+   */
+  private void sendProcessedInParallel(FluxSink<TopicMessageEventDTO> sink,
+                                       List<ConsumerRecord<Bytes, Bytes>> sorted,
+                                       @Nullable Cursor.Tracking cursor) {
+    List<List<ConsumerRecord<Bytes, Bytes>>> batches = Lists.partition(sorted, PARALLEL_BATCH_SIZE);
+    Deque<CompletableFuture<List<ProcessedRecord>>> inFlight = new ArrayDeque<>();
+    int nextBatch = 0;
+    try {
+      while (nextBatch < batches.size() || !inFlight.isEmpty()) {
+        while (nextBatch < batches.size() && inFlight.size() < parallelism) {
+          inFlight.add(processAsync(batches.get(nextBatch++)));
+        }
+        for (ProcessedRecord processed : await(inFlight.poll())) {
+          if (limitReached() || sink.isCancelled()) {
+            return;
           }
-        });
+          emit(sink, processed, cursor);
+        }
+      }
+    } finally {
+      inFlight.forEach(f -> f.cancel(true));
+    }
+  }
+
+  private CompletableFuture<List<ProcessedRecord>> processAsync(List<ConsumerRecord<Bytes, Bytes>> batch) {
+    return Mono.fromCallable(() -> batch.stream().map(this::process).toList())
+        .subscribeOn(PROCESSING_SCHEDULER)
+        .toFuture();
+  }
+
+  private static List<ProcessedRecord> await(CompletableFuture<List<ProcessedRecord>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private ProcessedRecord process(ConsumerRecord<Bytes, Bytes> rec) {
+    if (!deserializer.passesRawPreFilter(rec)) {
+      return new ProcessedRecord(rec, null, false, false);
+    }
+    TopicMessageDTO topicMessage = deserializer.deserialize(rec);
+    try {
+      return new ProcessedRecord(rec, topicMessage, filter.test(topicMessage), false);
+    } catch (Exception e) {
+      return new ProcessedRecord(rec, topicMessage, false, true);
+    }
+  }
+
+  private void emit(FluxSink<TopicMessageEventDTO> sink,
+                    ProcessedRecord processed,
+                    @Nullable Cursor.Tracking cursor) {
+    if (processed.filterApplyError()) {
+      consumingStats.incFilterApplyError();
+      log.trace("Error applying filter for message {}", processed.message());
+      return;
+    }
+    var rec = processed.rec();
+    if (processed.matched()) {
+      sink.next(
+          new TopicMessageEventDTO()
+              .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+              .message(processed.message())
+      );
+      sentMessages++;
+    }
+    if (cursor != null) {
+      cursor.trackOffset(rec.topic(), rec.partition(), rec.offset());
+    }
   }
 
   void sentConsumingInfo(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
@@ -74,7 +194,7 @@ class MessagesProcessing {
 
   void sendFinishEvents(FluxSink<TopicMessageEventDTO> sink, @Nullable Cursor.Tracking cursor) {
     if (!sink.isCancelled()) {
-      consumingStats.sendFinishEvent(sink, cursor);
+      consumingStats.sendFinishEvent(sink, cursor, deserializer.fallbackStats().minus(initialFallbackStats));
     }
   }
 
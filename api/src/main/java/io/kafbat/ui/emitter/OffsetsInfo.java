@@ -3,10 +3,12 @@ package io.kafbat.ui.emitter;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.mutable.MutableLong;
@@ -35,9 +37,15 @@ class OffsetsInfo {
   }
 
   OffsetsInfo(Consumer<?, ?> consumer, Collection<TopicPartition> targetPartitions) {
+    this(consumer, firstOffsetsForPolling(consumer, targetPartitions), consumer.endOffsets(targetPartitions));
+  }
+
+  private OffsetsInfo(Consumer<?, ?> consumer,
+                      Map<TopicPartition, Long> beginOffsets,
+                      Map<TopicPartition, Long> endOffsets) {
     this.consumer = consumer;
-    this.beginOffsets = firstOffsetsForPolling(consumer, targetPartitions);
-    this.endOffsets = consumer.endOffsets(targetPartitions);
+    this.beginOffsets = beginOffsets;
+    this.endOffsets = endOffsets;
     endOffsets.forEach((tp, endOffset) -> {
       var beginningOffset = beginOffsets.get(tp);
       if (endOffset > beginningOffset) {
@@ -49,7 +57,26 @@ class OffsetsInfo {
   }
 
 
-  private Map<TopicPartition, Long> firstOffsetsForPolling(Consumer<?, ?> consumer,
+  // begin offsets are kept, since they can only grow (due to retention) and it is safe to seek below them
+  OffsetsInfo withRefreshedEndOffsets() {
+    return new OffsetsInfo(consumer, beginOffsets, consumer.endOffsets(allTargetPartitions()));
+  }
+
+  /**
+   * Narrows partitions' offsets ranges. Partitions which ranges become empty are moved to empty partitions.
+   */
+  OffsetsInfo withBounds(Map<TopicPartition, Long> lowerBounds, @Nullable Long upperBound) {
+    Map<TopicPartition, Long> narrowedEnd = new HashMap<>(endOffsets);
+    if (upperBound != null) {
+      narrowedEnd.replaceAll((tp, end) -> Math.min(end, upperBound));
+    }
+    Map<TopicPartition, Long> narrowedBegin = new HashMap<>(beginOffsets);
+    narrowedBegin.replaceAll((tp, begin) ->
+        Math.min(Math.max(begin, lowerBounds.getOrDefault(tp, begin)), narrowedEnd.get(tp)));
+    return new OffsetsInfo(consumer, narrowedBegin, narrowedEnd);
+  }
+
+  private static Map<TopicPartition, Long> firstOffsetsForPolling(Consumer<?, ?> consumer,
                                                            Collection<TopicPartition> partitions) {
     try {
       // we try to use offsetsForTimes() to find earliest offsets, since for
@@ -0,0 +1,221 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.emitter.RangePollingEmitter.FromToOffset;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.utils.Bytes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Splits polling range into partition groups (partitions led by the same broker are put into same group
+ * when possible) and polls each group with its own consumer in parallel. Consumers are created lazily
+ * on first use and reused between polling rounds of the same emitter.
+ * <p>
+ * Fetch returns only when all group tasks are finished: if one of them fails (or caller is interrupted),
+ * others are stopped and awaited, so consumers are never closed while they are polling.
+ */
+@Slf4j
+class PartitionGroupsFetcher implements AutoCloseable {
+
+  private static final Scheduler SCHEDULER = BlockingSchedulers.newBoundedElastic("range-fetcher");
+
+  private static final int NO_LEADER = -1;
+
+  record FetchResult(List<ConsumerRecord<Bytes, Bytes>> records, List<PolledRecords> polls) {
+  }
+
+  private final Supplier<EnhancedConsumer> consumerSupplier;
+  private final int parallelism;
+  private final Function<EnhancedConsumer, PolledRecords> poller;
+
+  // index = group number, consumer is only polled by task that polls corresponding group
+  private final AtomicReferenceArray<EnhancedConsumer> consumers;
+  // last task of each group, consumer is closed only after its task is finished
+  private final AtomicReferenceArray<CompletableFuture<FetchResult>> tasks;
+  private Map<TopicPartition, Integer> leaders;
+
+  PartitionGroupsFetcher(Supplier<EnhancedConsumer> consumerSupplier,
+                         int parallelism,
+                         Function<EnhancedConsumer, PolledRecords> poller) {
+    this.consumerSupplier = consumerSupplier;
+    this.parallelism = Math.max(1, parallelism);
+    this.poller = poller;
+    this.consumers = new AtomicReferenceArray<>(this.parallelism);
+    this.tasks = new AtomicReferenceArray<>(this.parallelism);
+  }
+
+  boolean isFanOutApplicable(Map<TopicPartition, FromToOffset> range) {
+    return parallelism > 1 && range.size() > 1;
+  }
+
+  List<Map<TopicPartition, FromToOffset>> splitIntoGroups(EnhancedConsumer metadataConsumer,
+                                                          TreeMap<TopicPartition, FromToOffset> range) {
+    if (leaders == null) {
+      leaders = new HashMap<>();
+      range.keySet().stream().map(TopicPartition::topic).distinct()
+          .flatMap(topic -> metadataConsumer.partitionsFor(topic).stream())
+          .forEach(pi -> leaders.put(
+              new TopicPartition(pi.topic(), pi.partition()),
+              pi.leader() == null || pi.leader().isEmpty() ? NO_LEADER : pi.leader().id()));
+    }
+    return splitIntoGroups(range, leaders, parallelism);
+  }
+
+  // polled bytes are charged to budget owner's account, so groups that finished polling don't hold it separately
+  FetchResult fetch(EnhancedConsumer budgetOwner,
+                    List<Map<TopicPartition, FromToOffset>> groups,
+                    BooleanSupplier cancelled) {
+    var stopped = new AtomicBoolean();
+    BooleanSupplier stop = () -> stopped.get() || cancelled.getAsBoolean();
+    List<CompletableFuture<FetchResult>> groupTasks = new ArrayList<>(groups.size());
+    for (int i = 0; i < groups.size(); i++) {
+      int idx = i;
+      var task = Mono.fromCallable(() -> fetchGroup(budgetOwner, idx, groups.get(idx), stop))
+          .subscribeOn(SCHEDULER)
+          .toFuture()
+          .whenComplete((_, th) -> {
+            if (th != null) {
+              stopGroups(stopped);
+            }
+          });
+      tasks.set(idx, task);
+      groupTasks.add(task);
+    }
+    awaitAll(groupTasks, stopped);
+
+    List<ConsumerRecord<Bytes, Bytes>> records = new ArrayList<>();
+    List<PolledRecords> polls = new ArrayList<>();
+    groupTasks.forEach(t -> {
+      var r = t.join();
+      records.addAll(r.records());
+      polls.addAll(r.polls());
+    });
+    return new FetchResult(records, polls);
+  }
+
+  // waits for all tasks (even if some of them failed) and rethrows first failure that is not caused by stopping
+  private void awaitAll(List<CompletableFuture<FetchResult>> groupTasks, AtomicBoolean stopped) {
+    var all = CompletableFuture.allOf(groupTasks.toArray(CompletableFuture[]::new));
+    try {
+      all.get();
+      return;
+    } catch (InterruptedException e) {
+      stopGroups(stopped);
+      all.exceptionally(_ -> null).join();
+      Thread.currentThread().interrupt();
+      throw new InterruptException(e);
+    } catch (ExecutionException e) {
+      // all tasks are finished at this point
+    }
+    Throwable failure = null;
+    for (var task : groupTasks) {
+      if (task.isCompletedExceptionally()) {
+        Throwable th = task.exceptionNow();
+        if (failure == null || failure instanceof WakeupException) {
+          failure = th;
+        }
+      }
+    }
+    throw failure instanceof RuntimeException re ? re : new IllegalStateException(failure);
+  }
+
+  // stops polling of all groups, consumers that are in the middle of poll are woken up
+  private void stopGroups(AtomicBoolean stopped) {
+    if (stopped.compareAndSet(false, true)) {
+      for (int i = 0; i < consumers.length(); i++) {
+        var consumer = consumers.get(i);
+        var task = tasks.get(i);
+        if (consumer != null && task != null && !task.isDone()) {
+          consumer.interruptPolling();
+        }
+      }
+    }
+  }
+
+  private FetchResult fetchGroup(EnhancedConsumer budgetOwner,
+                                 int groupIdx,
+                                 Map<TopicPartition, FromToOffset> group,
+                                 BooleanSupplier stop) {
+    var consumer = consumers.get(groupIdx);
+    if (consumer == null) {
+      consumer = consumerSupplier.get();
+      consumer.chargePolledBytesTo(budgetOwner);
+      consumers.set(groupIdx, consumer);
+    }
+    List<PolledRecords> polls = new ArrayList<>();
+    var records = RangePollingEmitter.pollRange(consumer, group, stop, poller, polls::add);
+    return new FetchResult(records, polls);
+  }
+
+  /**
+   * Partitions are sorted by their leader's id (and then by partition number) and split into
+   * contiguous balanced chunks. This way consumer fetches from as few brokers as possible.
+   */
+  @VisibleForTesting
+  static List<Map<TopicPartition, FromToOffset>> splitIntoGroups(Map<TopicPartition, FromToOffset> range,
+                                                                 Map<TopicPartition, Integer> leaders,
+                                                                 int maxGroups) {
+    List<TopicPartition> sorted = new ArrayList<>(range.keySet());
+    sorted.sort(
+        Comparator.<TopicPartition>comparingInt(tp -> leaders.getOrDefault(tp, NO_LEADER))
+            .thenComparing(TopicPartition::topic)
+            .thenComparingInt(TopicPartition::partition)
+    );
+    int groupsCnt = Math.max(1, Math.min(maxGroups, sorted.size()));
+    if (groupsCnt == 1) {
+      return sorted.isEmpty() ? Collections.emptyList() : List.of(range);
+    }
+    List<Map<TopicPartition, FromToOffset>> groups = new ArrayList<>(groupsCnt);
+    int baseSize = sorted.size() / groupsCnt;
+    int remainder = sorted.size() % groupsCnt;
+    int idx = 0;
+    for (int g = 0; g < groupsCnt; g++) {
+      int size = baseSize + (g < remainder ? 1 : 0);
+      Map<TopicPartition, FromToOffset> group = new HashMap<>();
+      for (TopicPartition tp : sorted.subList(idx, idx + size)) {
+        group.put(tp, range.get(tp));
+      }
+      groups.add(group);
+      idx += size;
+    }
+    return groups;
+  }
+
+  @Override
+  public void close() {
+    for (int i = 0; i < consumers.length(); i++) {
+      var task = tasks.get(i);
+      if (task != null) {
+        task.exceptionally(_ -> null).join();
+      }
+      var consumer = consumers.get(i);
+      if (consumer != null) {
+        try {
+          consumer.close();
+        } catch (Exception e) {
+          log.warn("Error closing fetcher consumer", e);
+        }
+      }
+    }
+  }
+}
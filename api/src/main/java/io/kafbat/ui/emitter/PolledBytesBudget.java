@@ -0,0 +1,148 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.InterruptException;
+
+/**
+ * Global limit of polled, but not yet processed bytes. Polled bytes are charged to the poller's {@link Account}
+ * right after polling and stay charged until the account is released (when polled records are emitted, or
+ * consumer is closed), so all records buffered by the poller are counted.
+ * <p>
+ * Only pollers that hold nothing wait for the budget (and not longer than max wait time), pollers that already
+ * hold some budget take what they polled without waiting, even if it exceeds the budget. This way no one waits
+ * while holding budget, and polls can't deadlock on it.
+ */
+@Slf4j
+public class PolledBytesBudget {
+
+  // semaphore permits are counted in KBs, so budget is not limited by int range
+  private static final int PERMIT_BYTES = 1024;
+
+  private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+  private final OverdraftSemaphore semaphore;
+  private final int maxPermits;
+  private final Duration maxWait;
+  private final AtomicLong overdrafts = new AtomicLong();
+
+  public PolledBytesBudget(long maxBytes) {
+    this(maxBytes, DEFAULT_MAX_WAIT);
+  }
+
+  @VisibleForTesting
+  PolledBytesBudget(long maxBytes, Duration maxWait) {
+    this.maxPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(0, maxBytes) / PERMIT_BYTES);
+    this.semaphore = new OverdraftSemaphore(maxPermits);
+    this.maxWait = maxWait;
+  }
+
+  public boolean isUnlimited() {
+    return maxPermits == 0;
+  }
+
+  public Account newAccount() {
+    return new Account();
+  }
+
+  private int permits(long bytes) {
+    if (isUnlimited() || bytes <= 0) {
+      return 0;
+    }
+    // single poll bigger than whole budget can only proceed alone
+    return (int) Math.min(maxPermits, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES);
+  }
+
+  private void acquireWaiting(int permits) {
+    try {
+      if (!semaphore.tryAcquire(permits, maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.debug("Polled bytes budget was not released in {}, exceeding it", maxWait);
+        overdraft(permits);
+      }
+    } catch (InterruptedException e) {
+      throw new InterruptException(e);
+    }
+  }
+
+  private void acquireNow(int permits) {
+    if (!semaphore.tryAcquire(permits)) {
+      overdraft(permits);
+    }
+  }
+
+  private void overdraft(int permits) {
+    overdrafts.incrementAndGet();
+    semaphore.reducePermits(permits);
+  }
+
+  private void release(int permits) {
+    if (permits > 0) {
+      semaphore.release(permits);
+    }
+  }
+
+  public long inFlightBytes() {
+    return (long) (maxPermits - semaphore.availablePermits()) * PERMIT_BYTES;
+  }
+
+  public int waitingPolls() {
+    return semaphore.getQueueLength();
+  }
+
+  public long overdraftsCount() {
+    return overdrafts.get();
+  }
+
+  /**
+   * Budget held by a single poller. Can be shared by consumers polling for the same emitter (from different
+   * threads), they are released together. Charges are serialized, so only one consumer of the account can wait
+   * for the budget, others wait for it and then take what they polled without waiting, since account holds
+   * budget at that point.
+   */
+  public final class Account {
+
+    private final AtomicInteger held = new AtomicInteger();
+
+    private Account() {
+    }
+
+    public synchronized void charge(long bytes) {
+      int permits = permits(bytes);
+      if (permits == 0) {
+        return;
+      }
+      if (held.get() == 0) {
+        acquireWaiting(permits);
+      } else {
+        acquireNow(permits);
+      }
+      held.addAndGet(permits);
+    }
+
+    public void release() {
+      PolledBytesBudget.this.release(held.getAndSet(0));
+    }
+
+    public long heldBytes() {
+      return (long) held.get() * PERMIT_BYTES;
+    }
+  }
+
+  // permits can be taken above the limit, making available permits negative until they are released
+  private static final class OverdraftSemaphore extends Semaphore {
+
+    OverdraftSemaphore(int permits) {
+      super(permits, true);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+}
@@ -37,7 +37,7 @@ public record PolledRecords(int count,
     return records.partitions();
   }
 
-  private static int calculatePolledRecSize(Iterable<ConsumerRecord<Bytes, Bytes>> recs) {
+  static int calculatePolledRecSize(Iterable<ConsumerRecord<Bytes, Bytes>> recs) {
     int polledBytes = 0;
     for (ConsumerRecord<Bytes, Bytes> rec : recs) {
       for (Header header : rec.headers()) {
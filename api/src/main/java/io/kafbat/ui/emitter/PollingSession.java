@@ -0,0 +1,150 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.emitter.RangePollingEmitter.FromToOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Range polling state that is kept between pages when sticky cursor sessions are enabled:
+ * consumer (with its connections and metadata), topic's offsets info and records that were
+ * fetched but not sent because page limit was reached. Next page's emitter takes this session
+ * and does not need to create consumer, look up offsets and re-fetch already fetched records.
+ */
+@Slf4j
+public final class PollingSession implements AutoCloseable {
+
+  // all records of the partition within [from, to) offsets range (range is fully covered by fetch)
+  record FetchedRange(long from, long to, List<ConsumerRecord<Bytes, Bytes>> records) {
+  }
+
+  record TakenRecords(List<ConsumerRecord<Bytes, Bytes>> records, Map<TopicPartition, FromToOffset> rangeToPoll) {
+  }
+
+  private final EnhancedConsumer consumer;
+  private final OffsetsInfo offsetsInfo;
+  private final String topic;
+  private final Map<TopicPartition, FetchedRange> fetched;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private PollingSession(EnhancedConsumer consumer,
+                         OffsetsInfo offsetsInfo,
+                         String topic,
+                         Map<TopicPartition, FetchedRange> fetched) {
+    this.consumer = consumer;
+    this.offsetsInfo = offsetsInfo;
+    this.topic = topic;
+    this.fetched = fetched;
+  }
+
+  /**
+   * Creates session from the last polled range. Only records that will be requested by next page
+   * (that are after/before next page's offsets for forward/backward polling) are kept. Partitions that
+   * do not fit into bytes limit are not buffered and will be re-fetched.
+   */
+  static PollingSession create(EnhancedConsumer consumer,
+                               OffsetsInfo offsetsInfo,
+                               String topic,
+                               boolean forward,
+                               Map<TopicPartition, FromToOffset> lastPolledRange,
+                               List<ConsumerRecord<Bytes, Bytes>> lastPolledRecords,
+                               Map<TopicPartition, Long> nextPageOffsets,
+                               long maxBufferedBytes) {
+    Map<TopicPartition, List<ConsumerRecord<Bytes, Bytes>>> polledByPartition = new HashMap<>();
+    lastPolledRecords.forEach(r ->
+        polledByPartition.computeIfAbsent(new TopicPartition(r.topic(), r.partition()), _ -> new ArrayList<>())
+            .add(r));
+
+    Map<TopicPartition, FetchedRange> fetched = new HashMap<>();
+    long bufferedBytes = 0;
+    for (var e : lastPolledRange.entrySet()) {
+      TopicPartition tp = e.getKey();
+      FromToOffset polled = e.getValue();
+      Long next = nextPageOffsets.get(tp);
+      boolean nextPageStartsInPolledRange = next != null
+          && (forward
+          ? next >= polled.from() && next < polled.to()
+          : next > polled.from() && next <= polled.to());
+      if (!nextPageStartsInPolledRange) {
+        continue;
+      }
+      long from = forward ? next : polled.from();
+      long to = forward ? polled.to() : next;
+      List<ConsumerRecord<Bytes, Bytes>> records = polledByPartition.getOrDefault(tp, List.of()).stream()
+          .filter(r -> r.offset() >= from && r.offset() < to)
+          .toList();
+      int size = PolledRecords.calculatePolledRecSize(records);
+      if (bufferedBytes + size > maxBufferedBytes) {
+        continue;
+      }
+      bufferedBytes += size;
+      fetched.put(tp, new FetchedRange(from, to, records));
+    }
+    log.trace("Keeping polling session with {} bytes of fetched records", bufferedBytes);
+    return new PollingSession(consumer, offsetsInfo, topic, fetched);
+  }
+
+  EnhancedConsumer consumer() {
+    return consumer;
+  }
+
+  OffsetsInfo offsetsInfo() {
+    return offsetsInfo;
+  }
+
+  public String topic() {
+    return topic;
+  }
+
+  /**
+   * Takes already fetched records for the range and returns range's part that still needs to be polled.
+   * Fetched records can only be taken once.
+   */
+  TakenRecords takeFetched(Map<TopicPartition, FromToOffset> range) {
+    List<ConsumerRecord<Bytes, Bytes>> taken = new ArrayList<>();
+    Map<TopicPartition, FromToOffset> rangeToPoll = new HashMap<>();
+    range.forEach((tp, fromTo) -> {
+      FetchedRange fr = fetched.get(tp);
+      if (fr != null && fr.from() <= fromTo.from() && fr.to() > fromTo.from()) {
+        // fetched range covers beginning of the range
+        addRecords(taken, fr, fromTo.from(), Math.min(fromTo.to(), fr.to()));
+        if (fr.to() < fromTo.to()) {
+          rangeToPoll.put(tp, new FromToOffset(fr.to(), fromTo.to()));
+        }
+      } else if (fr != null && fr.to() >= fromTo.to() && fr.from() < fromTo.to()) {
+        // fetched range covers ending of the range
+        addRecords(taken, fr, Math.max(fromTo.from(), fr.from()), fromTo.to());
+        if (fr.from() > fromTo.from()) {
+          rangeToPoll.put(tp, new FromToOffset(fromTo.from(), fr.from()));
+        }
+      } else {
+        rangeToPoll.put(tp, fromTo);
+      }
+    });
+    fetched.clear();
+    return new TakenRecords(taken, rangeToPoll);
+  }
+
+  private static void addRecords(List<ConsumerRecord<Bytes, Bytes>> target, FetchedRange fr, long from, long to) {
+    fr.records().stream()
+        .filter(r -> r.offset() >= from && r.offset() < to)
+        .forEach(target::add);
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      try {
+        consumer.close();
+      } catch (Exception e) {
+        log.warn("Error closing polling session's consumer", e);
+      }
+    }
+  }
+}
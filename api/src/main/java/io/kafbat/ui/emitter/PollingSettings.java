@@ -1,6 +1,7 @@
 package io.kafbat.ui.emitter;
 
 import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.config.ClustersProperties.AdaptiveWindowProperties;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -8,9 +9,14 @@ import java.util.function.Supplier;
 public class PollingSettings {
 
   private static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofMillis(1_000);
+  private static final int DEFAULT_FETCH_PARALLELISM = 1;
+  private static final int DEFAULT_DESERIALIZATION_PARALLELISM = 1;
 
   private final Duration pollTimeout;
   private final Supplier<PollingThrottler> throttlerSupplier;
+  private final int fetchParallelism;
+  private final int deserializationParallelism;
+  private final AdaptiveWindowProperties adaptiveWindow;
 
   public static PollingSettings create(ClustersProperties.Cluster cluster,
                                        ClustersProperties clustersProperties) {
@@ -21,23 +27,43 @@ public class PollingSettings {
         ? Duration.ofMillis(pollingProps.getPollTimeoutMs())
         : DEFAULT_POLL_TIMEOUT;
 
+    var fetchParallelism = Optional.ofNullable(pollingProps.getFetchParallelism())
+        .filter(p -> p > 0)
+        .orElse(DEFAULT_FETCH_PARALLELISM);
+
+    var deserializationParallelism = Optional.ofNullable(cluster.getDeserializationParallelism())
+        .filter(p -> p > 0)
+        .orElse(DEFAULT_DESERIALIZATION_PARALLELISM);
+
     return new PollingSettings(
         pollTimeout,
-        PollingThrottler.throttlerSupplier(cluster)
+        PollingThrottler.throttlerSupplier(cluster),
+        fetchParallelism,
+        deserializationParallelism,
+        Optional.ofNullable(pollingProps.getAdaptiveWindow()).orElseGet(AdaptiveWindowProperties::new)
     );
   }
 
   public static PollingSettings createDefault() {
     return new PollingSettings(
         DEFAULT_POLL_TIMEOUT,
-        PollingThrottler::noop
+        PollingThrottler::noop,
+        DEFAULT_FETCH_PARALLELISM,
+        DEFAULT_DESERIALIZATION_PARALLELISM,
+        new AdaptiveWindowProperties()
     );
   }
 
   private PollingSettings(Duration pollTimeout,
-                          Supplier<PollingThrottler> throttlerSupplier) {
+                          Supplier<PollingThrottler> throttlerSupplier,
+                          int fetchParallelism,
+                          int deserializationParallelism,
+                          AdaptiveWindowProperties adaptiveWindow) {
     this.pollTimeout = pollTimeout;
     this.throttlerSupplier = throttlerSupplier;
+    this.fetchParallelism = fetchParallelism;
+    this.deserializationParallelism = deserializationParallelism;
+    this.adaptiveWindow = adaptiveWindow;
   }
 
   public Duration getPollTimeout() {
@@ -47,4 +73,19 @@ public class PollingSettings {
   public PollingThrottler getPollingThrottler() {
     return throttlerSupplier.get();
   }
+
+  // max number of consumers that can be used to poll single range (1 = no fan-out)
+  public int getFetchParallelism() {
+    return fetchParallelism;
+  }
+
+  // max number of records batches that can be deserialized & filtered concurrently (1 = on emitter's thread)
+  public int getDeserializationParallelism() {
+    return deserializationParallelism;
+  }
+
+  // settings of range polling window growth for selective filters
+  public AdaptiveWindowProperties getAdaptiveWindow() {
+    return adaptiveWindow;
+  }
 }
@@ -0,0 +1,77 @@
+package io.kafbat.ui.emitter;
+
+import com.google.common.math.LongMath;
+import io.kafbat.ui.config.ClustersProperties.AdaptiveWindowProperties;
+
+/**
+ * Number of offsets that range emitters poll per partition in one round. Initially it is
+ * messagesPerPage / partitions, which is enough when (almost) all messages pass the filter. With
+ * selective filters (or sparse, compacted partitions) window is grown after each round based on
+ * observed number of matches per polled offset, so that remaining part of the page can be filled
+ * in one round. Growth per round is limited by growth factor, window size is limited by bytes budget,
+ * calculated from the biggest average record size seen so far (as if every offset contains a record).
+ */
+class PollingWindow {
+
+  // used for bytes budget until first records are polled
+  private static final long DEFAULT_RECORD_SIZE = 1024;
+
+  private final int messagesPerPage;
+  private final boolean adaptive;
+  private final int maxGrowthFactor;
+  private final long maxBytesPerRound;
+
+  private long size = 0; // per partition, 0 until first round is done
+  private long maxAvgRecordSize = DEFAULT_RECORD_SIZE;
+
+  PollingWindow(int messagesPerPage, AdaptiveWindowProperties properties) {
+    this.messagesPerPage = messagesPerPage;
+    this.adaptive = properties.isEnabled();
+    this.maxGrowthFactor = Math.max(1, properties.getMaxGrowthFactor());
+    this.maxBytesPerRound = properties.getMaxBytesPerRound();
+  }
+
+  long sizePerPartition(int partitions) {
+    return Math.max(baseSize(partitions), size);
+  }
+
+  private long baseSize(int partitions) {
+    return Math.max(1, (long) Math.ceil((double) messagesPerPage / Math.max(1, partitions)));
+  }
+
+  /**
+   * Adjusts window after polling round.
+   *
+   * @param partitions      number of partitions in polled range
+   * @param offsetsPolled   total number of offsets in polled range
+   * @param recordsPolled   number of polled records (can be less than offsets for compacted/transactional topics)
+   * @param bytesPolled     serialized size of polled records
+   * @param matched         number of polled records that passed the filter
+   * @param remainingToSend number of messages left to fill the page
+   */
+  void roundCompleted(int partitions,
+                      long offsetsPolled,
+                      int recordsPolled,
+                      long bytesPolled,
+                      long matched,
+                      long remainingToSend) {
+    if (!adaptive || partitions == 0 || offsetsPolled == 0 || remainingToSend <= 0) {
+      return;
+    }
+    if (recordsPolled > 0) {
+      maxAvgRecordSize = Math.max(maxAvgRecordSize, Math.max(1, bytesPolled / recordsPolled));
+    }
+    long current = sizePerPartition(partitions);
+    long maxGrowth = LongMath.saturatedMultiply(current, maxGrowthFactor);
+    long target;
+    if (matched == 0) {
+      // empty poll or nothing matched - growing as fast as allowed
+      target = maxGrowth;
+    } else {
+      double matchesPerOffset = (double) matched / offsetsPolled;
+      target = (long) Math.ceil(remainingToSend / matchesPerOffset / partitions);
+    }
+    long byBytesBudget = maxBytesPerRound / maxAvgRecordSize / partitions;
+    size = Math.max(baseSize(partitions), Math.min(Math.min(target, maxGrowth), byBytesBudget));
+  }
+}
@@ -5,8 +5,12 @@ import io.kafbat.ui.model.TopicMessageEventDTO;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -20,8 +24,10 @@ abstract class RangePollingEmitter extends AbstractEmitter {
 
   private final Supplier<EnhancedConsumer> consumerSupplier;
   private final Cursor.Tracking cursor;
+  private final int fetchParallelism;
   protected final ConsumerPosition consumerPosition;
   protected final int messagesPerPage;
+  protected final PollingWindow pollingWindow;
 
   protected RangePollingEmitter(Supplier<EnhancedConsumer> consumerSupplier,
                                 ConsumerPosition consumerPosition,
@@ -34,6 +40,8 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     this.messagesPerPage = messagesPerPage;
     this.consumerSupplier = consumerSupplier;
     this.cursor = cursor;
+    this.fetchParallelism = pollingSettings.getFetchParallelism();
+    this.pollingWindow = new PollingWindow(messagesPerPage, pollingSettings.getAdaptiveWindow());
   }
 
   protected record FromToOffset(/*inclusive*/ long from, /*exclusive*/ long to) {
@@ -45,26 +53,67 @@ abstract class RangePollingEmitter extends AbstractEmitter {
       SeekOperations seekOperations
   );
 
+  // true if polling is done in ascending offsets order
+  protected abstract boolean isForward();
+
   @Override
   public void accept(FluxSink<TopicMessageEventDTO> sink) {
     log.debug("Starting polling for {}", consumerPosition);
-    try (EnhancedConsumer consumer = consumerSupplier.get()) {
-      sendPhase(sink, "Consumer created");
-      var seekOperations = SeekOperations.create(consumer, consumerPosition);
+    PollingSession resumedSession = cursor.takeResumedSession();
+    EnhancedConsumer consumer = null;
+    boolean consumerKeptInSession = false;
+    try (var groupsFetcher = new PartitionGroupsFetcher(consumerSupplier, fetchParallelism, this::poll)) {
+      SeekOperations seekOperations;
+      if (resumedSession != null) {
+        consumer = resumedSession.consumer();
+        seekOperations = SeekOperations.resume(consumer, resumedOffsetsInfo(resumedSession), consumerPosition);
+        sendPhase(sink, "Consumer resumed");
+      } else {
+        consumer = consumerSupplier.get();
+        sendPhase(sink, "Consumer created");
+        seekOperations = SeekOperations.create(consumer, consumerPosition);
+      }
       cursor.initOffsets(seekOperations.getOffsetsForSeek());
+      // records of all polls of the range (by all group consumers) are buffered until they are sent
+      consumer.chargePolledBytesTo(consumer);
 
       TreeMap<TopicPartition, FromToOffset> pollRange = nextPollingRange(new TreeMap<>(), seekOperations);
       log.debug("Starting from offsets {}", pollRange);
 
+      TreeMap<TopicPartition, FromToOffset> lastPolledRange = pollRange;
+      List<ConsumerRecord<Bytes, Bytes>> lastPolled = List.of();
       while (!sink.isCancelled() && !pollRange.isEmpty() && !isSendLimitReached()) {
-        var polled = poll(consumer, sink, pollRange);
-        send(sink, polled, cursor);
+        lastPolledRange = pollRange;
+        lastPolled = resumedSession != null
+            ? pollResumed(resumedSession, groupsFetcher, consumer, sink, pollRange)
+            : poll(groupsFetcher, consumer, sink, pollRange);
+        resumedSession = null;
+        long sentBefore = sentMessagesCount();
+        send(sink, lastPolled, cursor);
+        consumer.releaseBudget();
+        adjustPollingWindow(pollRange, lastPolled, sentMessagesCount() - sentBefore);
         pollRange = nextPollingRange(pollRange, seekOperations);
       }
       if (sink.isCancelled()) {
         log.debug("Polling finished due to sink cancellation");
       }
-      sendFinishStatsAndCompleteSink(sink, pollRange.isEmpty() ? null : cursor);
+      Cursor.Tracking nextPageCursor = pollRange.isEmpty() ? null : cursor;
+      if (nextPageCursor != null && cursor.keepsSessions() && !sink.isCancelled()) {
+        cursor.keepSession(
+            PollingSession.create(
+                consumer,
+                seekOperations.getOffsetsInfo(),
+                consumerPosition.topic(),
+                isForward(),
+                lastPolledRange,
+                lastPolled,
+                cursor.nextPageOffsets(),
+                cursor.maxSessionBufferedBytes()
+            )
+        );
+        consumerKeptInSession = true;
+      }
+      sendFinishStatsAndCompleteSink(sink, nextPageCursor);
       log.debug("Polling finished");
     } catch (InterruptException kafkaInterruptException) {
       log.debug("Polling finished due to thread interruption");
@@ -72,7 +121,57 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     } catch (Exception e) {
       log.error("Error occurred while consuming records", e);
       sink.error(e);
+    } finally {
+      cursor.closeUnregisteredSession();
+      if (!consumerKeptInSession && consumer != null) {
+        consumer.close();
+      }
+    }
+  }
+
+  private void adjustPollingWindow(Map<TopicPartition, FromToOffset> polledRange,
+                                   List<ConsumerRecord<Bytes, Bytes>> polled,
+                                   long sent) {
+    pollingWindow.roundCompleted(
+        polledRange.size(),
+        polledRange.values().stream().mapToLong(r -> r.to() - r.from()).sum(),
+        polled.size(),
+        PolledRecords.calculatePolledRecSize(polled),
+        sent,
+        messagesPerPage - sentMessagesCount()
+    );
+  }
+
+  private OffsetsInfo resumedOffsetsInfo(PollingSession session) {
+    // end offsets are refreshed for forward polling, so messages produced after previous page are not missed
+    return isForward() ? session.offsetsInfo().withRefreshedEndOffsets() : session.offsetsInfo();
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> poll(PartitionGroupsFetcher groupsFetcher,
+                                                  EnhancedConsumer consumer,
+                                                  FluxSink<TopicMessageEventDTO> sink,
+                                                  TreeMap<TopicPartition, FromToOffset> range) {
+    return groupsFetcher.isFanOutApplicable(range)
+        ? pollInParallel(groupsFetcher, consumer, sink, range)
+        : poll(consumer, sink, range);
+  }
+
+  // records that were already fetched by previous page are taken from session, the rest is polled
+  private List<ConsumerRecord<Bytes, Bytes>> pollResumed(PollingSession session,
+                                                         PartitionGroupsFetcher groupsFetcher,
+                                                         EnhancedConsumer consumer,
+                                                         FluxSink<TopicMessageEventDTO> sink,
+                                                         TreeMap<TopicPartition, FromToOffset> range) {
+    var taken = session.takeFetched(range);
+    log.trace("Took {} fetched records from session", taken.records().size());
+    if (taken.rangeToPoll().isEmpty()) {
+      return taken.records();
     }
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>(taken.records());
+    TreeMap<TopicPartition, FromToOffset> rangeToPoll = new TreeMap<>(range.comparator());
+    rangeToPoll.putAll(taken.rangeToPoll());
+    result.addAll(poll(groupsFetcher, consumer, sink, rangeToPoll));
+    return result;
   }
 
   private List<ConsumerRecord<Bytes, Bytes>> poll(EnhancedConsumer consumer,
@@ -81,14 +180,38 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     log.trace("Polling range {}", range);
     sendPhase(sink,
         "Polling partitions: %s".formatted(range.keySet().stream().map(TopicPartition::partition).sorted().toList()));
+    return pollRange(consumer, range, sink::isCancelled, this::poll, polled -> sendConsuming(sink, polled));
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> pollInParallel(PartitionGroupsFetcher groupsFetcher,
+                                                            EnhancedConsumer consumer,
+                                                            FluxSink<TopicMessageEventDTO> sink,
+                                                            TreeMap<TopicPartition, FromToOffset> range) {
+    log.trace("Polling range {} in parallel", range);
+    var groups = groupsFetcher.splitIntoGroups(consumer, range);
+    sendPhase(sink,
+        "Polling partitions: %s".formatted(
+            groups.stream().map(g -> g.keySet().stream().map(TopicPartition::partition).sorted().toList()).toList()));
+    var fetched = groupsFetcher.fetch(consumer, groups, sink::isCancelled);
+    // consuming stats are not thread-safe, so they are reported from emitter's thread
+    fetched.polls().forEach(polled -> sendConsuming(sink, polled));
+    return fetched.records();
+  }
 
+  // polls records from the range using single consumer, partitions are paused when their "to" offset is reached
+  static List<ConsumerRecord<Bytes, Bytes>> pollRange(EnhancedConsumer consumer,
+                                                      Map<TopicPartition, FromToOffset> range,
+                                                      BooleanSupplier cancelled,
+                                                      Function<EnhancedConsumer, PolledRecords> poller,
+                                                      Consumer<PolledRecords> pollListener) {
     consumer.assign(range.keySet());
     range.forEach((tp, fromTo) -> consumer.seek(tp, fromTo.from));
 
     List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
     Set<TopicPartition> paused = new HashSet<>();
-    while (!sink.isCancelled() && paused.size() < range.size()) {
-      var polledRecords = poll(sink, consumer);
+    while (!cancelled.getAsBoolean() && paused.size() < range.size()) {
+      var polledRecords = poller.apply(consumer);
+      pollListener.accept(polledRecords);
       range.forEach((tp, fromTo) -> {
         polledRecords.records(tp).stream()
             .filter(r -> r.offset() < fromTo.to)
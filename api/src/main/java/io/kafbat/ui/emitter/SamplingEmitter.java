@@ -0,0 +1,120 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.utils.Bytes;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Takes samples spread evenly across partitions' offsets ranges: page size is split between non-empty
+ * partitions, and every sample is a single-record seek. Samples are taken in rounds (i-th sample of
+ * every partition per round), so page is filled proportionally even if it is smaller than partitions count.
+ * Consumer is expected to be created with minimal fetch sizes, since only one record per seek is needed.
+ */
+@Slf4j
+public class SamplingEmitter extends AbstractEmitter {
+
+  private final Supplier<EnhancedConsumer> consumerSupplier;
+  private final ConsumerPosition consumerPosition;
+  private final int samplesCount;
+
+  public SamplingEmitter(Supplier<EnhancedConsumer> consumerSupplier,
+                         ConsumerPosition consumerPosition,
+                         int samplesCount,
+                         ConsumerRecordDeserializer deserializer,
+                         Predicate<TopicMessageDTO> filter,
+                         PollingSettings pollingSettings) {
+    super(
+        new MessagesProcessing(
+            deserializer, filter, true, samplesCount, pollingSettings.getDeserializationParallelism()),
+        pollingSettings
+    );
+    this.consumerSupplier = consumerSupplier;
+    this.consumerPosition = consumerPosition;
+    this.samplesCount = samplesCount;
+  }
+
+  @Override
+  public void accept(FluxSink<TopicMessageEventDTO> sink) {
+    log.debug("Starting sampling for {}", consumerPosition);
+    try (EnhancedConsumer consumer = consumerSupplier.get()) {
+      sendPhase(sink, "Consumer created");
+      var seekOperations = SeekOperations.create(consumer, consumerPosition);
+      int partitions = seekOperations.getOffsetsForSeek().size();
+      var plan = seekOperations.sampleOffsets(Math.max(1, samplesCount / Math.max(1, partitions)));
+      for (int round = 0; !sink.isCancelled() && !isSendLimitReached(); round++) {
+        var targets = roundTargets(plan, round);
+        if (targets.isEmpty()) {
+          break;
+        }
+        sendPhase(sink, "Sampling round %d".formatted(round + 1));
+        send(sink, pollSamples(consumer, sink, targets, seekOperations.getEndOffsets()), null);
+      }
+      sendFinishStatsAndCompleteSink(sink, null);
+      log.debug("Sampling finished");
+    } catch (InterruptException kafkaInterruptException) {
+      log.debug("Sampling finished due to thread interruption");
+      sink.complete();
+    } catch (Exception e) {
+      log.error("Error sampling {}", consumerPosition, e);
+      sink.error(e);
+    }
+  }
+
+  private static TreeMap<TopicPartition, Long> roundTargets(Map<TopicPartition, List<Long>> plan, int round) {
+    TreeMap<TopicPartition, Long> targets = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
+    plan.forEach((tp, offsets) -> {
+      if (round < offsets.size()) {
+        targets.put(tp, offsets.get(round));
+      }
+    });
+    return targets;
+  }
+
+  // takes first record at or after target offset (offset itself can be compacted or be a control record),
+  // partitions are paused once they are sampled or their range end is reached
+  private List<ConsumerRecord<Bytes, Bytes>> pollSamples(EnhancedConsumer consumer,
+                                                         FluxSink<TopicMessageEventDTO> sink,
+                                                         Map<TopicPartition, Long> targets,
+                                                         Map<TopicPartition, Long> endOffsets) {
+    consumer.assign(targets.keySet());
+    targets.forEach(consumer::seek);
+
+    List<ConsumerRecord<Bytes, Bytes>> samples = new ArrayList<>();
+    Set<TopicPartition> sampled = new HashSet<>();
+    while (!sink.isCancelled() && sampled.size() < targets.size()) {
+      var polled = poll(sink, consumer);
+      for (var entry : targets.entrySet()) {
+        TopicPartition tp = entry.getKey();
+        if (sampled.contains(tp)) {
+          continue;
+        }
+        var sample = polled.records(tp).stream()
+            .filter(r -> r.offset() >= entry.getValue() && r.offset() < endOffsets.get(tp))
+            .findFirst();
+        sample.ifPresent(samples::add);
+        if (sample.isPresent() || consumer.position(tp) >= endOffsets.get(tp)) {
+          sampled.add(tp);
+          consumer.pause(List.of(tp));
+        }
+      }
+    }
+    consumer.resume(sampled);
+    return samples;
+  }
+}
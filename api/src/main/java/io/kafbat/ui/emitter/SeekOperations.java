@@ -1,5 +1,6 @@
 package io.kafbat.ui.emitter;
 
+import static io.kafbat.ui.model.PollingModeDTO.TAILING;
 import static io.kafbat.ui.model.PollingModeDTO.TO_TIMESTAMP;
 import static java.util.Objects.requireNonNull;
 
@@ -7,7 +8,10 @@ import com.google.common.annotations.VisibleForTesting;
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.PollingModeDTO;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.mutable.MutableLong;
@@ -25,10 +29,58 @@ public class SeekOperations {
     OffsetsInfo offsetsInfo = consumerPosition.partitions().isEmpty()
         ? new OffsetsInfo(consumer, consumerPosition.topic())
         : new OffsetsInfo(consumer, consumerPosition.partitions());
+    offsetsInfo = applyBounds(consumer, offsetsInfo, consumerPosition);
     var offsetsToSeek = getOffsetsForSeek(consumer, offsetsInfo, consumerPosition);
     return new SeekOperations(consumer, offsetsInfo, offsetsToSeek);
   }
 
+  /**
+   * Creates seek operations for consumer taken from sticky polling session. Offsets info is reused
+   * from previous page, so no begin/end offsets lookups are needed (position has explicit offsets).
+   */
+  static SeekOperations resume(Consumer<?, ?> consumer,
+                               OffsetsInfo offsetsInfo,
+                               ConsumerPosition consumerPosition) {
+    var boundedOffsetsInfo = applyBounds(consumer, offsetsInfo, consumerPosition);
+    return new SeekOperations(
+        consumer,
+        boundedOffsetsInfo,
+        getOffsetsForSeek(consumer, boundedOffsetsInfo, consumerPosition)
+    );
+  }
+
+  /**
+   * Narrows offsets ranges with position's bounds (if set). Timestamp bound is converted to offsets
+   * with offsetsForTimes(), partitions with all records older than timestamp become empty.
+   */
+  private static OffsetsInfo applyBounds(Consumer<?, ?> consumer,
+                                         OffsetsInfo offsetsInfo,
+                                         ConsumerPosition position) {
+    var bounds = position.bounds();
+    if (bounds == null || position.pollingMode() == TAILING) {
+      return offsetsInfo;
+    }
+    Map<TopicPartition, Long> lowerBounds = new HashMap<>();
+    if (bounds.fromOffset() != null) {
+      offsetsInfo.getNonEmptyPartitions().forEach(tp -> lowerBounds.put(tp, bounds.fromOffset()));
+    }
+    if (bounds.fromTimestamp() != null && !offsetsInfo.getNonEmptyPartitions().isEmpty()) {
+      Map<TopicPartition, Long> timestamps = new HashMap<>();
+      offsetsInfo.getNonEmptyPartitions().forEach(tp -> timestamps.put(tp, bounds.fromTimestamp()));
+      consumer.offsetsForTimes(timestamps).forEach((tp, offsetAndTimestamp) ->
+          lowerBounds.merge(
+              tp,
+              offsetAndTimestamp == null ? offsetsInfo.getEndOffsets().get(tp) : offsetAndTimestamp.offset(),
+              Math::max
+          ));
+    }
+    return offsetsInfo.withBounds(lowerBounds, bounds.toOffset());
+  }
+
+  OffsetsInfo getOffsetsInfo() {
+    return offsetsInfo;
+  }
+
   public void assignAndSeekNonEmptyPartitions() {
     consumer.assign(offsetsForSeek.keySet());
     offsetsForSeek.forEach(consumer::seek);
@@ -58,6 +110,37 @@ public class SeekOperations {
     return count.get().longValue();
   }
 
+  /**
+   * Plans offsets of samples spread evenly across each non-empty partition's range (from seek offset
+   * to the last offset). Partitions with fewer offsets than samples are sampled at every offset.
+   */
+  public Map<TopicPartition, List<Long>> sampleOffsets(int samplesPerPartition) {
+    Map<TopicPartition, List<Long>> result = new HashMap<>();
+    offsetsForSeek.forEach((tp, from) -> {
+      long to = offsetsInfo.getEndOffsets().get(tp);
+      if (from < to) {
+        result.put(tp, sampleOffsets(from, to, samplesPerPartition));
+      }
+    });
+    return result;
+  }
+
+  @VisibleForTesting
+  static List<Long> sampleOffsets(/*inclusive*/ long from, /*exclusive*/ long to, int samples) {
+    long last = to - 1;
+    if (samples <= 1) {
+      return List.of(from);
+    }
+    if (last - from < samples) {
+      return LongStream.rangeClosed(from, last).boxed().toList();
+    }
+    // double precision is enough for sampling, and it can't overflow on huge ranges
+    double step = (double) (last - from) / (samples - 1);
+    return IntStream.range(0, samples)
+        .mapToObj(i -> i == samples - 1 ? last : from + (long) (step * i))
+        .toList();
+  }
+
   // Get offsets to seek to. NOTE: offsets do not contain empty partitions offsets
   public Map<TopicPartition, Long> getOffsetsForSeek() {
     return offsetsForSeek;
@@ -70,14 +153,30 @@ public class SeekOperations {
   static Map<TopicPartition, Long> getOffsetsForSeek(Consumer<?, ?> consumer,
                                                      OffsetsInfo offsetsInfo,
                                                      ConsumerPosition position) {
-    return switch (position.pollingMode()) {
+    Map<TopicPartition, Long> offsets = switch (position.pollingMode()) {
       case TAILING -> consumer.endOffsets(offsetsInfo.allTargetPartitions());
-      case LATEST -> consumer.endOffsets(offsetsInfo.getNonEmptyPartitions());
-      case EARLIEST -> consumer.beginningOffsets(offsetsInfo.getNonEmptyPartitions());
+      case LATEST, KEY_LOOKUP -> consumer.endOffsets(offsetsInfo.getNonEmptyPartitions());
+      case EARLIEST, SAMPLING -> consumer.beginningOffsets(offsetsInfo.getNonEmptyPartitions());
       case FROM_OFFSET, TO_OFFSET -> fixOffsets(offsetsInfo, requireNonNull(position.offsets()));
       case FROM_TIMESTAMP, TO_TIMESTAMP ->
           offsetsForTimestamp(consumer, position.pollingMode(), offsetsInfo, requireNonNull(position.timestamp()));
     };
+    return position.bounds() == null || position.pollingMode() == TAILING
+        ? offsets
+        : fitIntoRanges(offsetsInfo, offsets);
+  }
+
+  // offsets of bounded position should stay within (narrowed) partitions' ranges
+  private static Map<TopicPartition, Long> fitIntoRanges(OffsetsInfo offsetsInfo, Map<TopicPartition, Long> offsets) {
+    Map<TopicPartition, Long> result = new HashMap<>();
+    offsets.forEach((tp, offset) -> {
+      if (offsetsInfo.getNonEmptyPartitions().contains(tp)) {
+        long begin = offsetsInfo.getBeginOffsets().get(tp);
+        long end = offsetsInfo.getEndOffsets().get(tp);
+        result.put(tp, Math.min(Math.max(offset, begin), end));
+      }
+    });
+    return result;
   }
 
   private static Map<TopicPartition, Long> fixOffsets(OffsetsInfo offsetsInfo,
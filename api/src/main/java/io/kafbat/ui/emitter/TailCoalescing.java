@@ -0,0 +1,96 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Limits rate of tailing messages sent to UI without back-pressuring the consumer. Only the latest
+ * {@code maxMessages} messages of each interval are sent, others are dropped (and their count is reported
+ * in consuming events). Phase and consuming events of the interval are coalesced to the latest ones.
+ * This way tailing always stays close to topic's end, no matter how fast messages are produced.
+ */
+public final class TailCoalescing {
+
+  private final int maxMessages;
+  private final Deque<TopicMessageEventDTO> messages = new ArrayDeque<>();
+  private final List<TopicMessageEventDTO> otherEvents = new ArrayList<>();
+  @Nullable
+  private TopicMessageEventDTO phase;
+  @Nullable
+  private TopicMessageEventDTO consuming;
+  private long dropped = 0;
+
+  private TailCoalescing(int maxMessages) {
+    this.maxMessages = maxMessages;
+  }
+
+  public static Function<Flux<TopicMessageEventDTO>, Flux<TopicMessageEventDTO>> coalescing(Duration interval,
+                                                                                          int maxMessages) {
+    return events -> Flux.defer(() -> {
+      var coalescing = new TailCoalescing(maxMessages);
+      return events
+          .window(interval)
+          .concatMap(window -> window
+              .doOnNext(coalescing::add)
+              .thenMany(Flux.defer(() -> Flux.fromIterable(coalescing.flush()))));
+    });
+  }
+
+  // called sequentially within interval's window
+  void add(TopicMessageEventDTO event) {
+    switch (event.getType()) {
+      case MESSAGE -> {
+        messages.addLast(event);
+        if (messages.size() > maxMessages) {
+          messages.removeFirst();
+          dropped++;
+        }
+      }
+      case PHASE -> phase = event;
+      case CONSUMING -> consuming = event;
+      default -> otherEvents.add(event);
+    }
+  }
+
+  // called when interval is over
+  List<TopicMessageEventDTO> flush() {
+    List<TopicMessageEventDTO> result = new ArrayList<>(messages.size() + otherEvents.size() + 2);
+    if (phase != null) {
+      result.add(phase);
+    }
+    if (consuming != null) {
+      // consuming event can be shared between subscribers, so it is copied
+      result.add(
+          new TopicMessageEventDTO()
+              .type(TypeEnum.CONSUMING)
+              .consuming(withDropped(consuming.getConsuming()))
+      );
+    }
+    result.addAll(messages);
+    result.addAll(otherEvents);
+    messages.clear();
+    otherEvents.clear();
+    phase = null;
+    consuming = null;
+    return result;
+  }
+
+  private TopicMessageConsumingDTO withDropped(TopicMessageConsumingDTO stats) {
+    return new TopicMessageConsumingDTO()
+        .bytesConsumed(stats.getBytesConsumed())
+        .elapsedMs(stats.getElapsedMs())
+        .isCancelled(stats.getIsCancelled())
+        .messagesConsumed(stats.getMessagesConsumed())
+        .filterApplyErrors(stats.getFilterApplyErrors())
+        .messagesDropped(dropped);
+  }
+}
@@ -13,7 +13,16 @@ public record ConsumerPosition(PollingModeDTO pollingMode,
                                String topic,
                                List<TopicPartition> partitions, //all partitions if list is empty
                                @Nullable Long timestamp,
-                               @Nullable Offsets offsets) {
+                               @Nullable Offsets offsets,
+                               @Nullable OffsetsBounds bounds) {
+
+  public ConsumerPosition(PollingModeDTO pollingMode,
+                          String topic,
+                          List<TopicPartition> partitions,
+                          @Nullable Long timestamp,
+                          @Nullable Offsets offsets) {
+    this(pollingMode, topic, partitions, timestamp, offsets, null);
+  }
 
   public record Offsets(@Nullable Long offset, //should be applied to all partitions
                         @Nullable Map<TopicPartition, Long> tpOffsets) {
@@ -23,6 +32,16 @@ public record ConsumerPosition(PollingModeDTO pollingMode,
     }
   }
 
+  // records outside of these bounds are not polled (bounds are extracted from smart filter's conditions)
+  public record OffsetsBounds(@Nullable Long fromOffset, //inclusive, applied to all partitions
+                              @Nullable Long toOffset, //exclusive, applied to all partitions
+                              @Nullable Long fromTimestamp) {
+  }
+
+  public ConsumerPosition withBounds(List<TopicPartition> narrowedPartitions, @Nullable OffsetsBounds newBounds) {
+    return new ConsumerPosition(pollingMode, topic, narrowedPartitions, timestamp, offsets, newBounds);
+  }
+
   public static ConsumerPosition create(PollingModeDTO pollingMode,
                                         String topic,
                                         @Nullable List<Integer> partitions,
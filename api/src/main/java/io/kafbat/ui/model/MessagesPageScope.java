@@ -0,0 +1,16 @@
+package io.kafbat.ui.model;
+
+import javax.annotation.Nullable;
+
+/**
+ * Everything (except consumer position and page size) that defines content of the messages page:
+ * the same scope and position give the same messages as long as polled offsets ranges do not change.
+ */
+public record MessagesPageScope(String clusterName,
+                                String topic,
+                                @Nullable String keySerde,
+                                @Nullable String valueSerde,
+                                @Nullable String containsStringFilter,
+                                @Nullable String smartFilterId,
+                                @Nullable String lookupKey) {
+}
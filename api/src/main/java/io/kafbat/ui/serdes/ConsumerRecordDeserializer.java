@@ -4,13 +4,18 @@ import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageDTO.TimestampTypeEnum;
 import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.util.ContentUtils;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -23,6 +28,8 @@ import org.apache.kafka.common.utils.Bytes;
 @RequiredArgsConstructor
 public class ConsumerRecordDeserializer {
 
+  private static final Predicate<ConsumerRecord<Bytes, Bytes>> NO_PRE_FILTER = rec -> true;
+
   private static final ZoneId UTC_ZONE_ID = ZoneId.of("UTC");
 
   private final String keySerdeName;
@@ -37,10 +44,99 @@ public class ConsumerRecordDeserializer {
 
   private final UnaryOperator<TopicMessageDTO> masker;
 
+  // cheap check on raw record, that is used to skip deserialization of records that won't pass message filter
+  private final Predicate<ConsumerRecord<Bytes, Bytes>> rawPreFilter;
+
+  // key and value serdes' failures tracking, that allows going straight to fallback serde
+  private final DeserializerCircuit keyCircuit;
+  private final DeserializerCircuit valueCircuit;
+
+  /**
+   * Number of key/values that were not deserialized by configured serdes (since deserializer creation).
+   */
+  public record FallbackStats(long failures, long shortCircuited) {
+
+    public FallbackStats minus(FallbackStats other) {
+      return new FallbackStats(failures - other.failures, shortCircuited - other.shortCircuited);
+    }
+  }
+
+  public ConsumerRecordDeserializer(String keySerdeName,
+                                    Serde.Deserializer keyDeserializer,
+                                    String valueSerdeName,
+                                    Serde.Deserializer valueDeserializer,
+                                    String fallbackSerdeName,
+                                    Serde.Deserializer fallbackKeyDeserializer,
+                                    Serde.Deserializer fallbackValueDeserializer,
+                                    UnaryOperator<TopicMessageDTO> masker) {
+    this(keySerdeName, keyDeserializer, valueSerdeName, valueDeserializer, fallbackSerdeName,
+        fallbackKeyDeserializer, fallbackValueDeserializer, masker, NO_PRE_FILTER,
+        DeserializerCircuit.closed(), DeserializerCircuit.closed());
+  }
+
+  public ConsumerRecordDeserializer withCircuits(DeserializerCircuit keyCircuit, DeserializerCircuit valueCircuit) {
+    return new ConsumerRecordDeserializer(keySerdeName, keyDeserializer, valueSerdeName, valueDeserializer,
+        fallbackSerdeName, fallbackKeyDeserializer, fallbackValueDeserializer, masker, rawPreFilter,
+        keyCircuit, valueCircuit);
+  }
+
+  public FallbackStats fallbackStats() {
+    return new FallbackStats(
+        keyCircuit.failures() + valueCircuit.failures(),
+        keyCircuit.shortCircuited() + valueCircuit.shortCircuited()
+    );
+  }
+
+  // pre-filter is combined with already set one (if any)
+  public ConsumerRecordDeserializer withRawPreFilter(@Nullable Predicate<ConsumerRecord<Bytes, Bytes>> preFilter) {
+    return new ConsumerRecordDeserializer(keySerdeName, keyDeserializer, valueSerdeName, valueDeserializer,
+        fallbackSerdeName, fallbackKeyDeserializer, fallbackValueDeserializer, masker,
+        preFilter == null ? rawPreFilter : (rawPreFilter == NO_PRE_FILTER ? preFilter : rawPreFilter.and(preFilter)),
+        keyCircuit, valueCircuit);
+  }
+
+  // returns false if record can be skipped without deserialization
+  public boolean passesRawPreFilter(ConsumerRecord<Bytes, Bytes> rec) {
+    return rawPreFilter.test(rec);
+  }
+
+  // lets key and value serdes prepare for deserialization of polled records (that pass raw pre-filter) in bulk
+  public void prefetch(Iterable<ConsumerRecord<Bytes, Bytes>> records) {
+    List<ByteBuffer> keys = new ArrayList<>();
+    List<ByteBuffer> values = new ArrayList<>();
+    for (ConsumerRecord<Bytes, Bytes> rec : records) {
+      if (passesRawPreFilter(rec)) {
+        if (rec.key() != null) {
+          keys.add(ByteBuffer.wrap(rec.key().get()));
+        }
+        if (rec.value() != null) {
+          values.add(ByteBuffer.wrap(rec.value().get()));
+        }
+      }
+    }
+    prefetch(keySerdeName, keyDeserializer, keyCircuit, keys);
+    prefetch(valueSerdeName, valueDeserializer, valueCircuit, values);
+  }
+
+  private static void prefetch(String serdeName,
+                               Serde.Deserializer deserializer,
+                               DeserializerCircuit circuit,
+                               List<ByteBuffer> data) {
+    if (data.isEmpty() || circuit.isOpen()) {
+      return;
+    }
+    try {
+      deserializer.prefetch(data);
+    } catch (Exception e) {
+      log.debug("Error prefetching data for deserialization with serde {}", serdeName, e);
+    }
+  }
+
   public TopicMessageDTO deserialize(ConsumerRecord<Bytes, Bytes> rec) {
     var message = new TopicMessageDTO();
-    fillKey(message, rec);
-    fillValue(message, rec);
+    var headers = new RecordHeadersImpl(rec.headers());
+    fillKey(message, rec, headers);
+    fillValue(message, rec, headers);
     fillHeaders(message, rec);
 
     message.setPartition(rec.partition());
@@ -74,42 +170,53 @@ public class ConsumerRecordDeserializer {
     message.setHeaders(headers);
   }
 
-  private void fillKey(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec) {
+  // serdes get buffers wrapping polled arrays, so builtin serdes read them without copying
+  private void fillKey(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec, RecordHeadersImpl headers) {
     if (rec.key() == null) {
       return;
     }
-    try {
-      var deserResult = keyDeserializer.deserialize(new RecordHeadersImpl(rec.headers()), rec.key().get());
-      message.setKey(deserResult.getResult());
-      message.setKeySerde(keySerdeName);
-      message.setKeyDeserializeProperties(deserResult.getAdditionalProperties());
-    } catch (Exception e) {
-      log.trace("Error deserializing key for key topic: {}, partition {}, offset {}, with serde {}",
-          rec.topic(), rec.partition(), rec.offset(), keySerdeName, e);
-      var deserResult = fallbackKeyDeserializer.deserialize(new RecordHeadersImpl(rec.headers()), rec.key().get());
-      message.setKey(deserResult.getResult());
-      message.setKeySerde(fallbackSerdeName);
+    if (keyCircuit.allowsCall()) {
+      try {
+        var deserResult = keyDeserializer.deserializeBuffer(headers, ByteBuffer.wrap(rec.key().get()));
+        keyCircuit.onSuccess();
+        message.setKey(deserResult.getResult());
+        message.setKeySerde(keySerdeName);
+        message.setKeyDeserializeProperties(deserResult.getAdditionalProperties());
+        return;
+      } catch (Exception e) {
+        keyCircuit.onFailure();
+        log.trace("Error deserializing key for key topic: {}, partition {}, offset {}, with serde {}",
+            rec.topic(), rec.partition(), rec.offset(), keySerdeName, e);
+      }
     }
+    var deserResult = fallbackKeyDeserializer.deserializeBuffer(headers, ByteBuffer.wrap(rec.key().get()));
+    message.setKey(deserResult.getResult());
+    message.setKeySerde(fallbackSerdeName);
+    message.setKeyFallback(true);
   }
 
-  private void fillValue(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec) {
+  private void fillValue(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec, RecordHeadersImpl headers) {
     if (rec.value() == null) {
       return;
     }
-    try {
-      var deserResult = valueDeserializer.deserialize(
-          new RecordHeadersImpl(rec.headers()), rec.value().get());
-      message.setValue(deserResult.getResult());
-      message.setValueSerde(valueSerdeName);
-      message.setValueDeserializeProperties(deserResult.getAdditionalProperties());
-    } catch (Exception e) {
-      log.trace("Error deserializing key for value topic: {}, partition {}, offset {}, with serde {}",
-          rec.topic(), rec.partition(), rec.offset(), valueSerdeName, e);
-      var deserResult = fallbackValueDeserializer.deserialize(
-          new RecordHeadersImpl(rec.headers()), rec.value().get());
-      message.setValue(deserResult.getResult());
-      message.setValueSerde(fallbackSerdeName);
+    if (valueCircuit.allowsCall()) {
+      try {
+        var deserResult = valueDeserializer.deserializeBuffer(headers, ByteBuffer.wrap(rec.value().get()));
+        valueCircuit.onSuccess();
+        message.setValue(deserResult.getResult());
+        message.setValueSerde(valueSerdeName);
+        message.setValueDeserializeProperties(deserResult.getAdditionalProperties());
+        return;
+      } catch (Exception e) {
+        valueCircuit.onFailure();
+        log.trace("Error deserializing key for value topic: {}, partition {}, offset {}, with serde {}",
+            rec.topic(), rec.partition(), rec.offset(), valueSerdeName, e);
+      }
     }
+    var deserResult = fallbackValueDeserializer.deserializeBuffer(headers, ByteBuffer.wrap(rec.value().get()));
+    message.setValue(deserResult.getResult());
+    message.setValueSerde(fallbackSerdeName);
+    message.setValueFallback(true);
   }
 
   private static Long getHeadersSize(ConsumerRecord<Bytes, Bytes> consumerRecord) {
@@ -0,0 +1,75 @@
+package io.kafbat.ui.serdes;
+
+import io.kafbat.ui.config.ClustersProperties.DeserializerCircuitProperties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes failures of serde's deserializer, so records that it certainly can't deserialize are not paying
+ * exception's cost before going to fallback serde. After {@code failureThreshold} consecutive failures circuit
+ * opens: deserializer is skipped for all records except every {@code probeInterval}-th one, that probes it again.
+ * Successful probe closes the circuit.
+ */
+public class DeserializerCircuit {
+
+  private final int failureThreshold;
+  private final int probeInterval;
+
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final AtomicLong skippedSinceProbe = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong shortCircuited = new AtomicLong();
+
+  DeserializerCircuit(int failureThreshold, int probeInterval) {
+    this.failureThreshold = failureThreshold;
+    this.probeInterval = Math.max(1, probeInterval);
+  }
+
+  // circuit that is never opened, but still counts failures
+  static DeserializerCircuit closed() {
+    return new DeserializerCircuit(Integer.MAX_VALUE, 1);
+  }
+
+  public static DeserializerCircuit create(DeserializerCircuitProperties properties) {
+    return properties.isEnabled()
+        ? new DeserializerCircuit(properties.getFailureThreshold(), properties.getProbeInterval())
+        : closed();
+  }
+
+  // false if deserializer should be skipped
+  boolean allowsCall() {
+    if (consecutiveFailures.get() < failureThreshold) {
+      return true;
+    }
+    if (skippedSinceProbe.incrementAndGet() % probeInterval == 0) {
+      return true;
+    }
+    shortCircuited.incrementAndGet();
+    return false;
+  }
+
+  // true if deserializer is skipped (except probes), doesn't count as a call
+  boolean isOpen() {
+    return consecutiveFailures.get() >= failureThreshold;
+  }
+
+  void onSuccess() {
+    if (consecutiveFailures.get() != 0) {
+      consecutiveFailures.set(0);
+      skippedSinceProbe.set(0);
+    }
+  }
+
+  void onFailure() {
+    failures.incrementAndGet();
+    consecutiveFailures.updateAndGet(c -> c == Integer.MAX_VALUE ? c : c + 1);
+  }
+
+  long failures() {
+    return failures.get();
+  }
+
+  long shortCircuited() {
+    return shortCircuited.get();
+  }
+}
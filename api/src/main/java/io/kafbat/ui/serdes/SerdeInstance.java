@@ -1,9 +1,13 @@
 package io.kafbat.ui.serdes;
 
+import io.kafbat.ui.serde.api.DeserializeResult;
+import io.kafbat.ui.serde.api.RecordHeaders;
 import io.kafbat.ui.serde.api.SchemaDescription;
 import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serde.api.SerdeParameter;
+import io.kafbat.ui.serdes.builtin.StringSerde;
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -129,10 +133,33 @@ public class SerdeInstance implements Closeable {
     };
   }
 
+  // true if deserialized output is the input bytes decoded as UTF-8 text
+  public boolean deserializesToRawUtf8Text() {
+    return serde instanceof StringSerde stringSerde && stringSerde.isUtf8Encoding();
+  }
+
   public Serde.Deserializer deserializer(String topic, Serde.Target type) {
     return wrapWithClassloader(() -> {
       var deserializer = serde.deserializer(topic, type);
-      return (headers, data) -> wrapWithClassloader(() -> deserializer.deserialize(headers, data));
+      return new Serde.Deserializer() {
+        @Override
+        public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+          return wrapWithClassloader(() -> deserializer.deserialize(headers, data));
+        }
+
+        @Override
+        public DeserializeResult deserializeBuffer(RecordHeaders headers, ByteBuffer data) {
+          return wrapWithClassloader(() -> deserializer.deserializeBuffer(headers, data));
+        }
+
+        @Override
+        public void prefetch(List<ByteBuffer> data) {
+          wrapWithClassloader(() -> {
+            deserializer.prefetch(data);
+            return null;
+          });
+        }
+      };
     });
   }
 
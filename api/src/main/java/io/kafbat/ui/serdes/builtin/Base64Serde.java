@@ -3,6 +3,7 @@ package io.kafbat.ui.serdes.builtin;
 import io.kafbat.ui.serde.api.DeserializeResult;
 import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serdes.BuiltInSerde;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
 
@@ -33,11 +34,11 @@ public class Base64Serde implements BuiltInSerde {
   }
 
   @Override
-  public Serde.Deserializer deserializer(String topic, Serde.Target type) {
+  public Serde.ByteBufferDeserializer deserializer(String topic, Serde.Target type) {
     var encoder = Base64.getEncoder();
     return (headers, data) ->
         new DeserializeResult(
-            encoder.encodeToString(data),
+            new String(encoder.encode(data).array(), StandardCharsets.ISO_8859_1),
             DeserializeResult.Type.STRING,
             Map.of()
         );
@@ -3,6 +3,7 @@ package io.kafbat.ui.serdes.builtin;
 import io.kafbat.ui.serde.api.DeserializeResult;
 import io.kafbat.ui.serde.api.PropertyResolver;
 import io.kafbat.ui.serdes.BuiltInSerde;
+import java.nio.ByteBuffer;
 import java.util.HexFormat;
 import java.util.Map;
 
@@ -63,12 +64,22 @@ public class HexSerde implements BuiltInSerde {
   }
 
   @Override
-  public Deserializer deserializer(String topic, Target type) {
+  public ByteBufferDeserializer deserializer(String topic, Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            deserializeHexFormat.formatHex(data),
+            formatHex(data),
             DeserializeResult.Type.STRING,
             Map.of()
         );
   }
+
+  private String formatHex(ByteBuffer data) {
+    if (data.hasArray()) {
+      int from = data.arrayOffset() + data.position();
+      return deserializeHexFormat.formatHex(data.array(), from, from + data.remaining());
+    }
+    byte[] bytes = new byte[data.remaining()];
+    data.get(bytes);
+    return deserializeHexFormat.formatHex(bytes);
+  }
 }
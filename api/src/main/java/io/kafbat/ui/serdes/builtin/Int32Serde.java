@@ -44,10 +44,10 @@ public class Int32Serde implements BuiltInSerde {
   }
 
   @Override
-  public Deserializer deserializer(String topic, Target type) {
+  public ByteBufferDeserializer deserializer(String topic, Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            String.valueOf(Ints.fromByteArray(data)),
+            String.valueOf(data.getInt(data.position())),
             DeserializeResult.Type.JSON,
             Map.of()
         );
@@ -45,10 +45,10 @@ public class Int64Serde implements BuiltInSerde {
   }
 
   @Override
-  public Serde.Deserializer deserializer(String topic, Serde.Target type) {
+  public Serde.ByteBufferDeserializer deserializer(String topic, Serde.Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            String.valueOf(Longs.fromByteArray(data)),
+            String.valueOf(data.getLong(data.position())),
             DeserializeResult.Type.JSON,
             Map.of()
         );
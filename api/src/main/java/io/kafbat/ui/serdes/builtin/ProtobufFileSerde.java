@@ -2,6 +2,7 @@ package io.kafbat.ui.serdes.builtin;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
 import com.google.protobuf.AnyProto;
 import com.google.protobuf.ApiProto;
 import com.google.protobuf.DescriptorProtos;
@@ -53,12 +54,13 @@ import java.io.ByteArrayInputStream;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -73,16 +75,19 @@ public class ProtobufFileSerde implements BuiltInSerde {
 
   private static final ProtobufSchemaConverter SCHEMA_CONVERTER = new ProtobufSchemaConverter();
 
-  private Map<String, Descriptor> messageDescriptorMap = new HashMap<>();
-  private Map<String, Descriptor> keyMessageDescriptorMap = new HashMap<>();
+  private ProtobufSchemaSet schemas;
 
-  private Map<Descriptor, Path> descriptorPaths = new HashMap<>();
+  private Map<String, String> messageNameByTopic = new HashMap<>();
+  private Map<String, String> keyMessageNameByTopic = new HashMap<>();
 
   @Nullable
-  private Descriptor defaultMessageDescriptor;
+  private String defaultMessageName;
 
   @Nullable
-  private Descriptor defaultKeyMessageDescriptor;
+  private String defaultKeyMessageName;
+
+  // registry of all configured messages, built on first serialization
+  private Supplier<TypeRegistry> typeRegistry;
 
   @Override
   public boolean canBeAutoConfigured(PropertyResolver kafkaClusterProperties,
@@ -105,53 +110,57 @@ public class ProtobufFileSerde implements BuiltInSerde {
 
   @VisibleForTesting
   void configure(Configuration configuration) {
-    if (configuration.defaultMessageDescriptor() == null
-        && configuration.defaultKeyMessageDescriptor() == null
-        && configuration.messageDescriptorMap().isEmpty()
-        && configuration.keyMessageDescriptorMap().isEmpty()) {
+    if (configuration.defaultMessageName() == null
+        && configuration.defaultKeyMessageName() == null
+        && configuration.messageNameByTopic().isEmpty()
+        && configuration.keyMessageNameByTopic().isEmpty()) {
       throw new ValidationException("Neither default, nor per-topic descriptors defined for " + NAME + " serde");
     }
-    this.defaultMessageDescriptor = configuration.defaultMessageDescriptor();
-    this.defaultKeyMessageDescriptor = configuration.defaultKeyMessageDescriptor();
-    this.descriptorPaths = configuration.descriptorPaths();
-    this.messageDescriptorMap = configuration.messageDescriptorMap();
-    this.keyMessageDescriptorMap = configuration.keyMessageDescriptorMap();
+    this.schemas = configuration.schemas();
+    this.defaultMessageName = configuration.defaultMessageName();
+    this.defaultKeyMessageName = configuration.defaultKeyMessageName();
+    this.messageNameByTopic = configuration.messageNameByTopic();
+    this.keyMessageNameByTopic = configuration.keyMessageNameByTopic();
+    this.typeRegistry = Suppliers.memoize(() -> TypeRegistry.newBuilder()
+        .add(configuration.messageNames().stream().map(schemas::descriptor).toList())
+        .build());
   }
 
-  private Optional<Descriptor> descriptorFor(String topic, Serde.Target type) {
+  private Optional<String> messageNameFor(String topic, Serde.Target type) {
     return type == Serde.Target.KEY
         ?
-        Optional.ofNullable(keyMessageDescriptorMap.get(topic))
-            .or(() -> Optional.ofNullable(defaultKeyMessageDescriptor))
+        Optional.ofNullable(keyMessageNameByTopic.get(topic))
+            .or(() -> Optional.ofNullable(defaultKeyMessageName))
         :
-        Optional.ofNullable(messageDescriptorMap.get(topic))
-            .or(() -> Optional.ofNullable(defaultMessageDescriptor));
+        Optional.ofNullable(messageNameByTopic.get(topic))
+            .or(() -> Optional.ofNullable(defaultMessageName));
+  }
+
+  // descriptors are built on first use
+  private Optional<Descriptor> descriptorFor(String topic, Serde.Target type) {
+    return messageNameFor(topic, type).map(schemas::descriptor);
   }
 
   @Override
   public boolean canDeserialize(String topic, Serde.Target type) {
-    return descriptorFor(topic, type).isPresent();
+    return messageNameFor(topic, type).isPresent();
   }
 
   @Override
   public boolean canSerialize(String topic, Serde.Target type) {
-    return descriptorFor(topic, type).isPresent();
+    return messageNameFor(topic, type).isPresent();
   }
 
   @Override
   public Serde.Serializer serializer(String topic, Serde.Target type) {
     var descriptor = descriptorFor(topic, type).orElseThrow();
-    TypeRegistry typeRegistry = TypeRegistry.newBuilder()
-        .add(descriptorPaths.keySet())
-        .build();
-
     return new Serde.Serializer() {
       @SneakyThrows
       @Override
       public byte[] serialize(String input) {
         DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
         JsonFormat.parser()
-            .usingTypeRegistry(typeRegistry)
+            .usingTypeRegistry(typeRegistry.get())
             .merge(input, builder);
         return builder.build().toByteArray();
       }
@@ -161,13 +170,18 @@ public class ProtobufFileSerde implements BuiltInSerde {
   @Override
   public Serde.Deserializer deserializer(String topic, Serde.Target type) {
     var descriptor = descriptorFor(topic, type).orElseThrow();
+    var compiledPrinter = ProtobufJsonPrinter.compiled(descriptor, false);
     return new Serde.Deserializer() {
       @SneakyThrows
       @Override
       public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
-        var protoMsg = DynamicMessage.parseFrom(descriptor, new ByteArrayInputStream(data));
-        byte[] jsonFromProto = ProtobufSchemaUtils.toJson(protoMsg);
-        var result = new String(jsonFromProto);
+        String result;
+        if (compiledPrinter.isPresent()) {
+          result = compiledPrinter.get().print(data, 0, data.length);
+        } else {
+          var protoMsg = DynamicMessage.parseFrom(descriptor, new ByteArrayInputStream(data));
+          result = new String(ProtobufSchemaUtils.toJson(protoMsg));
+        }
         return new DeserializeResult(
             result,
             DeserializeResult.Type.JSON,
@@ -183,7 +197,7 @@ public class ProtobufFileSerde implements BuiltInSerde {
   }
 
   private SchemaDescription toSchemaDescription(Descriptor descriptor) {
-    Path path = descriptorPaths.get(descriptor);
+    Path path = schemas.path(descriptor.getFullName());
     return new SchemaDescription(
         SCHEMA_CONVERTER.convert(path.toUri(), descriptor).toJson(),
         Map.of("messageName", descriptor.getFullName())
@@ -198,11 +212,11 @@ public class ProtobufFileSerde implements BuiltInSerde {
   //----------------------------------------------------------------------------------------------------------------
 
   @VisibleForTesting
-  record Configuration(@Nullable Descriptor defaultMessageDescriptor,
-                       @Nullable Descriptor defaultKeyMessageDescriptor,
-                       Map<Descriptor, Path> descriptorPaths,
-                       Map<String, Descriptor> messageDescriptorMap,
-                       Map<String, Descriptor> keyMessageDescriptorMap) {
+  record Configuration(ProtobufSchemaSet schemas,
+                       @Nullable String defaultMessageName,
+                       @Nullable String defaultKeyMessageName,
+                       Map<String, String> messageNameByTopic,
+                       Map<String, String> keyMessageNameByTopic) {
 
     static boolean canBeAutoConfigured(PropertyResolver kafkaClusterProperties) {
       Optional<List<String>> protobufFiles = kafkaClusterProperties.getListProperty("protobufFiles", String.class);
@@ -211,99 +225,33 @@ public class ProtobufFileSerde implements BuiltInSerde {
     }
 
     static Configuration create(PropertyResolver properties) {
-      var protobufSchemas = loadSchemas(
+      var schemas = ProtobufSchemaSet.load(
           properties.getListProperty("protobufFiles", String.class),
-          properties.getProperty("protobufFilesDir", String.class)
+          properties.getProperty("protobufFilesDir", String.class),
+          properties.getProperty("protobufDescriptorsCacheDir", String.class)
       );
-
-      // Load all referenced message schemas and store their source proto file with the descriptors
-      Map<Descriptor, Path> descriptorPaths = new HashMap<>();
-      Optional<String> protobufMessageName = properties.getProperty("protobufMessageName", String.class);
-      protobufMessageName.ifPresent(messageName -> addProtobufSchema(descriptorPaths, protobufSchemas, messageName));
-
-      Optional<String> protobufMessageNameForKey =
-          properties.getProperty("protobufMessageNameForKey", String.class);
-      protobufMessageNameForKey
-          .ifPresent(messageName -> addProtobufSchema(descriptorPaths, protobufSchemas, messageName));
-
-      Optional<Map<String, String>> protobufMessageNameByTopic =
-          properties.getMapProperty("protobufMessageNameByTopic", String.class, String.class);
-      protobufMessageNameByTopic
-          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, protobufSchemas, messageNamesByTopic));
-
-      Optional<Map<String, String>> protobufMessageNameForKeyByTopic =
-          properties.getMapProperty("protobufMessageNameForKeyByTopic", String.class, String.class);
-      protobufMessageNameForKeyByTopic
-          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, protobufSchemas, messageNamesByTopic));
-
-      // Fill dictionary for descriptor lookup by full message name
-      Map<String, Descriptor> descriptorMap = descriptorPaths.keySet().stream()
-          .collect(Collectors.toMap(Descriptor::getFullName, Function.identity()));
-
-      return new Configuration(
-          protobufMessageName.map(descriptorMap::get).orElse(null),
-          protobufMessageNameForKey.map(descriptorMap::get).orElse(null),
-          descriptorPaths,
-          protobufMessageNameByTopic.map(map -> populateDescriptors(descriptorMap, map)).orElse(Map.of()),
-          protobufMessageNameForKeyByTopic.map(map -> populateDescriptors(descriptorMap, map)).orElse(Map.of())
+      var configuration = new Configuration(
+          schemas,
+          properties.getProperty("protobufMessageName", String.class).orElse(null),
+          properties.getProperty("protobufMessageNameForKey", String.class).orElse(null),
+          properties.getMapProperty("protobufMessageNameByTopic", String.class, String.class).orElse(Map.of()),
+          properties.getMapProperty("protobufMessageNameForKeyByTopic", String.class, String.class).orElse(Map.of())
       );
-    }
-
-    private static Map.Entry<Descriptor, Path> getDescriptorAndPath(Map<Path, ProtobufSchema> protobufSchemas,
-                                                                    String msgName) {
-      return protobufSchemas.entrySet().stream()
-          .filter(schema -> schema.getValue().toDescriptor(msgName) != null)
-          .map(schema -> Map.entry(schema.getValue().toDescriptor(msgName), schema.getKey()))
-          .findFirst()
-          .orElseThrow(() -> new NullPointerException(
-              "The given message type not found in protobuf definition: " + msgName));
-    }
-
-    private static Map<String, Descriptor> populateDescriptors(Map<String, Descriptor> descriptorMap,
-                                                               Map<String, String> messageNameMap) {
-      Map<String, Descriptor> descriptors = new HashMap<>();
-      for (Map.Entry<String, String> entry : messageNameMap.entrySet()) {
-        descriptors.put(entry.getKey(), descriptorMap.get(entry.getValue()));
-      }
-      return descriptors;
-    }
-
-    @VisibleForTesting
-    static Map<Path, ProtobufSchema> loadSchemas(Optional<List<String>> protobufFiles,
-                                                 Optional<String> protobufFilesDir) {
-      if (protobufFilesDir.isPresent()) {
-        if (protobufFiles.isPresent()) {
-          log.warn("protobufFiles properties will be ignored, since protobufFilesDir provided");
+      // only names are checked here, descriptors are built lazily
+      configuration.messageNames().forEach(name -> {
+        if (!schemas.containsMessage(name)) {
+          throw new NullPointerException("The given message type not found in protobuf definition: " + name);
         }
-        List<ProtoFile> loadedFiles = new ProtoSchemaLoader(protobufFilesDir.get()).load();
-        Map<String, ProtoFileElement> allPaths = loadedFiles.stream()
-            .collect(Collectors.toMap(f -> f.getLocation().getPath(), ProtoFile::toElement));
-        return loadedFiles.stream()
-            .collect(Collectors.toMap(
-                f -> Path.of(f.getLocation().getBase(), f.getLocation().getPath()),
-                f -> new ProtobufSchema(f.toElement(), List.of(), allPaths)));
-      }
-      //Supporting for backward-compatibility. Normally, protobufFilesDir setting should be used
-      return protobufFiles.stream()
-          .flatMap(Collection::stream)
-          .distinct()
-          .map(Path::of)
-          .collect(Collectors.toMap(path -> path, path -> new ProtobufSchema(readFileAsString(path))));
-    }
-
-    private static void addProtobufSchema(Map<Descriptor, Path> descriptorPaths,
-                                          Map<Path, ProtobufSchema> protobufSchemas,
-                                          String messageName) {
-      var descriptorAndPath = getDescriptorAndPath(protobufSchemas, messageName);
-      descriptorPaths.put(descriptorAndPath.getKey(), descriptorAndPath.getValue());
+      });
+      return configuration;
     }
 
-    private static void addProtobufSchemas(Map<Descriptor, Path> descriptorPaths,
-                                           Map<Path, ProtobufSchema> protobufSchemas,
-                                           Map<String, String> messageNamesByTopic) {
-      messageNamesByTopic.values().stream()
-          .map(msgName -> getDescriptorAndPath(protobufSchemas, msgName))
-          .forEach(entry -> descriptorPaths.put(entry.getKey(), entry.getValue()));
+    Set<String> messageNames() {
+      Set<String> names = new HashSet<>(messageNameByTopic.values());
+      names.addAll(keyMessageNameByTopic.values());
+      Optional.ofNullable(defaultMessageName).ifPresent(names::add);
+      Optional.ofNullable(defaultKeyMessageName).ifPresent(names::add);
+      return names;
     }
   }
 
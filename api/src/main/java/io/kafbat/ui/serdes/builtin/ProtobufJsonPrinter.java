@@ -0,0 +1,500 @@
+package io.kafbat.ui.serdes.builtin;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.WireFormat;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.Timestamps;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Protobuf binary to json printer compiled for a specific message descriptor. Wire format is decoded
+ * once into per-field slots and printed directly, without building DynamicMessage and without
+ * JsonFormat's reflective printing. Output is the same as JsonFormat.printer() with
+ * includingDefaultValueFields() and omittingInsignificantWhitespace() options produces.
+ * Printers are only compiled for proto3 messages that do not use Any, Struct, Value, ListValue and
+ * FieldMask (directly or in nested messages), callers should fall back to JsonFormat for other messages.
+ */
+public final class ProtobufJsonPrinter {
+
+  private static final int MAX_CACHED_PRINTERS = 10_000;
+  private static final int MAX_DENSE_FIELD_NUMBER = 1024;
+
+  private static final Set<String> UNSUPPORTED_WELL_KNOWN_TYPES = Set.of(
+      "google.protobuf.Any",
+      "google.protobuf.Struct",
+      "google.protobuf.Value",
+      "google.protobuf.ListValue",
+      "google.protobuf.FieldMask"
+  );
+
+  private static final Set<String> WRAPPER_TYPES = Set.of(
+      "google.protobuf.DoubleValue",
+      "google.protobuf.FloatValue",
+      "google.protobuf.Int64Value",
+      "google.protobuf.UInt64Value",
+      "google.protobuf.Int32Value",
+      "google.protobuf.UInt32Value",
+      "google.protobuf.BoolValue",
+      "google.protobuf.StringValue",
+      "google.protobuf.BytesValue"
+  );
+
+  private record CacheKey(Descriptor descriptor, boolean preservingProtoFieldNames) {
+  }
+
+  private static final Cache<CacheKey, Optional<ProtobufJsonPrinter>> COMPILED = Caffeine.newBuilder()
+      .maximumSize(MAX_CACHED_PRINTERS)
+      .build();
+
+  private final MessagePlan root;
+
+  private ProtobufJsonPrinter(MessagePlan root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns printer compiled for descriptor (compiled printers are cached per descriptor), or empty
+   * optional if message is not supported and should be printed with JsonFormat.
+   */
+  public static Optional<ProtobufJsonPrinter> compiled(Descriptor descriptor, boolean preservingProtoFieldNames) {
+    return COMPILED.get(
+        new CacheKey(descriptor, preservingProtoFieldNames),
+        k -> Optional.ofNullable(new Compiler(k.preservingProtoFieldNames()).compile(k.descriptor()))
+            .map(ProtobufJsonPrinter::new)
+    );
+  }
+
+  public String print(byte[] data, int offset, int length) throws IOException {
+    var out = new StringBuilder(length * 2);
+    var in = CodedInputStream.newInstance(data, offset, length);
+    in.enableAliasing(true);
+    printMessage(out, root, in);
+    return out.toString();
+  }
+
+  private enum Kind {
+    MESSAGE, TIMESTAMP, DURATION, WRAPPER
+  }
+
+  private static final class MessagePlan {
+    private final Kind kind;
+    private FieldPlan[] fields; // sorted by number, set after creation since message can reference itself
+    private FieldPlan[] denseFields; // indexed by number, null if numbers are too sparse
+    private Map<Integer, FieldPlan> sparseFields;
+
+    MessagePlan(Kind kind) {
+      this.kind = kind;
+    }
+
+    @Nullable
+    FieldPlan field(int number) {
+      if (denseFields != null) {
+        return number < denseFields.length ? denseFields[number] : null;
+      }
+      return sparseFields.get(number);
+    }
+  }
+
+  private static final class FieldPlan {
+    private final FieldDescriptor descriptor;
+    private final int index;
+    private final String namePrefix;
+    private final int expectedWireType;
+    private final boolean packable;
+    // fields of the same (non-synthetic) oneof, they are cleared when this field is set
+    private int[] oneofSiblings = new int[0];
+    // singular fields without presence are printed with default value if not set
+    private final boolean printDefault;
+    @Nullable
+    private final Object defaultValue;
+    @Nullable
+    private final Map<Integer, String> enumNames; // quoted names by number
+    private final boolean nullValueEnum;
+    @Nullable
+    private MessagePlan messagePlan;
+    @Nullable
+    private FieldPlan mapKey;
+    @Nullable
+    private FieldPlan mapValue;
+
+    FieldPlan(FieldDescriptor descriptor, int index, boolean preservingProtoFieldNames) {
+      this.descriptor = descriptor;
+      this.index = index;
+      this.namePrefix = "\"" + (preservingProtoFieldNames ? descriptor.getName() : descriptor.getJsonName()) + "\":";
+      this.expectedWireType = descriptor.getLiteType().getWireType();
+      this.packable = descriptor.isPackable();
+      this.printDefault = !descriptor.isRepeated() && !descriptor.hasPresence();
+      boolean isEnum = descriptor.getJavaType() == FieldDescriptor.JavaType.ENUM;
+      if (descriptor.isRepeated()) {
+        this.defaultValue = null;
+      } else if (descriptor.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+        this.defaultValue = ByteString.EMPTY; // default instance, only used for map values
+      } else {
+        this.defaultValue = isEnum
+            ? ((EnumValueDescriptor) descriptor.getDefaultValue()).getNumber()
+            : descriptor.getDefaultValue();
+      }
+      if (isEnum) {
+        this.nullValueEnum = descriptor.getEnumType().getFullName().equals("google.protobuf.NullValue");
+        this.enumNames = new HashMap<>();
+        // first value wins for aliased numbers, as in EnumDescriptor.findValueByNumber()
+        descriptor.getEnumType().getValues()
+            .forEach(v -> enumNames.putIfAbsent(v.getNumber(), "\"" + v.getName() + "\""));
+      } else {
+        this.nullValueEnum = false;
+        this.enumNames = null;
+      }
+    }
+
+    boolean isMessage() {
+      return descriptor.getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+    }
+
+    // returns false if field's wire type is not expected, such field is treated as unknown
+    boolean read(CodedInputStream in, int tag, Object[] values) throws IOException {
+      int wireType = WireFormat.getTagWireType(tag);
+      if (descriptor.isRepeated() && packable && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+        var list = list(values);
+        int limit = in.pushLimit(in.readRawVarint32());
+        while (in.getBytesUntilLimit() > 0) {
+          list.add(readValue(in));
+        }
+        in.popLimit(limit);
+        return true;
+      }
+      if (wireType != expectedWireType) {
+        return false;
+      }
+      Object value = readValue(in);
+      if (descriptor.isRepeated()) {
+        list(values).add(value);
+      } else if (isMessage() && values[index] != null) {
+        // repeated occurrences of singular message are merged, which is the same as concatenating them
+        values[index] = ((ByteString) values[index]).concat((ByteString) value);
+      } else {
+        values[index] = value;
+      }
+      for (int sibling : oneofSiblings) {
+        values[sibling] = null;
+      }
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> list(Object[] values) {
+      if (values[index] == null) {
+        values[index] = new ArrayList<>();
+      }
+      return (List<Object>) values[index];
+    }
+
+    private Object readValue(CodedInputStream in) throws IOException {
+      return switch (descriptor.getType()) {
+        case DOUBLE -> in.readDouble();
+        case FLOAT -> in.readFloat();
+        case INT64 -> in.readInt64();
+        case UINT64 -> in.readUInt64();
+        case INT32 -> in.readInt32();
+        case FIXED64 -> in.readFixed64();
+        case FIXED32 -> in.readFixed32();
+        case BOOL -> in.readBool();
+        case STRING -> in.readStringRequireUtf8();
+        case BYTES, MESSAGE -> in.readBytes();
+        case UINT32 -> in.readUInt32();
+        case ENUM -> in.readEnum();
+        case SFIXED32 -> in.readSFixed32();
+        case SFIXED64 -> in.readSFixed64();
+        case SINT32 -> in.readSInt32();
+        case SINT64 -> in.readSInt64();
+        case GROUP -> throw new IllegalStateException("Groups are not supported");
+      };
+    }
+  }
+
+  private static final class Compiler {
+
+    private final boolean preservingProtoFieldNames;
+    private final Map<Descriptor, MessagePlan> plans = new HashMap<>();
+
+    Compiler(boolean preservingProtoFieldNames) {
+      this.preservingProtoFieldNames = preservingProtoFieldNames;
+    }
+
+    // returns null if descriptor (or any of nested messages) is not supported
+    @Nullable
+    MessagePlan compile(Descriptor descriptor) {
+      var compiled = plans.get(descriptor);
+      if (compiled != null) {
+        return compiled;
+      }
+      if (!isSupported(descriptor)) {
+        return null;
+      }
+      var plan = new MessagePlan(kind(descriptor));
+      plans.put(descriptor, plan);
+
+      List<FieldDescriptor> descriptorFields = new ArrayList<>(descriptor.getFields());
+      descriptorFields.sort((f1, f2) -> Integer.compare(f1.getNumber(), f2.getNumber()));
+      var fields = new FieldPlan[descriptorFields.size()];
+      for (int i = 0; i < fields.length; i++) {
+        var field = new FieldPlan(descriptorFields.get(i), i, preservingProtoFieldNames);
+        if (field.isMessage()) {
+          field.messagePlan = compile(field.descriptor.getMessageType());
+          if (field.messagePlan == null) {
+            return null;
+          }
+          if (field.descriptor.isMapField()) {
+            field.mapKey = field.messagePlan.fields[0];
+            field.mapValue = field.messagePlan.fields[1];
+          }
+        }
+        fields[i] = field;
+      }
+      for (FieldPlan field : fields) {
+        var oneof = field.descriptor.getRealContainingOneof();
+        if (oneof != null) {
+          field.oneofSiblings = oneof.getFields().stream()
+              .filter(f -> f != field.descriptor)
+              .mapToInt(f -> indexOf(fields, f))
+              .toArray();
+        }
+      }
+      plan.fields = fields;
+      int maxNumber = descriptorFields.isEmpty() ? 0 : descriptorFields.getLast().getNumber();
+      if (maxNumber <= MAX_DENSE_FIELD_NUMBER) {
+        plan.denseFields = new FieldPlan[maxNumber + 1];
+        for (FieldPlan field : fields) {
+          plan.denseFields[field.descriptor.getNumber()] = field;
+        }
+      } else {
+        plan.sparseFields = new HashMap<>();
+        for (FieldPlan field : fields) {
+          plan.sparseFields.put(field.descriptor.getNumber(), field);
+        }
+      }
+      return plan;
+    }
+
+    private static boolean isSupported(Descriptor descriptor) {
+      return "proto3".equals(descriptor.getFile().toProto().getSyntax())
+          && !UNSUPPORTED_WELL_KNOWN_TYPES.contains(descriptor.getFullName());
+    }
+
+    private static Kind kind(Descriptor descriptor) {
+      String name = descriptor.getFullName();
+      if (name.equals("google.protobuf.Timestamp")) {
+        return Kind.TIMESTAMP;
+      }
+      if (name.equals("google.protobuf.Duration")) {
+        return Kind.DURATION;
+      }
+      return WRAPPER_TYPES.contains(name) ? Kind.WRAPPER : Kind.MESSAGE;
+    }
+
+    private static int indexOf(FieldPlan[] fields, FieldDescriptor descriptor) {
+      for (FieldPlan field : fields) {
+        if (field.descriptor == descriptor) {
+          return field.index;
+        }
+      }
+      throw new IllegalStateException("Field %s not found".formatted(descriptor.getFullName()));
+    }
+  }
+
+  private static Object[] decode(MessagePlan plan, CodedInputStream in) throws IOException {
+    Object[] values = new Object[plan.fields.length];
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      var field = plan.field(WireFormat.getTagFieldNumber(tag));
+      if (field == null || !field.read(in, tag, values)) {
+        in.skipField(tag);
+      }
+    }
+    return values;
+  }
+
+  private static void printMessage(StringBuilder out, MessagePlan plan, ByteString bytes) throws IOException {
+    var in = bytes.newCodedInput();
+    in.enableAliasing(true);
+    printMessage(out, plan, in);
+  }
+
+  private static void printMessage(StringBuilder out, MessagePlan plan, CodedInputStream in) throws IOException {
+    switch (plan.kind) {
+      case TIMESTAMP -> out.append('"').append(Timestamps.toString(Timestamp.parseFrom(in))).append('"');
+      case DURATION -> out.append('"').append(Durations.toString(Duration.parseFrom(in))).append('"');
+      case WRAPPER -> {
+        var valueField = plan.fields[0];
+        Object value = decode(plan, in)[0];
+        printValue(out, valueField, value == null ? valueField.defaultValue : value, false);
+      }
+      case MESSAGE -> printFields(out, plan, decode(plan, in));
+      default -> throw new IllegalStateException("Unexpected message kind " + plan.kind);
+    }
+  }
+
+  // fields are printed in numbers order
+  private static void printFields(StringBuilder out, MessagePlan plan, Object[] values) throws IOException {
+    out.append('{');
+    boolean printed = false;
+    for (FieldPlan field : plan.fields) {
+      Object value = values[field.index];
+      if (value == null && !field.printDefault && !field.descriptor.isRepeated()) {
+        continue;
+      }
+      if (printed) {
+        out.append(',');
+      }
+      printed = true;
+      out.append(field.namePrefix);
+      if (field.descriptor.isMapField()) {
+        printMap(out, field, value);
+      } else if (field.descriptor.isRepeated()) {
+        printList(out, field, value);
+      } else {
+        printValue(out, field, value == null ? field.defaultValue : value, false);
+      }
+    }
+    out.append('}');
+  }
+
+  private static void printList(StringBuilder out, FieldPlan field, @Nullable Object value) throws IOException {
+    out.append('[');
+    if (value != null) {
+      boolean first = true;
+      for (Object element : (List<?>) value) {
+        if (!first) {
+          out.append(',');
+        }
+        first = false;
+        printValue(out, field, element, false);
+      }
+    }
+    out.append(']');
+  }
+
+  // entries are printed in wire order (JsonFormat does not sort map keys by default)
+  private static void printMap(StringBuilder out, FieldPlan field, @Nullable Object value) throws IOException {
+    out.append('{');
+    if (value != null) {
+      boolean first = true;
+      for (Object entry : (List<?>) value) {
+        if (!first) {
+          out.append(',');
+        }
+        first = false;
+        var entryIn = ((ByteString) entry).newCodedInput();
+        entryIn.enableAliasing(true);
+        Object[] entryValues = decode(field.messagePlan, entryIn);
+        var keyField = field.mapKey;
+        var valueField = field.mapValue;
+        printValue(out, keyField, entryValues[0] == null ? keyField.defaultValue : entryValues[0], true);
+        out.append(':');
+        printValue(out, valueField, entryValues[1] == null ? valueField.defaultValue : entryValues[1], false);
+      }
+    }
+    out.append('}');
+  }
+
+  // see JsonFormat.PrinterImpl::printSingleFieldValue
+  private static void printValue(StringBuilder out, FieldPlan field, Object value, boolean alwaysWithQuotes)
+      throws IOException {
+    switch (field.descriptor.getType()) {
+      case INT32, SINT32, SFIXED32 -> quoted(out, Integer.toString((Integer) value), alwaysWithQuotes);
+      case INT64, SINT64, SFIXED64 -> quoted(out, Long.toString((Long) value), true);
+      case BOOL -> quoted(out, Boolean.toString((Boolean) value), alwaysWithQuotes);
+      case FLOAT -> {
+        float f = (Float) value;
+        if (Float.isNaN(f)) {
+          out.append("\"NaN\"");
+        } else if (Float.isInfinite(f)) {
+          out.append(f > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+        } else {
+          quoted(out, Float.toString(f), alwaysWithQuotes);
+        }
+      }
+      case DOUBLE -> {
+        double d = (Double) value;
+        if (Double.isNaN(d)) {
+          out.append("\"NaN\"");
+        } else if (Double.isInfinite(d)) {
+          out.append(d > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+        } else {
+          quoted(out, Double.toString(d), alwaysWithQuotes);
+        }
+      }
+      case UINT32, FIXED32 -> quoted(out, Integer.toUnsignedString((Integer) value), alwaysWithQuotes);
+      case UINT64, FIXED64 -> quoted(out, Long.toUnsignedString((Long) value), true);
+      case STRING -> appendJsonString(out, (String) value);
+      case BYTES -> out.append('"').append(Base64.getEncoder().encodeToString(((ByteString) value).toByteArray()))
+          .append('"');
+      case ENUM -> {
+        if (field.nullValueEnum) {
+          quoted(out, "null", alwaysWithQuotes);
+        } else {
+          int number = (Integer) value;
+          String name = field.enumNames.get(number);
+          out.append(name != null ? name : Integer.toString(number));
+        }
+      }
+      case MESSAGE -> printMessage(out, field.messagePlan, (ByteString) value);
+      case GROUP -> throw new IllegalStateException("Groups are not supported");
+      default -> throw new IllegalStateException("Unexpected field type " + field.descriptor.getType());
+    }
+  }
+
+  private static void quoted(StringBuilder out, String value, boolean withQuotes) {
+    if (withQuotes) {
+      out.append('"').append(value).append('"');
+    } else {
+      out.append(value);
+    }
+  }
+
+  // same escaping as Gson (with html-safe escaping) does, JsonFormat uses it for strings
+  private static void appendJsonString(StringBuilder out, String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\t' -> out.append("\\t");
+        case '\b' -> out.append("\\b");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        case '\f' -> out.append("\\f");
+        case '<', '>', '&', '=', '\'', '\u2028', '\u2029' -> appendUnicodeEscape(out, c);
+        default -> {
+          if (c < 0x20) {
+            appendUnicodeEscape(out, c);
+          } else {
+            out.append(c);
+          }
+        }
+      }
+    }
+    out.append('"');
+  }
+
+  private static void appendUnicodeEscape(StringBuilder out, char c) {
+    out.append("\\u");
+    String hex = Integer.toHexString(c);
+    out.append("0".repeat(4 - hex.length())).append(hex);
+  }
+}
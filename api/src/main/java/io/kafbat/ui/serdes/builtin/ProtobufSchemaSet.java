@@ -0,0 +1,349 @@
+package io.kafbat.ui.serdes.builtin;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.AnyProto;
+import com.google.protobuf.ApiProto;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DurationProto;
+import com.google.protobuf.EmptyProto;
+import com.google.protobuf.FieldMaskProto;
+import com.google.protobuf.SourceContextProto;
+import com.google.protobuf.StructProto;
+import com.google.protobuf.TimestampProto;
+import com.google.protobuf.TypeProto;
+import com.google.protobuf.WrappersProto;
+import com.squareup.wire.schema.ProtoFile;
+import com.squareup.wire.schema.internal.parser.MessageElement;
+import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+import com.squareup.wire.schema.internal.parser.TypeElement;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Protobuf definitions used by {@link ProtobufFileSerde}: .proto files (parsed and linked with wire) and
+ * precompiled FileDescriptorSet (.desc) files. Only message names are indexed on load, descriptors are built
+ * on first lookup. Sets are shared between serde instances (clusters) loading the same files with the same
+ * content. Resolved descriptors of .proto files directory can be stored to the on-disk cache keyed by
+ * directory content hash, so later startups load them as descriptor set instead of parsing the protos.
+ */
+@Slf4j
+final class ProtobufSchemaSet {
+
+  static final String DESCRIPTOR_SET_EXTENSION = ".desc";
+
+  // should be incremented when cached descriptor set content changes
+  private static final int CACHE_FORMAT_VERSION = 1;
+
+  // kept while used by any serde instance
+  private static final Cache<String, ProtobufSchemaSet> SHARED = Caffeine.newBuilder().weakValues().build();
+
+  private static final Map<String, FileDescriptor> WELL_KNOWN_FILES = Stream.of(
+          AnyProto.getDescriptor(),
+          ApiProto.getDescriptor(),
+          DescriptorProtos.getDescriptor(),
+          DurationProto.getDescriptor(),
+          EmptyProto.getDescriptor(),
+          FieldMaskProto.getDescriptor(),
+          SourceContextProto.getDescriptor(),
+          StructProto.getDescriptor(),
+          TimestampProto.getDescriptor(),
+          TypeProto.getDescriptor(),
+          WrappersProto.getDescriptor())
+      .collect(Collectors.toMap(FileDescriptor::getName, Function.identity()));
+
+  private record MessageSource(Path path, Function<String, Descriptor> resolver) {
+  }
+
+  private final Map<String, MessageSource> messages = new HashMap<>();
+  private final Map<String, Descriptor> descriptors = new ConcurrentHashMap<>();
+
+  private ProtobufSchemaSet() {
+  }
+
+  static ProtobufSchemaSet load(Optional<List<String>> protobufFiles,
+                                Optional<String> protobufFilesDir,
+                                Optional<String> cacheDir) {
+    if (protobufFilesDir.isPresent()) {
+      if (protobufFiles.isPresent()) {
+        log.warn("protobufFiles properties will be ignored, since protobufFilesDir provided");
+      }
+      Path dir = Path.of(protobufFilesDir.get());
+      if (!Files.isReadable(dir)) {
+        throw new ValidationException("proto files directory not readable");
+      }
+      List<Path> files = listFiles(dir);
+      String hash = contentHash(dir, files);
+      return SHARED.get(
+          "dir:" + dir.toAbsolutePath().normalize() + ":" + hash,
+          k -> loadDirectory(dir, files, cacheDir.map(d -> Path.of(d, hash + DESCRIPTOR_SET_EXTENSION)))
+      );
+    }
+    //Supporting for backward-compatibility. Normally, protobufFilesDir setting should be used
+    List<Path> files = protobufFiles.stream()
+        .flatMap(Collection::stream)
+        .distinct()
+        .map(Path::of)
+        .toList();
+    return SHARED.get("files:" + contentHash(null, files), k -> loadFiles(files));
+  }
+
+  boolean containsMessage(String fullName) {
+    return messages.containsKey(fullName);
+  }
+
+  Descriptor descriptor(String fullName) {
+    return descriptors.computeIfAbsent(fullName, name -> {
+      var source = messages.get(name);
+      Preconditions.checkArgument(source != null, "Message %s not found in protobuf definitions", name);
+      return source.resolver().apply(name);
+    });
+  }
+
+  // file message defined in, used as schema id
+  Path path(String fullName) {
+    return messages.get(fullName).path();
+  }
+
+  private static ProtobufSchemaSet loadDirectory(Path dir, List<Path> files, Optional<Path> cacheFile) {
+    var set = new ProtobufSchemaSet();
+    files.stream()
+        .filter(ProtobufSchemaSet::isDescriptorSet)
+        .forEach(file -> set.addDescriptorSet(readDescriptorSet(file), fileName -> file, fileName -> true));
+    if (files.stream().noneMatch(f -> f.toString().endsWith(".proto"))) {
+      return set;
+    }
+    var cached = cacheFile.filter(Files::isReadable).flatMap(ProtobufSchemaSet::readCache);
+    if (cached.isPresent()) {
+      log.info("Protobuf descriptors of {} loaded from cache file {}", dir, cacheFile.get());
+      // cached set also contains imported known types' files, they are not indexed (as with .proto loading)
+      set.addDescriptorSet(cached.get(), dir::resolve, fileName -> files.contains(dir.resolve(fileName)));
+      return set;
+    }
+    List<ProtoFile> loadedFiles = new ProtobufFileSerde.ProtoSchemaLoader(dir.toString()).load();
+    Map<String, ProtoFileElement> allPaths = loadedFiles.stream()
+        .collect(Collectors.toMap(f -> f.getLocation().getPath(), ProtoFile::toElement));
+    allPaths.forEach((relativePath, element) ->
+        set.addSchema(dir.resolve(relativePath), new ProtobufSchema(element, List.of(), allPaths)));
+    // cache is written in background, failures are logged since it's only an optimization
+    cacheFile.ifPresent(file ->
+        Mono.fromRunnable(() -> writeCache(file, allPaths))
+            .subscribeOn(BlockingSchedulers.boundedElastic())
+            .subscribe(null, e -> log.warn("Error writing protobuf descriptors cache to {}", file, e)));
+    return set;
+  }
+
+  private static ProtobufSchemaSet loadFiles(List<Path> files) {
+    var set = new ProtobufSchemaSet();
+    for (Path file : files) {
+      if (isDescriptorSet(file)) {
+        set.addDescriptorSet(readDescriptorSet(file), fileName -> file, fileName -> true);
+      } else {
+        set.addSchema(file, new ProtobufSchema(readFileAsString(file)));
+      }
+    }
+    return set;
+  }
+
+  private void addSchema(Path path, ProtobufSchema schema) {
+    var source = new MessageSource(path, schema::toDescriptor);
+    messageNames(schema.rawSchema()).forEach(name -> addMessage(name, source));
+  }
+
+  private void addDescriptorSet(FileDescriptorSet descriptorSet,
+                                Function<String, Path> filePaths,
+                                Predicate<String> indexedFiles) {
+    var builder = new FileDescriptorsBuilder(descriptorSet);
+    for (FileDescriptorProto file : descriptorSet.getFileList()) {
+      if (WELL_KNOWN_FILES.containsKey(file.getName()) || !indexedFiles.test(file.getName())) {
+        continue;
+      }
+      var source = new MessageSource(
+          filePaths.apply(file.getName()),
+          name -> findMessage(builder.build(file.getName()), name)
+      );
+      String prefix = file.getPackage().isEmpty() ? "" : file.getPackage() + ".";
+      file.getMessageTypeList().forEach(msg -> indexMessages(prefix, msg, name -> addMessage(name, source)));
+    }
+  }
+
+  private void addMessage(String fullName, MessageSource source) {
+    if (messages.putIfAbsent(fullName, source) != null) {
+      log.warn("Message {} is defined more than once, definition from {} is used",
+          fullName, messages.get(fullName).path());
+    }
+  }
+
+  private static void indexMessages(String prefix, DescriptorProto message, Consumer<String> names) {
+    String fullName = prefix + message.getName();
+    names.accept(fullName);
+    message.getNestedTypeList().forEach(nested -> indexMessages(fullName + ".", nested, names));
+  }
+
+  private static List<String> messageNames(ProtoFileElement file) {
+    String prefix = file.getPackageName() == null ? "" : file.getPackageName() + ".";
+    return messageNames(prefix, file.getTypes()).toList();
+  }
+
+  private static Stream<String> messageNames(String prefix, List<TypeElement> types) {
+    return types.stream()
+        .filter(MessageElement.class::isInstance)
+        .flatMap(type -> Stream.concat(
+            Stream.of(prefix + type.getName()),
+            messageNames(prefix + type.getName() + ".", type.getNestedTypes())
+        ));
+  }
+
+  @Nullable
+  private static Descriptor findMessage(FileDescriptor file, String fullName) {
+    String relativeName = file.getPackage().isEmpty() ? fullName : fullName.substring(file.getPackage().length() + 1);
+    String[] names = relativeName.split("\\.");
+    Descriptor descriptor = file.findMessageTypeByName(names[0]);
+    for (int i = 1; i < names.length && descriptor != null; i++) {
+      descriptor = descriptor.findNestedTypeByName(names[i]);
+    }
+    return descriptor;
+  }
+
+  // builds file descriptors of the set with their dependencies, well-known types are taken from protobuf library
+  private static final class FileDescriptorsBuilder {
+
+    private final Map<String, FileDescriptorProto> files;
+    private final Map<String, FileDescriptor> built = new HashMap<>();
+
+    FileDescriptorsBuilder(FileDescriptorSet descriptorSet) {
+      this.files = descriptorSet.getFileList().stream()
+          .collect(Collectors.toMap(FileDescriptorProto::getName, Function.identity(), (f1, f2) -> f1));
+    }
+
+    synchronized FileDescriptor build(String fileName) {
+      var file = Optional.ofNullable(WELL_KNOWN_FILES.get(fileName)).orElse(built.get(fileName));
+      if (file != null) {
+        return file;
+      }
+      var proto = files.get(fileName);
+      if (proto == null) {
+        throw new ValidationException("Protobuf file '%s' not found in descriptor set".formatted(fileName));
+      }
+      var dependencies = new FileDescriptor[proto.getDependencyCount()];
+      for (int i = 0; i < dependencies.length; i++) {
+        dependencies[i] = build(proto.getDependency(i));
+      }
+      try {
+        file = FileDescriptor.buildFrom(proto, dependencies);
+      } catch (DescriptorValidationException e) {
+        throw new ValidationException("Invalid descriptor of protobuf file '%s'".formatted(fileName), e);
+      }
+      built.put(fileName, file);
+      return file;
+    }
+  }
+
+  // descriptors are built from fresh schemas, so they are not retained by the loaded set
+  private static void writeCache(Path cacheFile, Map<String, ProtoFileElement> allPaths) {
+    try {
+      Map<String, FileDescriptorProto> files = new LinkedHashMap<>();
+      allPaths.forEach((relativePath, element) -> messageNames(element).stream().findFirst().ifPresent(name -> {
+        var file = new ProtobufSchema(element, List.of(), allPaths).toDescriptor(name).getFile();
+        file.getDependencies().forEach(dependency -> collectFile(dependency, files));
+        // file is named by its location, the same way it is referenced by imports
+        files.put(relativePath, file.toProto().toBuilder().setName(relativePath).build());
+      }));
+      Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+      Path tmpFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), "protobuf-descriptors", ".tmp");
+      Files.write(tmpFile, FileDescriptorSet.newBuilder().addAllFile(files.values()).build().toByteArray());
+      Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("Protobuf descriptors cache written to {}", cacheFile);
+    } catch (Exception e) {
+      log.warn("Error writing protobuf descriptors cache to {}", cacheFile, e);
+    }
+  }
+
+  private static void collectFile(FileDescriptor file, Map<String, FileDescriptorProto> files) {
+    if (!files.containsKey(file.getName())) {
+      file.getDependencies().forEach(dependency -> collectFile(dependency, files));
+      files.putIfAbsent(file.getName(), file.toProto());
+    }
+  }
+
+  private static boolean isDescriptorSet(Path file) {
+    return file.toString().endsWith(DESCRIPTOR_SET_EXTENSION);
+  }
+
+  @SneakyThrows
+  private static List<Path> listFiles(Path dir) {
+    try (var files = Files.walk(dir, FileVisitOption.FOLLOW_LINKS)) {
+      return files
+          .filter(p -> !Files.isDirectory(p))
+          .filter(p -> p.toString().endsWith(".proto") || isDescriptorSet(p))
+          .sorted()
+          .toList();
+    }
+  }
+
+  // hash of files names (relative to base dir, if provided) and content
+  @SneakyThrows
+  private static String contentHash(@Nullable Path baseDir, List<Path> files) {
+    Hasher hasher = Hashing.sha256().newHasher().putInt(CACHE_FORMAT_VERSION);
+    for (Path file : files) {
+      String name = baseDir == null ? file.toString() : baseDir.relativize(file).toString();
+      hasher.putString(name, StandardCharsets.UTF_8).putBytes(Files.readAllBytes(file));
+    }
+    return hasher.hash().toString();
+  }
+
+  private static FileDescriptorSet readDescriptorSet(Path file) {
+    try (InputStream in = Files.newInputStream(file)) {
+      return FileDescriptorSet.parseFrom(in);
+    } catch (IOException e) {
+      throw new ValidationException("Error reading protobuf descriptor set " + file, e);
+    }
+  }
+
+  private static Optional<FileDescriptorSet> readCache(Path cacheFile) {
+    try (InputStream in = Files.newInputStream(cacheFile)) {
+      return Optional.of(FileDescriptorSet.parseFrom(in));
+    } catch (IOException e) {
+      log.warn("Error reading protobuf descriptors cache {}, proto files will be parsed", cacheFile, e);
+      return Optional.empty();
+    }
+  }
+
+  @SneakyThrows
+  private static String readFileAsString(Path path) {
+    return Files.readString(path);
+  }
+}
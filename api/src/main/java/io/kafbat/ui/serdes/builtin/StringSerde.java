@@ -3,6 +3,7 @@ package io.kafbat.ui.serdes.builtin;
 import io.kafbat.ui.serde.api.DeserializeResult;
 import io.kafbat.ui.serde.api.PropertyResolver;
 import io.kafbat.ui.serdes.BuiltInSerde;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
@@ -21,6 +22,10 @@ public class StringSerde implements BuiltInSerde {
         .ifPresent(e -> StringSerde.this.encoding = e);
   }
 
+  public boolean isUtf8Encoding() {
+    return StandardCharsets.UTF_8.equals(encoding);
+  }
+
   @Override
   public boolean canDeserialize(String topic, Target type) {
     return true;
@@ -37,13 +42,19 @@ public class StringSerde implements BuiltInSerde {
   }
 
   @Override
-  public Deserializer deserializer(String topic, Target type) {
+  public ByteBufferDeserializer deserializer(String topic, Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            new String(data, encoding),
+            decode(data),
             DeserializeResult.Type.STRING,
             Map.of()
         );
   }
 
+  private String decode(ByteBuffer data) {
+    return data.hasArray()
+        ? new String(data.array(), data.arrayOffset() + data.position(), data.remaining(), encoding)
+        : encoding.decode(data).toString();
+  }
+
 }
@@ -45,10 +45,10 @@ public class UInt32Serde implements BuiltInSerde {
   }
 
   @Override
-  public Serde.Deserializer deserializer(String topic, Serde.Target type) {
+  public Serde.ByteBufferDeserializer deserializer(String topic, Serde.Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            UnsignedInteger.fromIntBits(Ints.fromByteArray(data)).toString(),
+            UnsignedInteger.fromIntBits(data.getInt(data.position())).toString(),
             DeserializeResult.Type.JSON,
             Map.of()
         );
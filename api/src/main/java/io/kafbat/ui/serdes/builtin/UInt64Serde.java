@@ -45,10 +45,10 @@ public class UInt64Serde implements BuiltInSerde {
   }
 
   @Override
-  public Deserializer deserializer(String topic, Target type) {
+  public ByteBufferDeserializer deserializer(String topic, Target type) {
     return (headers, data) ->
         new DeserializeResult(
-            UnsignedLong.fromLongBits(Longs.fromByteArray(data)).toString(),
+            UnsignedLong.fromLongBits(data.getLong(data.position())).toString(),
             DeserializeResult.Type.JSON,
             Map.of()
         );
@@ -50,14 +50,13 @@ public class UuidBinarySerde implements BuiltInSerde {
   }
 
   @Override
-  public Serde.Deserializer deserializer(String topic, Serde.Target type) {
+  public Serde.ByteBufferDeserializer deserializer(String topic, Serde.Target type) {
     return (headers, data) -> {
-      if (data.length != 16) {
-        throw new ValidationException("UUID data should be 16 bytes, but it is " + data.length);
+      if (data.remaining() != 16) {
+        throw new ValidationException("UUID data should be 16 bytes, but it is " + data.remaining());
       }
-      ByteBuffer bb = ByteBuffer.wrap(data);
-      long msb = bb.getLong();
-      long lsb = bb.getLong();
+      long msb = data.getLong();
+      long lsb = data.getLong();
       UUID uuid = mostSignificantBitsFirst ? new UUID(msb, lsb) : new UUID(lsb, msb);
       return new DeserializeResult(
           uuid.toString(),
@@ -0,0 +1,282 @@
+package io.kafbat.ui.serdes.builtin.sr;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import io.kafbat.ui.util.jsonschema.JsonAvroConversion;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.avro.Conversion;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Avro binary to json writer compiled for a specific (writer) schema. Datum is decoded straight into
+ * json generator, without building GenericRecord and JsonNode tree in between. Output is the same as
+ * {@link JsonAvroConversion#convertAvroToJson} produces for the datum decoded with logical type converters:
+ * logical type values are converted with the same conversions, map entries keep GenericDatumReader's order.
+ */
+final class AvroJsonWriter {
+
+  private static final JsonMapper MAPPER = new JsonMapper();
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(Decoder in, JsonGenerator out) throws IOException;
+  }
+
+  private record UnionBranch(SerializedString typeName, ValueWriter writer) {
+  }
+
+  private final ValueWriter rootWriter;
+
+  private AvroJsonWriter(ValueWriter rootWriter) {
+    this.rootWriter = rootWriter;
+  }
+
+  static AvroJsonWriter compile(Schema schema, FormatterProperties properties) {
+    return new AvroJsonWriter(new Compiler(properties).compile(schema));
+  }
+
+  String write(byte[] data, int offset) {
+    var out = new ByteArrayBuilder();
+    try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      rootWriter.write(DecoderFactory.get().binaryDecoder(data, offset, data.length - offset, null), gen);
+    } catch (IOException e) {
+      throw new SerializationException("Error deserializing Avro message", e);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static final class Compiler {
+
+    private final FormatterProperties properties;
+    private final GenericData genericData = AvroSchemaUtils.getGenericData();
+    // writers of records by full name, needed to compile recursive schemas
+    private final Map<String, RecordWriter> records = new HashMap<>();
+
+    Compiler(FormatterProperties properties) {
+      this.properties = properties;
+    }
+
+    ValueWriter compile(Schema schema) {
+      if (schema.getLogicalType() != null) {
+        switch (schema.getType()) {
+          case STRING, INT, LONG, BYTES, FIXED -> {
+            return logicalType(schema);
+          }
+          default -> {
+            // logical types of complex types are ignored by JsonAvroConversion
+          }
+        }
+      }
+      return switch (schema.getType()) {
+        case RECORD -> record(schema);
+        case ENUM -> enumeration(schema);
+        case ARRAY -> array(schema);
+        case MAP -> map(schema);
+        case UNION -> union(schema);
+        case FIXED -> (in, out) -> {
+          byte[] bytes = new byte[schema.getFixedSize()];
+          in.readFixed(bytes);
+          out.writeString(new String(bytes, StandardCharsets.ISO_8859_1));
+        };
+        case BYTES -> (in, out) -> {
+          ByteBuffer bytes = in.readBytes(null);
+          //see JsonEncoder::writeByteArray
+          out.writeString(new String(bytes.array(), StandardCharsets.ISO_8859_1));
+        };
+        case STRING -> (in, out) -> writeUtf8(out, in.readString(null));
+        case INT -> (in, out) -> out.writeNumber(in.readInt());
+        case LONG -> (in, out) -> out.writeNumber(in.readLong());
+        case FLOAT -> (in, out) -> out.writeNumber(in.readFloat());
+        case DOUBLE -> (in, out) -> out.writeNumber(in.readDouble());
+        case BOOLEAN -> (in, out) -> out.writeBoolean(in.readBoolean());
+        case NULL -> (in, out) -> {
+          in.readNull();
+          out.writeNull();
+        };
+      };
+    }
+
+    private ValueWriter record(Schema schema) {
+      var compiled = records.get(schema.getFullName());
+      if (compiled != null) {
+        return compiled;
+      }
+      var writer = new RecordWriter();
+      records.put(schema.getFullName(), writer);
+      writer.fields = schema.getFields().stream().map(this::field).toArray(ValueWriter[]::new);
+      return writer;
+    }
+
+    // writes field's name and value, null values are skipped unless they should be shown
+    private ValueWriter field(Schema.Field field) {
+      var name = new SerializedString(field.name());
+      boolean showNulls = properties.showNullValues();
+      return switch (field.schema().getType()) {
+        case NULL -> (in, out) -> {
+          in.readNull();
+          if (showNulls) {
+            out.writeFieldName(name);
+            out.writeNull();
+          }
+        };
+        case UNION -> {
+          var branches = unionBranches(field.schema());
+          yield (in, out) -> {
+            var branch = branches[in.readIndex()];
+            if (branch != null || showNulls) {
+              out.writeFieldName(name);
+              writeUnionBranch(branch, in, out);
+            }
+          };
+        }
+        default -> {
+          var valueWriter = compile(field.schema());
+          yield (in, out) -> {
+            out.writeFieldName(name);
+            valueWriter.write(in, out);
+          };
+        }
+      };
+    }
+
+    private ValueWriter enumeration(Schema schema) {
+      var symbols = schema.getEnumSymbols().stream().map(SerializedString::new).toArray(SerializedString[]::new);
+      return (in, out) -> out.writeString(symbols[in.readEnum()]);
+    }
+
+    private ValueWriter array(Schema schema) {
+      var elementWriter = compile(schema.getElementType());
+      return (in, out) -> {
+        out.writeStartArray();
+        for (long count = in.readArrayStart(); count > 0; count = in.arrayNext()) {
+          for (long i = 0; i < count; i++) {
+            elementWriter.write(in, out);
+          }
+        }
+        out.writeEndArray();
+      };
+    }
+
+    // entries are collected to HashMap keyed by decoded keys, so they are ordered as in GenericDatumReader's map
+    private ValueWriter map(Schema schema) {
+      var valueWriter = compile(schema.getValueType());
+      boolean javaStringKeys = GenericData.StringType.String.name().equals(schema.getProp(GenericData.STRING_PROP));
+      return (in, out) -> {
+        long count = in.readMapStart();
+        Map<Object, TokenBuffer> entries = new HashMap<>((int) count);
+        for (; count > 0; count = in.mapNext()) {
+          for (long i = 0; i < count; i++) {
+            Object key = javaStringKeys ? in.readString() : in.readString(null);
+            var value = new TokenBuffer(out.getCodec(), false);
+            valueWriter.write(in, value);
+            entries.put(key, value);
+          }
+        }
+        out.writeStartObject();
+        for (var entry : entries.entrySet()) {
+          out.writeFieldName(entry.getKey().toString());
+          entry.getValue().serialize(out);
+        }
+        out.writeEndObject();
+      };
+    }
+
+    private ValueWriter union(Schema schema) {
+      var branches = unionBranches(schema);
+      return (in, out) -> writeUnionBranch(branches[in.readIndex()], in, out);
+    }
+
+    // branch is null for null type
+    private UnionBranch[] unionBranches(Schema union) {
+      List<Schema> types = union.getTypes();
+      var branches = new UnionBranch[types.size()];
+      for (int i = 0; i < types.size(); i++) {
+        Schema type = types.get(i);
+        if (type.getType() != Schema.Type.NULL) {
+          branches[i] = new UnionBranch(
+              new SerializedString(
+                  JsonAvroConversion.selectUnionTypeFieldName(union, type, i, properties.fullyQualifiedNames())),
+              compile(type)
+          );
+        }
+      }
+      return branches;
+    }
+
+    // logical types are leaf values, so they are converted the same way GenericDatumReader does
+    private ValueWriter logicalType(Schema schema) {
+      var logicalType = schema.getLogicalType();
+      Conversion<?> conversion = genericData.getConversionFor(logicalType);
+      return (in, out) -> {
+        Object value = switch (schema.getType()) {
+          case STRING -> in.readString(null);
+          case INT -> in.readInt();
+          case LONG -> in.readLong();
+          case BYTES -> in.readBytes(null);
+          case FIXED -> {
+            byte[] bytes = new byte[schema.getFixedSize()];
+            in.readFixed(bytes);
+            yield new GenericData.Fixed(schema, bytes);
+          }
+          default -> throw new IllegalStateException("Unexpected logical type base " + schema.getType());
+        };
+        if (conversion != null) {
+          value = Conversions.convertToLogicalType(value, schema, logicalType, conversion);
+        }
+        out.writeTree(JsonAvroConversion.convertAvroToJson(value, schema, properties));
+      };
+    }
+  }
+
+  private static final class RecordWriter implements ValueWriter {
+
+    private ValueWriter[] fields; // set after creation, since record can reference itself
+
+    @Override
+    public void write(Decoder in, JsonGenerator out) throws IOException {
+      out.writeStartObject();
+      for (ValueWriter field : fields) {
+        field.write(in, out);
+      }
+      out.writeEndObject();
+    }
+  }
+
+  private static void writeUnionBranch(@Nullable UnionBranch branch, Decoder in, JsonGenerator out)
+      throws IOException {
+    if (branch == null) {
+      out.writeNull();
+      return;
+    }
+    out.writeStartObject();
+    out.writeFieldName(branch.typeName());
+    branch.writer().write(in, out);
+    out.writeEndObject();
+  }
+
+  private static void writeUtf8(JsonGenerator out, Utf8 value) throws IOException {
+    if (out instanceof TokenBuffer) {
+      // token buffers (used for map values) do not support utf-8 encoded strings
+      out.writeString(value.toString());
+    } else {
+      out.writeUTF8String(value.getBytes(), 0, value.getByteLength());
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package io.kafbat.ui.serdes.builtin.sr;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.kafbat.ui.exception.ValidationException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of schemas by id, that persists schemas fetched from registry across restarts (and shares
+ * them between instances using the same directory). Schema can't be changed for an id, so entries are never
+ * invalidated. File is read once on creation, every line is a json-serialized registry's schema entity,
+ * lines that can't be read (like partially written ones) are skipped.
+ * <p>
+ * Single store instance is used for a file within the application, lines are appended under file lock,
+ * so they are not interleaved with lines written by other processes sharing the file.
+ */
+@Slf4j
+final class FileSchemaStore {
+
+  private static final JsonMapper MAPPER = JsonMapper.builder()
+      .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+      .build();
+
+  private static final Map<Path, FileSchemaStore> STORES = new ConcurrentHashMap<>();
+
+  private final Path file;
+  private final Map<Integer, Schema> schemas = new ConcurrentHashMap<>();
+
+  private FileSchemaStore(Path file) {
+    this.file = file;
+  }
+
+  static FileSchemaStore open(Path dir, List<String> registryUrls) {
+    try {
+      Files.createDirectories(dir);
+    } catch (IOException e) {
+      throw new ValidationException("Schema cache directory can't be created: " + dir, e);
+    }
+    return STORES.computeIfAbsent(storeFile(dir, registryUrls).toAbsolutePath().normalize(), FileSchemaStore::load);
+  }
+
+  // ids are registry-specific, so each registry (set of urls) gets its own file
+  @VisibleForTesting
+  static Path storeFile(Path dir, List<String> registryUrls) {
+    String registryHash = Hashing.sha256()
+        .hashString(String.join(",", registryUrls.stream().sorted().toList()), StandardCharsets.UTF_8)
+        .toString();
+    return dir.resolve("schemas-" + registryHash + ".jsonl");
+  }
+
+  // creates store that is not shared, should only be used once per file
+  @VisibleForTesting
+  static FileSchemaStore load(Path file) {
+    var store = new FileSchemaStore(file);
+    store.readFile();
+    return store;
+  }
+
+  Optional<Schema> get(int id) {
+    return Optional.ofNullable(schemas.get(id));
+  }
+
+  // appended to file only if not stored yet, failures are logged since store is only an optimization
+  void put(Schema schema) {
+    if (schemas.putIfAbsent(schema.getId(), schema) != null) {
+      return;
+    }
+    try {
+      byte[] line = (MAPPER.writeValueAsString(schema) + "\n").getBytes(StandardCharsets.UTF_8);
+      synchronized (this) {
+        append(line);
+      }
+    } catch (IOException e) {
+      log.warn("Error writing schema {} to {}", schema.getId(), file, e);
+    }
+  }
+
+  int size() {
+    return schemas.size();
+  }
+
+  private void append(byte[] line) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+         var _ = channel.lock()) {
+      var buffer = ByteBuffer.wrap(line);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  private void readFile() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+      lines.filter(line -> !line.isBlank()).forEach(line -> {
+        try {
+          var schema = MAPPER.readValue(line, Schema.class);
+          if (schema.getId() != null) {
+            schemas.putIfAbsent(schema.getId(), schema);
+          }
+        } catch (IOException e) {
+          log.debug("Skipping unreadable line of {}", file, e);
+        }
+      });
+      log.info("{} schemas loaded from {}", schemas.size(), file);
+    } catch (IOException e) {
+      log.warn("Error reading schemas from {}", file, e);
+    }
+  }
+}
@@ -1,18 +1,34 @@
 package io.kafbat.ui.serdes.builtin.sr;
 
+import static io.kafbat.ui.serdes.builtin.sr.SchemaRegistrySerde.SR_PAYLOAD_MAGIC_BYTE;
+import static io.kafbat.ui.serdes.builtin.sr.SchemaRegistrySerde.SR_PAYLOAD_PREFIX_LENGTH;
+
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.protobuf.Message;
 import com.google.protobuf.util.JsonFormat;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufDeserializer;
+import io.kafbat.ui.serdes.builtin.ProtobufJsonPrinter;
 import io.kafbat.ui.util.jsonschema.JsonAvroConversion;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
 
 interface MessageFormatter {
 
@@ -28,10 +44,19 @@ interface MessageFormatter {
   }
 
   class AvroMessageFormatter implements MessageFormatter {
+    private static final int MAX_COMPILED_WRITERS = 1_000;
+
+    private final SchemaRegistryClient client;
     private final KafkaAvroDeserializer avroDeserializer;
     private final FormatterProperties properties;
+    // schema ids are immutable, so writers compiled for them never go stale.
+    // Writers are compiled for record schemas only, other schemas are formatted with deserializer.
+    private final Cache<Integer, Optional<AvroJsonWriter>> compiledWriters = Caffeine.newBuilder()
+        .maximumSize(MAX_COMPILED_WRITERS)
+        .build();
 
     AvroMessageFormatter(SchemaRegistryClient client, FormatterProperties properties) {
+      this.client = client;
       this.properties = properties != null ? properties : FormatterProperties.EMPTY;
       this.avroDeserializer = new KafkaAvroDeserializer(client);
       this.avroDeserializer.configure(
@@ -47,22 +72,60 @@ interface MessageFormatter {
 
     @Override
     public String format(String topic, byte[] value) {
+      if (value.length >= SR_PAYLOAD_PREFIX_LENGTH && value[0] == SR_PAYLOAD_MAGIC_BYTE) {
+        int schemaId = ByteBuffer.wrap(value, 1, Integer.BYTES).getInt();
+        var writer = compiledWriters.get(schemaId, this::compileWriter);
+        if (writer.isPresent()) {
+          return writer.get().write(value, SR_PAYLOAD_PREFIX_LENGTH);
+        }
+      }
       Object deserialized = avroDeserializer.deserialize(topic, value);
       var schema = AvroSchemaUtils.getSchema(deserialized);
       return JsonAvroConversion.convertAvroToJson(deserialized, schema, properties).toString();
     }
+
+    private Optional<AvroJsonWriter> compileWriter(int schemaId) {
+      try {
+        Schema schema = ((AvroSchema) client.getSchemaById(schemaId)).rawSchema();
+        return schema.getType() == Schema.Type.RECORD
+            ? Optional.of(AvroJsonWriter.compile(schema, properties))
+            : Optional.empty();
+      } catch (IOException | RestClientException e) {
+        throw new SerializationException("Error retrieving Avro schema for id " + schemaId, e);
+      }
+    }
   }
 
   class ProtobufMessageFormatter implements MessageFormatter {
+    private static final int MAX_CACHED_PRINTERS = 1_000;
+
+    private final SchemaRegistryClient client;
     private final KafkaProtobufDeserializer<?> protobufDeserializer;
+    // printers by schema id and message indexes, empty if message should be printed with JsonFormat
+    private final Cache<PrinterKey, Optional<ProtobufJsonPrinter>> compiledPrinters = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_PRINTERS)
+        .build();
+
+    private record PrinterKey(int schemaId, List<Integer> messageIndexes) {
+    }
 
     ProtobufMessageFormatter(SchemaRegistryClient client) {
+      this.client = client;
       this.protobufDeserializer = new KafkaProtobufDeserializer<>(client);
     }
 
     @Override
     @SneakyThrows
     public String format(String topic, byte[] value) {
+      if (value.length >= SR_PAYLOAD_PREFIX_LENGTH && value[0] == SR_PAYLOAD_MAGIC_BYTE) {
+        var buffer = ByteBuffer.wrap(value, 1, value.length - 1);
+        int schemaId = buffer.getInt();
+        var indexes = MessageIndexes.readFrom(buffer);
+        var printer = compiledPrinters.get(new PrinterKey(schemaId, indexes.indexes()), this::compilePrinter);
+        if (printer.isPresent()) {
+          return printer.get().print(value, buffer.position(), buffer.remaining());
+        }
+      }
       final Message message = protobufDeserializer.deserialize(topic, value);
       return JsonFormat.printer()
           .includingDefaultValueFields()
@@ -70,6 +133,16 @@ interface MessageFormatter {
           .preservingProtoFieldNames()
           .print(message);
     }
+
+    private Optional<ProtobufJsonPrinter> compilePrinter(PrinterKey key) {
+      try {
+        var schema = (ProtobufSchema) client.getSchemaById(key.schemaId());
+        var descriptor = schema.toDescriptor(schema.toMessageName(new MessageIndexes(key.messageIndexes())));
+        return descriptor == null ? Optional.empty() : ProtobufJsonPrinter.compiled(descriptor, true);
+      } catch (IOException | RestClientException e) {
+        throw new SerializationException("Error retrieving Protobuf schema for id " + key.schemaId(), e);
+      }
+    }
   }
 
   class JsonSchemaMessageFormatter implements MessageFormatter {
@@ -0,0 +1,79 @@
+package io.kafbat.ui.serdes.builtin.sr;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.SchemaProvider;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry client that keeps schemas fetched by id in {@link FileSchemaStore}, so after restart they are taken
+ * from the store instead of registry. Stored schemas are parsed on first use (referenced schemas are still
+ * resolved by registry calls). Schemas requested for context-qualified subjects are not stored, since ids
+ * are scoped by context.
+ */
+@Slf4j
+class PersistentCachingSchemaRegistryClient extends CachedSchemaRegistryClient {
+
+  private static final String CONTEXT_PREFIX = ":.";
+
+  private final FileSchemaStore store;
+  // bounded the same way as client's own schemas cache
+  private final Cache<Integer, ParsedSchema> restored;
+
+  PersistentCachingSchemaRegistryClient(List<String> baseUrls,
+                                        int cacheCapacity,
+                                        List<SchemaProvider> providers,
+                                        Map<String, ?> originals,
+                                        FileSchemaStore store) {
+    super(baseUrls, cacheCapacity, providers, originals);
+    this.store = store;
+    this.restored = Caffeine.newBuilder().maximumSize(cacheCapacity).build();
+  }
+
+  @Override
+  public ParsedSchema getSchemaById(int id) throws IOException, RestClientException {
+    return getSchemaBySubjectAndId(null, id);
+  }
+
+  @Override
+  public ParsedSchema getSchemaBySubjectAndId(@Nullable String subject, int id)
+      throws IOException, RestClientException {
+    if (subject != null && subject.startsWith(CONTEXT_PREFIX)) {
+      return super.getSchemaBySubjectAndId(subject, id);
+    }
+    var restoredSchema = restore(id);
+    if (restoredSchema.isPresent()) {
+      return restoredSchema.get();
+    }
+    ParsedSchema schema = super.getSchemaBySubjectAndId(subject, id);
+    store.put(new Schema(null, null, id, schema.schemaType(), schema.references(), schema.canonicalString()));
+    return schema;
+  }
+
+  private Optional<ParsedSchema> restore(int id) {
+    var parsed = restored.getIfPresent(id);
+    if (parsed != null) {
+      return Optional.of(parsed);
+    }
+    return store.get(id).flatMap(stored -> {
+      try {
+        return parseSchema(stored);
+      } catch (Exception e) {
+        log.warn("Error parsing stored schema {}, it will be fetched from registry", id, e);
+        return Optional.empty();
+      }
+    }).map(schema -> {
+      restored.put(id, schema);
+      return schema;
+    });
+  }
+}
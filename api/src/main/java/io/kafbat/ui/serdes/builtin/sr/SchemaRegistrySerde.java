@@ -12,6 +12,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.SchemaProvider;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
@@ -29,37 +30,51 @@ import io.kafbat.ui.exception.ValidationException;
 import io.kafbat.ui.model.SchemaRegistryDeserializePropertiesDTO;
 import io.kafbat.ui.serde.api.DeserializeResult;
 import io.kafbat.ui.serde.api.PropertyResolver;
+import io.kafbat.ui.serde.api.RecordHeaders;
 import io.kafbat.ui.serde.api.SchemaDescription;
 import io.kafbat.ui.serde.api.SerdeParameter;
 import io.kafbat.ui.serdes.BuiltInSerde;
 import io.kafbat.ui.service.ssl.SkipSecurityProvider;
+import io.kafbat.ui.util.BlockingSchedulers;
 import io.kafbat.ui.util.jsonschema.AvroJsonSchemaConverter;
 import io.kafbat.ui.util.jsonschema.ProtobufSchemaConverter;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import javax.annotation.Nullable;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.config.SslConfigs;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-
+@Slf4j
 public class SchemaRegistrySerde implements BuiltInSerde {
   private static final ObjectMapper OM = new ObjectMapper();
 
   public static final String NAME = "SchemaRegistry";
   public static final String SUBJECT_PARAMETER_NAME = "subject";
-  private static final byte SR_PAYLOAD_MAGIC_BYTE = 0x0;
-  private static final int SR_PAYLOAD_PREFIX_LENGTH = 5;
+  static final byte SR_PAYLOAD_MAGIC_BYTE = 0x0;
+  static final int SR_PAYLOAD_PREFIX_LENGTH = 5;
 
   private static final String SCHEMA_REGISTRY = "schemaRegistry";
   private static final int DEFAULT_MAX_SUBJECTS_CACHE_SIZE = 1024;
   private static final int DEFAULT_ALL_SUBJECTS_CACHE_TTL_SECONDS = 30;
+  private static final int DEFAULT_PREFETCH_PARALLELISM = 8;
+
+  // prefetch tasks run on dedicated scheduler, so deserializing threads (that can belong to shared
+  // blocking scheduler) never wait for tasks queued behind them in the same pool
+  private static final Scheduler PREFETCH_SCHEDULER = BlockingSchedulers.newBoundedElastic("schema-registry-prefetch");
 
   private SchemaRegistryClient schemaRegistryClient;
   private List<String> schemaRegistryUrls;
@@ -72,6 +87,9 @@ public class SchemaRegistrySerde implements BuiltInSerde {
   private Cache<Integer, List<String>> idToSubjectsCache;
   private Cache<String, Collection<String>> allSubjectsCache;
 
+  // max number of concurrent registry calls when schemas of polled batch are prefetched, <= 1 disables prefetch
+  private int prefetchParallelism;
+
   @Override
   public boolean canBeAutoConfigured(PropertyResolver kafkaClusterProperties,
                                      PropertyResolver globalProperties) {
@@ -105,7 +123,8 @@ public class SchemaRegistrySerde implements BuiltInSerde {
             kafkaClusterProperties.getProperty("schemaRegistrySsl.keystorePassword", String.class).orElse(null),
             kafkaClusterProperties.getProperty("ssl.truststoreLocation", String.class).orElse(null),
             kafkaClusterProperties.getProperty("ssl.truststorePassword", String.class).orElse(null),
-            kafkaClusterProperties.getProperty("ssl.verify", Boolean.class).orElse(true)
+            kafkaClusterProperties.getProperty("ssl.verify", Boolean.class).orElse(true),
+            kafkaClusterProperties.getProperty("schemaRegistrySchemaCacheDir", String.class).orElse(null)
         ),
         kafkaClusterProperties.getProperty("schemaRegistryKeySchemaNameTemplate", String.class).orElse("%s-key"),
         kafkaClusterProperties.getProperty("schemaRegistrySchemaNameTemplate", String.class).orElse("%s-value"),
@@ -115,7 +134,9 @@ public class SchemaRegistrySerde implements BuiltInSerde {
         kafkaClusterProperties.getProperty("schemaRegistryMaxSubjectsCacheSize", Integer.class)
             .orElse(DEFAULT_MAX_SUBJECTS_CACHE_SIZE),
         kafkaClusterProperties.getProperty("schemaRegistryAllSubjectsCacheTtlSeconds", Integer.class)
-            .orElse(DEFAULT_ALL_SUBJECTS_CACHE_TTL_SECONDS)
+            .orElse(DEFAULT_ALL_SUBJECTS_CACHE_TTL_SECONDS),
+        kafkaClusterProperties.getProperty("schemaRegistryPrefetchParallelism", Integer.class)
+            .orElse(DEFAULT_PREFETCH_PARALLELISM)
     );
   }
 
@@ -146,7 +167,8 @@ public class SchemaRegistrySerde implements BuiltInSerde {
             serdeProperties.getProperty("keystorePassword", String.class).orElse(null),
             kafkaClusterProperties.getProperty("ssl.truststoreLocation", String.class).orElse(null),
             kafkaClusterProperties.getProperty("ssl.truststorePassword", String.class).orElse(null),
-            kafkaClusterProperties.getProperty("ssl.verify", Boolean.class).orElse(true)
+            kafkaClusterProperties.getProperty("ssl.verify", Boolean.class).orElse(true),
+            serdeProperties.getProperty("schemaCacheDir", String.class).orElse(null)
         ),
         serdeProperties.getProperty("keySchemaNameTemplate", String.class).orElse("%s-key"),
         serdeProperties.getProperty("schemaNameTemplate", String.class).orElse("%s-value"),
@@ -155,7 +177,8 @@ public class SchemaRegistrySerde implements BuiltInSerde {
         formatterProperties,
         serdeProperties.getProperty("maxSubjectsCacheSize", Integer.class).orElse(DEFAULT_MAX_SUBJECTS_CACHE_SIZE),
         serdeProperties.getProperty("allSubjectsCacheTtlSeconds", Integer.class)
-            .orElse(DEFAULT_ALL_SUBJECTS_CACHE_TTL_SECONDS)
+            .orElse(DEFAULT_ALL_SUBJECTS_CACHE_TTL_SECONDS),
+        serdeProperties.getProperty("prefetchParallelism", Integer.class).orElse(DEFAULT_PREFETCH_PARALLELISM)
     );
   }
 
@@ -181,6 +204,22 @@ public class SchemaRegistrySerde implements BuiltInSerde {
       FormatterProperties formatterProperties,
       int maxSubjectsCacheSize,
       int allSubjectsCacheTtlSeconds) {
+    configure(schemaRegistryUrls, schemaRegistryClient, keySchemaNameTemplate, valueSchemaNameTemplate,
+        checkTopicSchemaExistenceForDeserialize, formatterProperties, maxSubjectsCacheSize,
+        allSubjectsCacheTtlSeconds, DEFAULT_PREFETCH_PARALLELISM);
+  }
+
+  @VisibleForTesting
+  void configure(
+      List<String> schemaRegistryUrls,
+      SchemaRegistryClient schemaRegistryClient,
+      String keySchemaNameTemplate,
+      String valueSchemaNameTemplate,
+      boolean checkTopicSchemaExistenceForDeserialize,
+      FormatterProperties formatterProperties,
+      int maxSubjectsCacheSize,
+      int allSubjectsCacheTtlSeconds,
+      int prefetchParallelism) {
     this.schemaRegistryUrls = schemaRegistryUrls;
     this.schemaRegistryClient = schemaRegistryClient;
     this.keySchemaNameTemplate = keySchemaNameTemplate;
@@ -194,6 +233,7 @@ public class SchemaRegistrySerde implements BuiltInSerde {
         .expireAfterWrite(Duration.ofSeconds(allSubjectsCacheTtlSeconds))
         .maximumSize(1)
         .build();
+    this.prefetchParallelism = prefetchParallelism;
   }
 
   private static SchemaRegistryClient createSchemaRegistryClient(List<String> urls,
@@ -203,7 +243,8 @@ public class SchemaRegistrySerde implements BuiltInSerde {
                                                                  @Nullable String keyStorePassword,
                                                                  @Nullable String trustStoreLocation,
                                                                  @Nullable String trustStorePassword,
-                                                                 boolean verifySsl) {
+                                                                 boolean verifySsl,
+                                                                 @Nullable String schemaCacheDir) {
     Map<String, String> configs = new HashMap<>();
     if (username != null && password != null) {
       configs.put(BASIC_AUTH_CREDENTIALS_SOURCE, "USER_INFO");
@@ -240,12 +281,15 @@ public class SchemaRegistrySerde implements BuiltInSerde {
           keyStorePassword);
     }
 
-    return new CachedSchemaRegistryClient(
-        urls,
-        1_000,
-        List.of(new AvroSchemaProvider(), new ProtobufSchemaProvider(), new JsonSchemaProvider()),
-        configs
-    );
+    List<SchemaProvider> providers =
+        List.of(new AvroSchemaProvider(), new ProtobufSchemaProvider(), new JsonSchemaProvider());
+    if (schemaCacheDir != null) {
+      // schemas are immutable for their ids, so they can be kept across restarts (subjects are not persisted,
+      // since they can be changed at any time)
+      return new PersistentCachingSchemaRegistryClient(
+          urls, 1_000, providers, configs, FileSchemaStore.open(Path.of(schemaCacheDir), urls));
+    }
+    return new CachedSchemaRegistryClient(urls, 1_000, providers, configs);
   }
 
   @Override
@@ -421,30 +465,76 @@ public class SchemaRegistrySerde implements BuiltInSerde {
   }
 
   @Override
-  public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) -> {
-      var schemaId = extractSchemaIdFromMsg(data);
-      ParsedSchema schema = getSchemaById(schemaId)
-              .orElseThrow(() -> new ValidationException(String.format("Schema not found %s", schemaId)));
-      List<String> subjects = getSubjectsById(schemaId);
-      SchemaType format = getMessageFormatBySchemaId(schema);
-
-      var properties = new SchemaRegistryDeserializePropertiesDTO();
-      properties.setId(schemaId);
-      properties.setSubjects(subjects);
-      properties.setType(format.name());
-
-      MessageFormatter formatter = schemaRegistryFormatters.get(format);
-
-      return new DeserializeResult(
-          formatter.format(topic, data),
-          DeserializeResult.Type.JSON,
-          OM.convertValue(properties, new TypeReference<>() {
-          })
-      );
+  public ByteBufferDeserializer deserializer(String topic, Target type) {
+    return new ByteBufferDeserializer() {
+      @Override
+      public DeserializeResult deserializeBuffer(RecordHeaders headers, ByteBuffer data) {
+        var schemaId = extractSchemaIdFromMsg(data);
+        ParsedSchema schema = getSchemaById(schemaId)
+            .orElseThrow(() -> new ValidationException(String.format("Schema not found %s", schemaId)));
+        List<String> subjects = getSubjectsById(schemaId);
+        SchemaType format = getMessageFormatBySchemaId(schema);
+
+        var properties = new SchemaRegistryDeserializePropertiesDTO();
+        properties.setId(schemaId);
+        properties.setSubjects(subjects);
+        properties.setType(format.name());
+
+        MessageFormatter formatter = schemaRegistryFormatters.get(format);
+
+        return new DeserializeResult(
+            formatter.format(topic, toArray(data)),
+            DeserializeResult.Type.JSON,
+            OM.convertValue(properties, new TypeReference<>() {
+            })
+        );
+      }
+
+      @Override
+      public void prefetch(List<ByteBuffer> data) {
+        prefetchSchemas(data);
+      }
     };
   }
 
+  // Schemas (and their subjects) of ids that were not resolved yet are fetched concurrently, so batch's
+  // deserialization doesn't wait for registry round trips one by one. Fetch errors are ignored here, they will
+  // be reported by deserialization of corresponding records.
+  private void prefetchSchemas(List<ByteBuffer> data) {
+    if (prefetchParallelism <= 1) {
+      return;
+    }
+    Set<Integer> unresolvedIds = new HashSet<>();
+    for (ByteBuffer buffer : data) {
+      if (hasSchemaIdPrefix(buffer)) {
+        int schemaId = extractSchemaIdFromMsg(buffer);
+        if (idToSubjectsCache.getIfPresent(schemaId) == null) {
+          unresolvedIds.add(schemaId);
+        }
+      }
+    }
+    if (unresolvedIds.size() < 2) {
+      return; // nothing to parallelize
+    }
+    try {
+      Flux.fromIterable(unresolvedIds)
+          .flatMap(id -> Mono.fromRunnable(() -> prefetchSchema(id)).subscribeOn(PREFETCH_SCHEDULER),
+              prefetchParallelism)
+          .blockLast();
+    } catch (RuntimeException e) {
+      log.debug("Error prefetching schemas", e);
+    }
+  }
+
+  private void prefetchSchema(int schemaId) {
+    try {
+      getSchemaById(schemaId);
+      getSubjectsById(schemaId);
+    } catch (Exception e) {
+      log.debug("Error prefetching schema with id {}", schemaId, e);
+    }
+  }
+
   private List<String> getSubjectsById(int schemaId) {
     return idToSubjectsCache.get(schemaId, (id) -> {
       try {
@@ -464,10 +554,14 @@ public class SchemaRegistrySerde implements BuiltInSerde {
         .orElseThrow(() -> new ValidationException(String.format("Schema type not found %s", schema.schemaType())));
   }
 
-  private int extractSchemaIdFromMsg(byte[] data) {
-    ByteBuffer buffer = ByteBuffer.wrap(data);
-    if (buffer.remaining() >= SR_PAYLOAD_PREFIX_LENGTH && buffer.get() == SR_PAYLOAD_MAGIC_BYTE) {
-      return buffer.getInt();
+  private static boolean hasSchemaIdPrefix(ByteBuffer buffer) {
+    return buffer.remaining() >= SR_PAYLOAD_PREFIX_LENGTH && buffer.get(buffer.position()) == SR_PAYLOAD_MAGIC_BYTE;
+  }
+
+  // reads prefix with absolute gets, buffer's position is not changed
+  private int extractSchemaIdFromMsg(ByteBuffer buffer) {
+    if (hasSchemaIdPrefix(buffer)) {
+      return buffer.getInt(buffer.position() + 1);
     }
     throw new ValidationException(
         String.format(
@@ -475,4 +569,17 @@ public class SchemaRegistrySerde implements BuiltInSerde {
             NAME)
     );
   }
+
+  // formatters' deserializers need arrays, buffer's backing array is used when it contains exactly the data
+  private static byte[] toArray(ByteBuffer data) {
+    if (data.hasArray()
+        && data.arrayOffset() == 0
+        && data.position() == 0
+        && data.remaining() == data.array().length) {
+      return data.array();
+    }
+    byte[] bytes = new byte[data.remaining()];
+    data.duplicate().get(bytes);
+    return bytes;
+  }
 }
@@ -2,10 +2,13 @@ package io.kafbat.ui.service;
 
 import static io.kafbat.ui.util.ConsumerGroupUtil.calculateLag;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Streams;
 import com.google.common.collect.Table;
 import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.emitter.ConsumersPool;
 import io.kafbat.ui.emitter.EnhancedConsumer;
+import io.kafbat.ui.emitter.PolledBytesBudget;
 import io.kafbat.ui.model.ConsumerGroupLagDTO;
 import io.kafbat.ui.model.ConsumerGroupOrderingDTO;
 import io.kafbat.ui.model.ConsumerGroupStateDTO;
@@ -21,6 +24,7 @@ import io.kafbat.ui.service.metrics.scrape.ScrapedClusterState;
 import io.kafbat.ui.service.rbac.AccessControlService;
 import io.kafbat.ui.util.ApplicationMetrics;
 import io.kafbat.ui.util.KafkaClientSslPropertiesUtil;
+import jakarta.annotation.PreDestroy;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,6 +36,8 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,11 +58,18 @@ import reactor.util.function.Tuples;
 @RequiredArgsConstructor
 public class ConsumerGroupService {
 
+  private static final int MIN_POOLED_MAX_POLL_RECORDS = 32;
+  private static final int MAX_POOLED_MAX_POLL_RECORDS = 1 << 14;
+
   private final AdminClientService adminClientService;
   private final AccessControlService accessControlService;
   private final ClustersProperties clustersProperties;
   private final StatisticsCache statisticsCache;
 
+  private final Map<PoolKey, ClusterConsumersPool> consumersPools = new ConcurrentHashMap<>();
+
+  private final Supplier<PolledBytesBudget> polledBytesBudget = Suppliers.memoize(this::createPolledBytesBudget);
+
   private Mono<List<InternalConsumerGroup>> getConsumerGroups(
       ReactiveAdminClient ac,
       List<ConsumerGroupDescription> descriptions) {
@@ -582,6 +595,77 @@ public class ConsumerGroupService {
     return createConsumer(cluster, Map.of());
   }
 
+  // cluster's pools are separated by max.poll.records, since consumers can't change it after creation
+  private record PoolKey(String clusterName, @Nullable Integer maxPollRecords) {
+  }
+
+  // pool is replaced when cluster is re-created with new configuration
+  private record ClusterConsumersPool(KafkaCluster cluster, ConsumersPool pool) {
+  }
+
+  /**
+   * Returns consumer from cluster's pool if consumers pooling is enabled, or creates new consumer otherwise.
+   * In both cases consumer's max.poll.records is set close to provided value, consumer should be closed after use.
+   */
+  public EnhancedConsumer leaseConsumer(KafkaCluster cluster, @Nullable Integer maxPollRecords) {
+    var poolProperties = clustersProperties.getPolling().getConsumersPool();
+    if (!poolProperties.isEnabled()) {
+      return maxPollRecords == null
+          ? createConsumer(cluster)
+          : createConsumer(cluster, Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords));
+    }
+    var key = new PoolKey(cluster.getName(), pooledMaxPollRecords(maxPollRecords));
+    var current = consumersPools.get(key);
+    if (current != null && current.cluster() == cluster) {
+      return current.pool().lease();
+    }
+    // pool is created (and pre-warmed) outside of compute, since it creates consumers
+    var created = new ClusterConsumersPool(cluster, createConsumersPool(cluster, key.maxPollRecords()));
+    List<ClusterConsumersPool> replaced = new ArrayList<>(1);
+    var actual = consumersPools.compute(key, (k, existing) -> {
+      if (existing != null && existing.cluster() == cluster) {
+        return existing;
+      }
+      if (existing != null) {
+        existing.pool().removeMeters();
+        replaced.add(existing);
+      }
+      created.pool().registerMeters();
+      return created;
+    });
+    if (actual != created) {
+      created.pool().close();
+    }
+    replaced.forEach(p -> p.pool().close());
+    return actual.pool().lease();
+  }
+
+  // page sizes are rounded up to power of two, so only a few pools are created per cluster
+  private static @Nullable Integer pooledMaxPollRecords(@Nullable Integer maxPollRecords) {
+    if (maxPollRecords == null) {
+      return null;
+    }
+    int bounded = Math.clamp(maxPollRecords, MIN_POOLED_MAX_POLL_RECORDS, MAX_POOLED_MAX_POLL_RECORDS);
+    return Integer.highestOneBit(bounded) == bounded ? bounded : Integer.highestOneBit(bounded) << 1;
+  }
+
+  private ConsumersPool createConsumersPool(KafkaCluster cluster, @Nullable Integer maxPollRecords) {
+    return new ConsumersPool(
+        () -> maxPollRecords == null
+            ? createConsumer(cluster)
+            : createConsumer(cluster, Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords)),
+        clustersProperties.getPolling().getConsumersPool(),
+        ApplicationMetrics.forCluster(cluster),
+        maxPollRecords == null ? "default" : "max-poll-records-" + maxPollRecords
+    );
+  }
+
+  @PreDestroy
+  public void closeConsumersPools() {
+    consumersPools.values().forEach(p -> p.pool().close());
+    consumersPools.clear();
+  }
+
   public EnhancedConsumer createConsumer(KafkaCluster cluster,
                                          Map<String, Object> properties) {
     Properties props = new Properties();
@@ -595,11 +679,19 @@ public class ConsumerGroupService {
     props.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, "false");
     props.putAll(properties);
 
-    return new EnhancedConsumer(
+    var consumer = new EnhancedConsumer(
         props,
         cluster.getPollingSettings().getPollingThrottler(),
         ApplicationMetrics.forCluster(cluster)
     );
+    return consumer.withBytesBudget(polledBytesBudget.get());
+  }
+
+  // single budget for all clusters, since polled records are kept in the same heap
+  private PolledBytesBudget createPolledBytesBudget() {
+    var budget = new PolledBytesBudget(clustersProperties.getPolling().getAdmission().getMaxInFlightBytes());
+    ApplicationMetrics.meterPolledBytesBudget(budget);
+    return budget;
   }
 
 }
@@ -1,6 +1,7 @@
 package io.kafbat.ui.service;
 
 import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.emitter.MessageFilters;
 import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.SerdeDescriptionDTO;
 import io.kafbat.ui.model.SerdeParameterDTO;
@@ -9,6 +10,7 @@ import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serde.api.SerdeParameter;
 import io.kafbat.ui.serdes.ClusterSerdes;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.serdes.DeserializerCircuit;
 import io.kafbat.ui.serdes.ProducerRecordCreator;
 import io.kafbat.ui.serdes.SerdeInstance;
 import io.kafbat.ui.serdes.SerdesInitializer;
@@ -16,6 +18,7 @@ import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import javax.validation.ValidationException;
@@ -25,16 +28,20 @@ import org.springframework.stereotype.Component;
 /**
  * Class is responsible for managing serdes for kafka clusters.
  * NOTE: Since Serde interface is designed to be blocking it is required that DeserializationService
- * (and all Serde-related code) calls executed within special thread pool (boundedElastic).
+ * (and all Serde-related code) calls executed within special thread pool (see BlockingSchedulers).
  */
 @Component
 public class DeserializationService implements Closeable {
 
   private final Map<String, ClusterSerdes> clusterSerdes = new ConcurrentHashMap<>();
+  private final ClustersProperties.DeserializerCircuitProperties circuitProperties;
 
   public DeserializationService(Environment env,
                                 ClustersStorage clustersStorage,
                                 ClustersProperties clustersProperties) {
+    this.circuitProperties = Optional.ofNullable(clustersProperties.getPolling())
+        .map(ClustersProperties.PollingProperties::getDeserializerCircuit)
+        .orElseGet(ClustersProperties.DeserializerCircuitProperties::new);
     var serdesInitializer = new SerdesInitializer();
     for (int i = 0; i < clustersProperties.getClusters().size(); i++) {
       var clusterProperties = clustersProperties.getClusters().get(i);
@@ -100,14 +107,36 @@ public class DeserializationService implements Closeable {
     );
   }
 
+  /**
+   * Serializes key with specified serde (or with serde suggested for topic's keys serialization).
+   */
+  public byte[] serializeKey(KafkaCluster cluster, String topic, @Nullable String serdeName, String key) {
+    Serde.Serializer serializer = serdeName != null
+        ? getSerializer(cluster, topic, Serde.Target.KEY, serdeName, null)
+        : getSerdesFor(cluster).suggestSerdeForSerialize(topic, Serde.Target.KEY).serializer(topic, Serde.Target.KEY);
+    return serializer.serialize(key);
+  }
+
   public ConsumerRecordDeserializer deserializerFor(KafkaCluster cluster,
                                                     String topic,
                                                     @Nullable String keySerdeName,
                                                     @Nullable String valueSerdeName) {
+    return deserializerFor(cluster, topic, keySerdeName, valueSerdeName, null);
+  }
+
+  /**
+   * Creates deserializer that skips deserialization of records that certainly do not contain
+   * {@code containsStringFilter} (if it is possible to check that on raw record's bytes).
+   */
+  public ConsumerRecordDeserializer deserializerFor(KafkaCluster cluster,
+                                                    String topic,
+                                                    @Nullable String keySerdeName,
+                                                    @Nullable String valueSerdeName,
+                                                    @Nullable String containsStringFilter) {
     var keySerde = getSerdeForDeserialize(cluster, topic, Serde.Target.KEY, keySerdeName);
     var valueSerde = getSerdeForDeserialize(cluster, topic, Serde.Target.VALUE, valueSerdeName);
     var fallbackSerde = getSerdesFor(cluster).getFallbackSerde();
-    return new ConsumerRecordDeserializer(
+    var deserializer = new ConsumerRecordDeserializer(
         keySerde.getName(),
         keySerde.deserializer(topic, Serde.Target.KEY),
         valueSerde.getName(),
@@ -116,6 +145,18 @@ public class DeserializationService implements Closeable {
         fallbackSerde.deserializer(topic, Serde.Target.KEY),
         fallbackSerde.deserializer(topic, Serde.Target.VALUE),
         cluster.getMasking().getMaskerForTopic(topic)
+    ).withCircuits(DeserializerCircuit.create(circuitProperties), DeserializerCircuit.create(circuitProperties));
+    if (containsStringFilter == null) {
+      return deserializer;
+    }
+    // masking can change content, so raw bytes can only be checked if no masks applied
+    var masking = cluster.getMasking();
+    return deserializer.withRawPreFilter(
+        MessageFilters.containsStringRawPreFilter(
+            containsStringFilter,
+            keySerde.deserializesToRawUtf8Text() && !masking.hasMasksFor(topic, Serde.Target.KEY),
+            valueSerde.deserializesToRawUtf8Text() && !masking.hasMasksFor(topic, Serde.Target.VALUE)
+        )
     );
   }
 
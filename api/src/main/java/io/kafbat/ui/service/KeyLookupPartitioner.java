@@ -0,0 +1,68 @@
+package io.kafbat.ui.service;
+
+import io.kafbat.ui.exception.ValidationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Finds partition that records with specified key are produced to. By default, the same murmur2 hashing
+ * that Kafka producer's default partitioner uses for keyed records is applied. Custom producer's
+ * partitioner class can be configured for topics that are produced with it.
+ */
+final class KeyLookupPartitioner {
+
+  private KeyLookupPartitioner() {
+  }
+
+  static int partitionFor(TopicDescription topic,
+                          byte[] keyBytes,
+                          @Nullable String partitionerClass,
+                          Map<String, Object> configs) {
+    if (partitionerClass == null) {
+      return Utils.toPositive(Utils.murmur2(keyBytes)) % topic.partitions().size();
+    }
+    try (Partitioner partitioner = instantiate(partitionerClass)) {
+      partitioner.configure(configs);
+      return partitioner.partition(topic.name(), null, keyBytes, null, null, toClusterMetadata(topic));
+    }
+  }
+
+  private static Partitioner instantiate(String partitionerClass) {
+    try {
+      return Utils.newInstance(partitionerClass, Partitioner.class);
+    } catch (ClassNotFoundException e) {
+      throw new ValidationException("Partitioner class %s not found".formatted(partitionerClass));
+    }
+  }
+
+  // partitioners get topic's partitions info from producer's cluster metadata
+  private static Cluster toClusterMetadata(TopicDescription topic) {
+    List<PartitionInfo> partitions = topic.partitions().stream()
+        .map(p -> toPartitionInfo(topic.name(), p))
+        .toList();
+    List<Node> nodes = topic.partitions().stream()
+        .flatMap(p -> p.replicas().stream())
+        .distinct()
+        .toList();
+    return new Cluster(null, nodes, partitions, Set.of(), Set.of());
+  }
+
+  private static PartitionInfo toPartitionInfo(String topic, TopicPartitionInfo p) {
+    return new PartitionInfo(
+        topic,
+        p.partition(),
+        p.leader(),
+        p.replicas().toArray(Node[]::new),
+        p.isr().toArray(Node[]::new)
+    );
+  }
+}
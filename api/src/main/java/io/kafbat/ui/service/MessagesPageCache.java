@@ -0,0 +1,182 @@
+package io.kafbat.ui.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties.PageCacheProperties;
+import io.kafbat.ui.emitter.Cursor;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.MessagesPageScope;
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageNextPageCursorDTO;
+import io.kafbat.ui.model.TopicMessagePhaseDTO;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Memory-bounded cache of deserialized (and masked) messages pages, so users flipping between the same pages
+ * do not re-poll and re-deserialize them. Only pages that can't change are cached: forward page that was
+ * stopped before topic's end offsets (it has next page), or backward page that was started from next page
+ * cursor's offsets (that are always below end offsets). Retention and compaction are handled by entries' ttl.
+ * <p>
+ * Pages are keyed by requested position, so first page of seek modes that are resolved to offsets on polling
+ * (like EARLIEST, or FROM_TIMESTAMP) can be stale until ttl passes. That's why cache is disabled by default.
+ */
+public class MessagesPageCache {
+
+  // rough per-message overhead of DTO objects, added to its strings' lengths
+  private static final int MESSAGE_OVERHEAD_BYTES = 256;
+
+  record PageKey(MessagesPageScope scope, ConsumerPosition position, int limit) {
+  }
+
+  record CachedPage(List<TopicMessageEventDTO> messages,
+                    @Nullable Cursor nextPageCursor,
+                    TopicMessageConsumingDTO consuming,
+                    int weight) {
+  }
+
+  @Nullable
+  private final Cache<PageKey, CachedPage> cache; // null if caching is disabled
+  private final PollingCursorsStorage cursorsStorage;
+
+  MessagesPageCache(PageCacheProperties properties, PollingCursorsStorage cursorsStorage) {
+    this.cursorsStorage = cursorsStorage;
+    this.cache = properties.isEnabled() ? createCache(properties) : null;
+    if (cache != null) {
+      ApplicationMetrics.meterMessagesPageCache(this);
+    }
+  }
+
+  private static Cache<PageKey, CachedPage> createCache(PageCacheProperties properties) {
+    return Caffeine.newBuilder()
+        .maximumWeight(properties.getMaxWeightBytes())
+        .<PageKey, CachedPage>weigher((_, page) -> page.weight())
+        .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns cached page for the key, or loads it with the loader (caching it if it is immutable).
+   *
+   * @param nextPage true if page is loaded by next page cursor
+   */
+  Flux<TopicMessageEventDTO> cached(PageKey key, boolean nextPage, Supplier<Flux<TopicMessageEventDTO>> loader) {
+    if (cache == null || (!isForward(key.position()) && !nextPage)) {
+      return loader.get();
+    }
+    return Flux.defer(() -> {
+      CachedPage page = cache.getIfPresent(key);
+      return page != null ? replay(page) : caching(key, loader.get());
+    });
+  }
+
+  private Flux<TopicMessageEventDTO> caching(PageKey key, Flux<TopicMessageEventDTO> events) {
+    List<TopicMessageEventDTO> messages = new ArrayList<>();
+    return events.doOnNext(event -> {
+      switch (event.getType()) {
+        case MESSAGE -> messages.add(event);
+        case DONE -> store(key, messages, event);
+        default -> {
+          // phases and consuming stats are not replayed
+        }
+      }
+    });
+  }
+
+  private void store(PageKey key, List<TopicMessageEventDTO> messages, TopicMessageEventDTO done) {
+    Cursor nextPageCursor = null;
+    if (done.getCursor() != null) {
+      nextPageCursor = cursorsStorage.getCursor(done.getCursor().getId()).orElse(null);
+      if (nextPageCursor == null) {
+        return;
+      }
+    }
+    // forward page without next page reached topic's end, new messages can be appended to it
+    if (isForward(key.position()) && nextPageCursor == null) {
+      return;
+    }
+    cache.put(key, new CachedPage(List.copyOf(messages), nextPageCursor, done.getConsuming(), weigh(messages)));
+  }
+
+  private Flux<TopicMessageEventDTO> replay(CachedPage page) {
+    return Flux.concat(
+        Flux.just(phase("Page taken from cache")),
+        Flux.fromIterable(page.messages()),
+        Flux.defer(() -> Flux.just(
+            new TopicMessageEventDTO()
+                .type(TopicMessageEventDTO.TypeEnum.DONE)
+                .cursor(page.nextPageCursor() != null
+                    // cursors are registered on each replay, since previous registration could be evicted
+                    ? new TopicMessageNextPageCursorDTO().id(cursorsStorage.register(page.nextPageCursor()))
+                    : null)
+                .consuming(page.consuming())
+        ))
+    );
+  }
+
+  private static TopicMessageEventDTO phase(String name) {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.PHASE)
+        .phase(new TopicMessagePhaseDTO().name(name));
+  }
+
+  private static boolean isForward(ConsumerPosition position) {
+    return switch (position.pollingMode()) {
+      case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> true;
+      default -> false;
+    };
+  }
+
+  @VisibleForTesting
+  static int weigh(List<TopicMessageEventDTO> messages) {
+    long weight = 0;
+    for (TopicMessageEventDTO event : messages) {
+      weight += weigh(event.getMessage());
+    }
+    return (int) Math.min(Integer.MAX_VALUE, weight);
+  }
+
+  // estimated heap size of message, also used to bound search jobs' results
+  public static long weigh(TopicMessageDTO msg) {
+    long weight = MESSAGE_OVERHEAD_BYTES + length(msg.getKey()) + length(msg.getValue());
+    if (msg.getHeaders() != null) {
+      for (var header : msg.getHeaders().entrySet()) {
+        weight += length(header.getKey()) + length(header.getValue());
+      }
+    }
+    return weight;
+  }
+
+  private static int length(@Nullable String str) {
+    return str == null ? 0 : str.length();
+  }
+
+  public long hitCount() {
+    return cache == null ? 0 : cache.stats().hitCount();
+  }
+
+  public long missCount() {
+    return cache == null ? 0 : cache.stats().missCount();
+  }
+
+  public double hitRatio() {
+    return cache == null ? 0 : cache.stats().hitRate();
+  }
+
+  public long evictionCount() {
+    return cache == null ? 0 : cache.stats().evictionCount();
+  }
+
+  public long weightedSize() {
+    return cache == null ? 0 : cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+  }
+}
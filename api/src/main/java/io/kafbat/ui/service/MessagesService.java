@@ -1,21 +1,26 @@
 package io.kafbat.ui.service;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.Hashing;
-import com.google.common.util.concurrent.RateLimiter;
 import io.kafbat.ui.config.ClustersProperties;
 import io.kafbat.ui.emitter.BackwardEmitter;
 import io.kafbat.ui.emitter.Cursor;
+import io.kafbat.ui.emitter.FilterPushdown;
 import io.kafbat.ui.emitter.ForwardEmitter;
+import io.kafbat.ui.emitter.MessageEventsBatching;
 import io.kafbat.ui.emitter.MessageFilters;
+import io.kafbat.ui.emitter.SamplingEmitter;
+import io.kafbat.ui.emitter.TailCoalescing;
 import io.kafbat.ui.emitter.TailingEmitter;
 import io.kafbat.ui.exception.TopicNotFoundException;
 import io.kafbat.ui.exception.ValidationException;
 import io.kafbat.ui.model.ConsumerPosition;
 import io.kafbat.ui.model.CreateTopicMessageDTO;
 import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.MessagesPageScope;
 import io.kafbat.ui.model.PollingModeDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionDTO;
 import io.kafbat.ui.model.SmartFilterTestExecutionResultDTO;
@@ -23,18 +28,24 @@ import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.model.TopicMessageEventDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
 import io.kafbat.ui.serdes.ProducerRecordCreator;
+import io.kafbat.ui.util.BlockingSchedulers;
 import io.kafbat.ui.util.KafkaClientSslPropertiesUtil;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -46,11 +57,12 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.utils.Bytes;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Service
 @Slf4j
@@ -61,20 +73,28 @@ public class MessagesService {
   private static final int DEFAULT_MAX_PAGE_SIZE = 500;
   private static final int DEFAULT_PAGE_SIZE = 100;
 
-  // limiting UI messages rate to 20/sec in tailing mode
-  private static final int TAILING_UI_MESSAGE_THROTTLE_RATE = 20;
+  // limiting UI messages rate to 50/sec in tailing mode (latest messages of each second are sent)
+  private static final Duration TAILING_UI_THROTTLE_INTERVAL = Duration.ofSeconds(1);
+  private static final int TAILING_UI_MAX_MESSAGES_PER_INTERVAL = 50;
 
   private final AdminClientService adminClientService;
   private final DeserializationService deserializationService;
   private final ConsumerGroupService consumerGroupService;
   private final int maxPageSize;
   private final int defaultPageSize;
+  private final ClustersProperties.EventsBatchingProperties eventsBatching;
 
-  private final Cache<String, Predicate<TopicMessageDTO>> registeredFilters = CacheBuilder.newBuilder()
+  private record RegisteredFilter(Predicate<TopicMessageDTO> predicate, FilterPushdown pushdown) {
+  }
+
+  private final Cache<String, RegisteredFilter> registeredFilters = CacheBuilder.newBuilder()
       .maximumSize(PollingCursorsStorage.MAX_SIZE)
       .build();
 
-  private final PollingCursorsStorage cursorsStorage = new PollingCursorsStorage();
+  private final PollingCursorsStorage cursorsStorage;
+  private final SharedTailingHubs tailingHubs;
+  private final PollingAdmissionControl admissionControl;
+  private final MessagesPageCache pagesCache;
 
   public MessagesService(AdminClientService adminClientService,
                          DeserializationService deserializationService,
@@ -90,6 +110,21 @@ public class MessagesService {
         .orElse(DEFAULT_MAX_PAGE_SIZE);
     this.defaultPageSize = Optional.ofNullable(pollingProps.getDefaultPageSize())
         .orElse(DEFAULT_PAGE_SIZE);
+    this.eventsBatching = Optional.ofNullable(pollingProps.getEventsBatching())
+        .orElseGet(ClustersProperties.EventsBatchingProperties::new);
+    this.cursorsStorage = new PollingCursorsStorage(
+        Optional.ofNullable(pollingProps.getStickySessions())
+            .orElseGet(ClustersProperties.StickySessionsProperties::new));
+    this.tailingHubs = new SharedTailingHubs(
+        Optional.ofNullable(pollingProps.getSharedTailing())
+            .orElseGet(ClustersProperties.SharedTailingProperties::new));
+    this.admissionControl = new PollingAdmissionControl(
+        Optional.ofNullable(pollingProps.getAdmission())
+            .orElseGet(ClustersProperties.AdmissionProperties::new));
+    this.pagesCache = new MessagesPageCache(
+        Optional.ofNullable(pollingProps.getPageCache())
+            .orElseGet(ClustersProperties.PageCacheProperties::new),
+        cursorsStorage);
   }
 
   private Mono<TopicDescription> withExistingTopic(KafkaCluster cluster, String topicName) {
@@ -156,7 +191,7 @@ public class MessagesService {
   public Mono<RecordMetadata> sendMessage(KafkaCluster cluster, String topic,
                                           CreateTopicMessageDTO msg) {
     return withExistingTopic(cluster, topic)
-        .publishOn(Schedulers.boundedElastic())
+        .publishOn(BlockingSchedulers.boundedElastic())
         .flatMap(desc -> sendMessageImpl(cluster, desc, msg));
   }
 
@@ -225,16 +260,110 @@ public class MessagesService {
                                                  @Nullable Integer limit,
                                                  @Nullable String keySerde,
                                                  @Nullable String valueSerde) {
+    return loadMessages(
+        cluster, topic, consumerPosition, containsStringFilter, filterId, limit, keySerde, valueSerde, null);
+  }
+
+  public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster,
+                                                 String topic,
+                                                 ConsumerPosition consumerPosition,
+                                                 @Nullable String containsStringFilter,
+                                                 @Nullable String filterId,
+                                                 @Nullable Integer limit,
+                                                 @Nullable String keySerde,
+                                                 @Nullable String valueSerde,
+                                                 @Nullable String lookupKey) {
+    if (consumerPosition.pollingMode() == PollingModeDTO.TAILING && tailingHubs.isEnabled()) {
+      return loadSharedTail(
+          cluster, topic, consumerPosition, getMsgFilter(containsStringFilter, filterId), keySerde, valueSerde);
+    }
+    var deserializer =
+        deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde, containsStringFilter);
+    var filterPushdown = getFilterPushdown(filterId);
+    BiFunction<ConsumerPosition, TopicDescription, ConsumerPosition> positionNarrowing =
+        (position, td) -> filterPushdown.apply(position, partitions(td));
+    if (consumerPosition.pollingMode() == PollingModeDTO.KEY_LOOKUP) {
+      // key serialization can be blocking (schema registry calls), so it is done lazily in polling chain,
+      // when position is narrowed (before any record is pre-filtered)
+      Supplier<Bytes> lookupKeyBytes = Suppliers.memoize(() -> serializeLookupKey(cluster, topic, keySerde, lookupKey));
+      // only records with exactly the same key bytes are deserialized
+      deserializer = deserializer.withRawPreFilter(rec -> lookupKeyBytes.get().equals(rec.key()));
+      positionNarrowing = (position, td) -> filterPushdown.apply(
+          keyOwningPartitionPosition(cluster, position, td, lookupKeyBytes.get().get()), partitions(td));
+    }
     return loadMessages(
         cluster,
         topic,
-        deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde),
+        deserializer,
         consumerPosition,
         getMsgFilter(containsStringFilter, filterId),
-        fixPageSize(limit)
+        positionNarrowing,
+        fixPageSize(limit),
+        null,
+        new MessagesPageScope(
+            cluster.getName(), topic, keySerde, valueSerde, containsStringFilter, filterId, lookupKey)
     );
   }
 
+  // tailing consumer is shared between all viewers of the topic, filtering is done for each of them
+  private Flux<TopicMessageEventDTO> loadSharedTail(KafkaCluster cluster,
+                                                    String topic,
+                                                    ConsumerPosition consumerPosition,
+                                                    Predicate<TopicMessageDTO> filter,
+                                                    @Nullable String keySerde,
+                                                    @Nullable String valueSerde) {
+    Set<Integer> partitions = consumerPosition.partitions().stream()
+        .map(TopicPartition::partition)
+        .collect(Collectors.toSet());
+    Predicate<TopicMessageDTO> subscriberFilter = partitions.isEmpty()
+        ? filter
+        : filter.and(m -> partitions.contains(m.getPartition()));
+    var hubKey = new SharedTailingHubs.HubKey(cluster.getName(), topic, keySerde, valueSerde);
+    return withExistingTopic(cluster, topic)
+        .flux()
+        .flatMap(_ -> tailingHubs.subscribe(
+            hubKey,
+            () -> Flux.create(
+                new TailingEmitter(
+                    () -> consumerGroupService.leaseConsumer(cluster, null),
+                    new ConsumerPosition(PollingModeDTO.TAILING, topic, List.of(), null, null),
+                    deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde),
+                    MessageFilters.noop(),
+                    cluster.getPollingSettings()
+                )
+            ),
+            subscriberFilter
+        ))
+        .transform(throttleUiPublish(PollingModeDTO.TAILING));
+  }
+
+  private Bytes serializeLookupKey(KafkaCluster cluster,
+                                   String topic,
+                                   @Nullable String keySerde,
+                                   @Nullable String lookupKey) {
+    if (lookupKey == null) {
+      throw new ValidationException("key not provided for " + PollingModeDTO.KEY_LOOKUP);
+    }
+    var keyBytes = deserializationService.serializeKey(cluster, topic, keySerde, lookupKey);
+    if (keyBytes == null) {
+      throw new ValidationException("Key can't be serialized to null");
+    }
+    return new Bytes(keyBytes);
+  }
+
+  // key lookup only polls partition that key's records are produced to
+  private static ConsumerPosition keyOwningPartitionPosition(KafkaCluster cluster,
+                                                             ConsumerPosition position,
+                                                             TopicDescription td,
+                                                             byte[] keyBytes) {
+    Map<String, Object> partitionerConfigs = new HashMap<>();
+    cluster.getProperties().forEach((k, v) -> partitionerConfigs.put(k.toString(), v));
+    cluster.getProducerProperties().forEach((k, v) -> partitionerConfigs.put(k.toString(), v));
+    int partition = KeyLookupPartitioner.partitionFor(
+        td, keyBytes, cluster.getOriginalProperties().getKeyLookupPartitioner(), partitionerConfigs);
+    return position.withBounds(List.of(new TopicPartition(position.topic(), partition)), position.bounds());
+  }
+
   public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster, String topic, String cursorId) {
     Cursor cursor = cursorsStorage.getCursor(cursorId)
         .orElseThrow(() -> new ValidationException("Next page cursor not found. Maybe it was evicted from cache."));
@@ -244,7 +373,10 @@ public class MessagesService {
         cursor.deserializer(),
         cursor.consumerPosition(),
         cursor.filter(),
-        fixPageSize(cursor.limit())
+        (position, td) -> position, // cursor's position is already narrowed
+        fixPageSize(cursor.limit()),
+        cursorId,
+        cursor.pageScope()
     );
   }
 
@@ -253,53 +385,102 @@ public class MessagesService {
                                                   ConsumerRecordDeserializer deserializer,
                                                   ConsumerPosition consumerPosition,
                                                   Predicate<TopicMessageDTO> filter,
-                                                  int limit) {
+                                                  BiFunction<ConsumerPosition, TopicDescription, ConsumerPosition>
+                                                      positionNarrowing,
+                                                  int limit,
+                                                  @Nullable String resumedCursorId,
+                                                  @Nullable MessagesPageScope pageScope) {
     return withExistingTopic(cluster, topic)
         .flux()
-        .publishOn(Schedulers.boundedElastic())
-        .flatMap(td -> loadMessagesImpl(cluster, deserializer, consumerPosition, filter, limit));
+        .publishOn(BlockingSchedulers.boundedElastic())
+        .flatMap(td -> {
+          var position = positionNarrowing.apply(consumerPosition, td);
+          Supplier<Flux<TopicMessageEventDTO>> loader = () -> admitted(
+              cluster,
+              position.pollingMode(),
+              loadMessagesImpl(cluster, deserializer, position, filter, limit, resumedCursorId, pageScope)
+          );
+          return pageScope == null
+              ? loader.get()
+              : pagesCache.cached(
+                  new MessagesPageCache.PageKey(pageScope, position, limit), resumedCursorId != null, loader);
+        });
+  }
+
+  private Flux<TopicMessageEventDTO> admitted(KafkaCluster cluster,
+                                              PollingModeDTO pollingMode,
+                                              Flux<TopicMessageEventDTO> messages) {
+    // tailing is not limited, since it is long-running by nature (its polls are still bound by bytes budget)
+    return pollingMode == PollingModeDTO.TAILING
+        ? messages
+        : admissionControl.admit(cluster, messages);
+  }
+
+  private static List<Integer> partitions(TopicDescription td) {
+    return td.partitions().stream().map(TopicPartitionInfo::partition).toList();
   }
 
   private Flux<TopicMessageEventDTO> loadMessagesImpl(KafkaCluster cluster,
                                                       ConsumerRecordDeserializer deserializer,
                                                       ConsumerPosition consumerPosition,
                                                       Predicate<TopicMessageDTO> filter,
-                                                      int limit) {
+                                                      int limit,
+                                                      @Nullable String resumedCursorId,
+                                                      @Nullable MessagesPageScope pageScope) {
+    // sticky session of the previous page (if kept) continues polling with already positioned consumer
+    var resumedSession = Optional.ofNullable(resumedCursorId)
+        .flatMap(id -> cursorsStorage.takeSession(id, cluster.getName(), consumerPosition.topic()))
+        .orElse(null);
     var emitter = switch (consumerPosition.pollingMode()) {
-      case TO_OFFSET, TO_TIMESTAMP, LATEST -> new BackwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster,
-              Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, limit)),
+      case TO_OFFSET, TO_TIMESTAMP, LATEST, KEY_LOOKUP -> new BackwardEmitter(
+          () -> consumerGroupService.leaseConsumer(cluster, limit),
           consumerPosition,
           limit,
           deserializer,
           filter,
           cluster.getPollingSettings(),
-          cursorsStorage.createNewCursor(deserializer, consumerPosition, filter, limit)
+          cursorsStorage.createNewCursor(cluster.getName(), deserializer, consumerPosition, filter, limit, pageScope)
+              .resumeSession(resumedSession)
       );
       case FROM_OFFSET, FROM_TIMESTAMP, EARLIEST -> new ForwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster,
-              Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, limit)),
+          () -> consumerGroupService.leaseConsumer(cluster, limit),
           consumerPosition,
           limit,
           deserializer,
           filter,
           cluster.getPollingSettings(),
-          cursorsStorage.createNewCursor(deserializer, consumerPosition, filter, limit)
+          cursorsStorage.createNewCursor(cluster.getName(), deserializer, consumerPosition, filter, limit, pageScope)
+              .resumeSession(resumedSession)
       );
       case TAILING -> new TailingEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
+          () -> consumerGroupService.leaseConsumer(cluster, null),
           consumerPosition,
           deserializer,
           filter,
           cluster.getPollingSettings()
       );
+      case SAMPLING -> new SamplingEmitter(
+          // not pooled: every sample is a separate seek, so only first batch of each partition is fetched
+          () -> consumerGroupService.createConsumer(
+              cluster, Map.of(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, "1")),
+          consumerPosition,
+          limit,
+          deserializer,
+          filter,
+          cluster.getPollingSettings()
+      );
     };
     return Flux.create(emitter)
-        .map(throttleUiPublish(consumerPosition.pollingMode()));
+        .transform(throttleUiPublish(consumerPosition.pollingMode()));
   }
 
-  private Predicate<TopicMessageDTO> getMsgFilter(@Nullable String containsStrFilter,
-                                                  @Nullable String smartFilterId) {
+  // for clients that support BATCH events, per-event stream is kept for older ones
+  public Flux<TopicMessageEventDTO> batchEvents(Flux<TopicMessageEventDTO> events) {
+    return MessageEventsBatching.batch(events, eventsBatching);
+  }
+
+  public Predicate<TopicMessageDTO> getMsgFilter(@Nullable String containsStrFilter,
+                                                 @Nullable String smartFilterId) {
     Predicate<TopicMessageDTO> messageFilter = MessageFilters.noop();
     if (containsStrFilter != null) {
       messageFilter = messageFilter.and(MessageFilters.containsStringFilter(containsStrFilter));
@@ -309,22 +490,27 @@ public class MessagesService {
       if (registered == null) {
         throw new ValidationException("No filter was registered with id " + smartFilterId);
       }
-      messageFilter = messageFilter.and(registered);
+      messageFilter = messageFilter.and(registered.predicate());
     }
     return messageFilter;
   }
 
-  private <T> UnaryOperator<T> throttleUiPublish(PollingModeDTO pollingMode) {
+  // smart filter's conditions that can be applied to consumer position before polling
+  public FilterPushdown getFilterPushdown(@Nullable String smartFilterId) {
+    return Optional.ofNullable(smartFilterId)
+        .map(registeredFilters::getIfPresent)
+        .map(RegisteredFilter::pushdown)
+        .orElse(FilterPushdown.NONE);
+  }
+
+  private Function<Flux<TopicMessageEventDTO>, Flux<TopicMessageEventDTO>> throttleUiPublish(
+      PollingModeDTO pollingMode) {
     if (pollingMode == PollingModeDTO.TAILING) {
-      RateLimiter rateLimiter = RateLimiter.create(TAILING_UI_MESSAGE_THROTTLE_RATE);
-      return m -> {
-        rateLimiter.acquire(1);
-        return m;
-      };
+      return TailCoalescing.coalescing(TAILING_UI_THROTTLE_INTERVAL, TAILING_UI_MAX_MESSAGES_PER_INTERVAL);
     }
     // there is no need to throttle UI production rate for non-tailing modes, since max number of produced
     // messages is limited for them (with page size)
-    return UnaryOperator.identity();
+    return Function.identity();
   }
 
   private int fixPageSize(@Nullable Integer pageSize) {
@@ -340,7 +526,10 @@ public class MessagesService {
         .toString()
         .substring(0, 8);
     if (registeredFilters.getIfPresent(filterId) == null) {
-      registeredFilters.put(filterId, MessageFilters.celScriptFilter(celCode));
+      registeredFilters.put(
+          filterId,
+          new RegisteredFilter(MessageFilters.celScriptFilter(celCode), MessageFilters.celScriptPushdown(celCode))
+      );
     }
     return filterId;
   }
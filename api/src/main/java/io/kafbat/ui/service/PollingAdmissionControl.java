@@ -0,0 +1,189 @@
+package io.kafbat.ui.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties.AdmissionProperties;
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessagePhaseDTO;
+import io.kafbat.ui.util.ApplicationMetrics;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Limits number of concurrently running messages emitters per cluster and per user. Requests above limits
+ * wait in cluster's FIFO queue (client sees "Queued" phase event while waiting), requests above queue's
+ * capacity (if it is limited) are rejected. No limits are applied by default.
+ */
+public class PollingAdmissionControl {
+
+  static final String ANONYMOUS_USER = "anonymous";
+
+  private final AdmissionProperties properties;
+  private final Map<String, ClusterAdmission> clusters = new ConcurrentHashMap<>();
+
+  PollingAdmissionControl(AdmissionProperties properties) {
+    this.properties = properties;
+  }
+
+  Flux<TopicMessageEventDTO> admit(KafkaCluster cluster, Flux<TopicMessageEventDTO> emitter) {
+    var admission = clusters.computeIfAbsent(cluster.getName(), _ -> {
+      var created = new ClusterAdmission(properties);
+      ApplicationMetrics.forCluster(cluster).meterPollingAdmission(created);
+      return created;
+    });
+    return currentUser().flatMapMany(user -> admit(admission, user, emitter));
+  }
+
+  @VisibleForTesting
+  static Flux<TopicMessageEventDTO> admit(ClusterAdmission admission,
+                                          String user,
+                                          Flux<TopicMessageEventDTO> emitter) {
+    return Flux.defer(() -> {
+      Ticket ticket = admission.enter(user);
+      Flux<TopicMessageEventDTO> waiting = ticket.running
+          ? Flux.empty()
+          : Flux.concat(
+              Mono.just(queuedPhase(admission.positionOf(ticket))),
+              ticket.granted.asMono().publishOn(BlockingSchedulers.boundedElastic()).then(Mono.empty())
+          );
+      return Flux.concat(waiting, emitter)
+          .doFinally(_ -> admission.leave(ticket));
+    });
+  }
+
+  private static TopicMessageEventDTO queuedPhase(int position) {
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.PHASE)
+        .phase(new TopicMessagePhaseDTO().name("Queued (position %d)".formatted(position)));
+  }
+
+  private static Mono<String> currentUser() {
+    return ReactiveSecurityContextHolder.getContext()
+        .map(SecurityContext::getAuthentication)
+        .map(Authentication::getName)
+        .defaultIfEmpty(ANONYMOUS_USER);
+  }
+
+  static final class Ticket {
+    private final String user;
+    private final Sinks.Empty<Void> granted = Sinks.empty();
+    private volatile boolean running;
+    private boolean left;
+
+    private Ticket(String user) {
+      this.user = user;
+    }
+  }
+
+  public static class ClusterAdmission {
+
+    private final int maxConcurrent;
+    private final int maxPerUser;
+    private final int maxQueued;
+
+    private final Deque<Ticket> queue = new ArrayDeque<>();
+    private final Map<String, Integer> runningPerUser = new HashMap<>();
+    private int running;
+    private long rejected;
+
+    ClusterAdmission(AdmissionProperties properties) {
+      this.maxConcurrent = properties.getMaxConcurrentPerCluster();
+      this.maxPerUser = properties.getMaxConcurrentPerUser();
+      this.maxQueued = properties.getMaxQueued();
+    }
+
+    Ticket enter(String user) {
+      var ticket = new Ticket(user);
+      synchronized (this) {
+        // queued requests are started as soon as they become eligible, so this can't overtake any of them
+        if (canRun(user)) {
+          start(ticket);
+        } else if (maxQueued > 0 && queue.size() >= maxQueued) {
+          rejected++;
+          throw new ValidationException(
+              "Too many concurrent messages requests, try again later (%d running, %d queued)"
+                  .formatted(running, queue.size()));
+        } else {
+          queue.addLast(ticket);
+          return ticket;
+        }
+      }
+      ticket.granted.tryEmitEmpty();
+      return ticket;
+    }
+
+    void leave(Ticket ticket) {
+      List<Ticket> started = new ArrayList<>();
+      synchronized (this) {
+        if (ticket.left) {
+          return;
+        }
+        ticket.left = true;
+        if (!ticket.running) {
+          queue.remove(ticket);
+          return;
+        }
+        running--;
+        runningPerUser.computeIfPresent(ticket.user, (_, cnt) -> cnt > 1 ? cnt - 1 : null);
+        // first waiting request of each user that is below its limit is started
+        for (var it = queue.iterator(); it.hasNext() && (maxConcurrent <= 0 || running < maxConcurrent); ) {
+          var waiting = it.next();
+          if (canRun(waiting.user)) {
+            it.remove();
+            start(waiting);
+            started.add(waiting);
+          }
+        }
+      }
+      // subscribers are resumed outside the lock
+      started.forEach(t -> t.granted.tryEmitEmpty());
+    }
+
+    private boolean canRun(String user) {
+      return (maxConcurrent <= 0 || running < maxConcurrent)
+          && (maxPerUser <= 0 || runningPerUser.getOrDefault(user, 0) < maxPerUser);
+    }
+
+    private void start(Ticket ticket) {
+      ticket.running = true;
+      running++;
+      runningPerUser.merge(ticket.user, 1, Integer::sum);
+    }
+
+    synchronized int positionOf(Ticket ticket) {
+      int position = 1;
+      for (Ticket t : queue) {
+        if (t == ticket) {
+          return position;
+        }
+        position++;
+      }
+      return 0;
+    }
+
+    public synchronized int runningCount() {
+      return running;
+    }
+
+    public synchronized int queuedCount() {
+      return queue.size();
+    }
+
+    public synchronized long rejectedCount() {
+      return rejected;
+    }
+  }
+}
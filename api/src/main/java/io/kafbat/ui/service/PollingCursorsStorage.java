@@ -1,42 +1,132 @@
 package io.kafbat.ui.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import io.kafbat.ui.config.ClustersProperties.StickySessionsProperties;
 import io.kafbat.ui.emitter.Cursor;
+import io.kafbat.ui.emitter.PollingSession;
 import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.MessagesPageScope;
 import io.kafbat.ui.model.TopicMessageDTO;
 import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.RandomStringUtils;
 
 public class PollingCursorsStorage {
 
   public static final int MAX_SIZE = 10_000;
 
+  private record StoredSession(String clusterName, PollingSession session) {
+  }
+
   private final Cache<String, Cursor> cursorsCache = CacheBuilder.newBuilder()
       .maximumSize(MAX_SIZE)
       .build();
 
+  @Nullable
+  private final StickySessionsProperties stickySessions;
+
+  // cursor id -> session of the page, that created the cursor. Abandoned sessions are closed on expiration.
+  @Nullable
+  private final com.github.benmanes.caffeine.cache.Cache<String, StoredSession> sessionsCache;
+
+  public PollingCursorsStorage() {
+    this(new StickySessionsProperties());
+  }
+
+  public PollingCursorsStorage(StickySessionsProperties stickySessions) {
+    this.stickySessions = stickySessions.isEnabled() ? stickySessions : null;
+    this.sessionsCache = stickySessions.isEnabled() ? createSessionsCache(stickySessions) : null;
+  }
+
+  private static com.github.benmanes.caffeine.cache.Cache<String, StoredSession> createSessionsCache(
+      StickySessionsProperties properties) {
+    return Caffeine.newBuilder()
+        .maximumSize(properties.getMaxSessions())
+        .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+        .scheduler(Scheduler.systemScheduler())
+        .<String, StoredSession>removalListener((id, stored, cause) -> {
+          // explicitly removed sessions were taken by next page's polling
+          if (stored != null && cause != RemovalCause.EXPLICIT) {
+            stored.session().close();
+          }
+        })
+        .build();
+  }
+
   public Cursor.Tracking createNewCursor(ConsumerRecordDeserializer deserializer,
                                          ConsumerPosition originalPosition,
                                          Predicate<TopicMessageDTO> filter,
                                          int limit) {
-    return new Cursor.Tracking(deserializer, originalPosition, filter, limit, this::register);
+    return new Cursor.Tracking(
+        deserializer, originalPosition, filter, limit, (cursor, _) -> register(cursor), null, null);
+  }
+
+  public Cursor.Tracking createNewCursor(String clusterName,
+                                         ConsumerRecordDeserializer deserializer,
+                                         ConsumerPosition originalPosition,
+                                         Predicate<TopicMessageDTO> filter,
+                                         int limit,
+                                         @Nullable MessagesPageScope pageScope) {
+    return new Cursor.Tracking(
+        deserializer,
+        originalPosition,
+        filter,
+        limit,
+        (cursor, session) -> register(clusterName, cursor, session),
+        stickySessions,
+        pageScope
+    );
   }
 
   public Optional<Cursor> getCursor(String id) {
     return Optional.ofNullable(cursorsCache.getIfPresent(id));
   }
 
+  /**
+   * Removes and returns polling session, kept by page that created the cursor. Session can only be taken once.
+   */
+  public Optional<PollingSession> takeSession(String cursorId, String clusterName, String topic) {
+    if (sessionsCache == null) {
+      return Optional.empty();
+    }
+    StoredSession stored = sessionsCache.asMap().remove(cursorId);
+    if (stored == null) {
+      return Optional.empty();
+    }
+    if (!stored.clusterName().equals(clusterName) || !stored.session().topic().equals(topic)) {
+      stored.session().close();
+      return Optional.empty();
+    }
+    return Optional.of(stored.session());
+  }
+
   public String register(Cursor cursor) {
     var id = RandomStringUtils.secure().next(8, true, true);
     cursorsCache.put(id, cursor);
     return id;
   }
 
+  private String register(String clusterName, Cursor cursor, @Nullable PollingSession session) {
+    var id = register(cursor);
+    if (session != null) {
+      if (sessionsCache != null) {
+        sessionsCache.put(id, new StoredSession(clusterName, session));
+      } else {
+        session.close();
+      }
+    }
+    return id;
+  }
+
   @VisibleForTesting
   public Map<String, Cursor> asMap() {
     return cursorsCache.asMap();
@@ -0,0 +1,160 @@
+package io.kafbat.ui.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.config.ClustersProperties.SharedTailingProperties;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Shares tailing consumers between viewers of the same topic: one consumer per (cluster, topic, serdes) feeds
+ * all subscribers, that apply their own filters and rate limiting downstream. Hub is reference counted -
+ * its consumer is closed when the last subscriber leaves. Subscribers are counted under hubs map's lock, so
+ * hub can't be taken from the map by new subscriber while it is being stopped.
+ */
+@Slf4j
+class SharedTailingHubs {
+
+  // runs hubs' polling loops, so subscribers' threads are not blocked by them
+  private static final Scheduler HUBS_SCHEDULER = BlockingSchedulers.newBoundedElastic("shared-tailing-hubs");
+
+  record HubKey(String clusterName, String topic, @Nullable String keySerde, @Nullable String valueSerde) {
+  }
+
+  private final Map<HubKey, Hub> hubs = new ConcurrentHashMap<>();
+  private final SharedTailingProperties properties;
+
+  SharedTailingHubs(SharedTailingProperties properties) {
+    this.properties = properties;
+  }
+
+  boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * Subscribes to the hub for the key, hub is created (with events source from the supplier) if it does not exist.
+   * Slow subscriber can't hold the hub back - its oldest buffered events are dropped when buffer is full.
+   */
+  Flux<TopicMessageEventDTO> subscribe(HubKey key,
+                                       Supplier<Flux<TopicMessageEventDTO>> sourceSupplier,
+                                       Predicate<TopicMessageDTO> messageFilter) {
+    return Flux.defer(() -> {
+          Hub hub = acquire(key, sourceSupplier);
+          return hub.events().doFinally(_ -> release(key, hub));
+        })
+        .onBackpressureBuffer(
+            properties.getSubscriberBufferSize(),
+            dropped -> log.trace("Subscriber's buffer is full, dropping {}", dropped),
+            BufferOverflowStrategy.DROP_OLDEST)
+        .publishOn(BlockingSchedulers.boundedElastic())
+        .filter(event -> event.getType() != TopicMessageEventDTO.TypeEnum.MESSAGE
+            || matches(messageFilter, event.getMessage()));
+  }
+
+  private Hub acquire(HubKey key, Supplier<Flux<TopicMessageEventDTO>> sourceSupplier) {
+    return hubs.compute(key, (k, existing) -> {
+      // terminated hub can still be in the map for a moment, it is replaced by a new one
+      var hub = existing == null || existing.isTerminated() ? new Hub(k, sourceSupplier) : existing;
+      hub.subscribers++;
+      return hub;
+    });
+  }
+
+  private void release(HubKey key, Hub hub) {
+    hubs.compute(key, (k, current) -> {
+      if (--hub.subscribers > 0) {
+        return current;
+      }
+      hub.disconnect();
+      return current == hub ? null : current;
+    });
+  }
+
+  private static boolean matches(Predicate<TopicMessageDTO> filter, TopicMessageDTO message) {
+    try {
+      return filter.test(message);
+    } catch (Exception e) {
+      log.trace("Error applying filter for message {}", message);
+      return false;
+    }
+  }
+
+  @VisibleForTesting
+  int hubsCount() {
+    return hubs.size();
+  }
+
+  // source is subscribed when first subscriber arrives, its terminal signal is passed to late subscribers too
+  private final class Hub {
+
+    private final HubKey key;
+    private final Supplier<Flux<TopicMessageEventDTO>> sourceSupplier;
+    private final Sinks.Many<TopicMessageEventDTO> sink = Sinks.many().multicast().directBestEffort();
+
+    // guarded by hubs map's lock for hub's key
+    private int subscribers;
+
+    private Disposable connection;
+    private boolean disconnected;
+    private volatile boolean terminated;
+
+    Hub(HubKey key, Supplier<Flux<TopicMessageEventDTO>> sourceSupplier) {
+      this.key = key;
+      this.sourceSupplier = sourceSupplier;
+    }
+
+    Flux<TopicMessageEventDTO> events() {
+      return sink.asFlux().doOnSubscribe(_ -> connect());
+    }
+
+    boolean isTerminated() {
+      return terminated;
+    }
+
+    private synchronized void connect() {
+      if (connection != null || disconnected) {
+        return;
+      }
+      log.debug("Starting shared tailing for {}", key);
+      connection = Flux.defer(sourceSupplier)
+          .subscribeOn(HUBS_SCHEDULER)
+          .subscribe(
+              sink::tryEmitNext,
+              th -> {
+                onTerminated();
+                sink.tryEmitError(th);
+              },
+              () -> {
+                onTerminated();
+                sink.tryEmitComplete();
+              });
+    }
+
+    private void onTerminated() {
+      log.debug("Shared tailing for {} finished", key);
+      terminated = true;
+      hubs.remove(key, this);
+    }
+
+    synchronized void disconnect() {
+      log.debug("Stopping shared tailing for {}", key);
+      disconnected = true;
+      terminated = true;
+      if (connection != null) {
+        connection.dispose();
+      }
+    }
+  }
+}
@@ -10,6 +10,7 @@ import io.kafbat.ui.model.KafkaCluster;
 import io.kafbat.ui.model.TopicAnalysisDTO;
 import io.kafbat.ui.service.ConsumerGroupService;
 import io.kafbat.ui.service.TopicsService;
+import io.kafbat.ui.util.BlockingSchedulers;
 import java.io.Closeable;
 import java.time.Duration;
 import java.time.Instant;
@@ -25,7 +26,6 @@ import org.apache.kafka.common.errors.WakeupException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
-import reactor.core.scheduler.Schedulers;
 
 
 @Slf4j
@@ -33,13 +33,7 @@ import reactor.core.scheduler.Schedulers;
 @RequiredArgsConstructor
 public class TopicAnalysisService {
 
-  private static final Scheduler SCHEDULER = Schedulers.newBoundedElastic(
-      Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
-      Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
-      "topic-analysis-tasks",
-      10, //ttl for idle threads (in sec)
-      true //daemon
-  );
+  private static final Scheduler SCHEDULER = BlockingSchedulers.newBoundedElastic("topic-analysis-tasks");
 
   private final AnalysisTasksStore analysisTasksStore = new AnalysisTasksStore();
 
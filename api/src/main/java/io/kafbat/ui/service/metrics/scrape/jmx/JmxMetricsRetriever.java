@@ -2,6 +2,7 @@ package io.kafbat.ui.service.metrics.scrape.jmx;
 
 import io.kafbat.ui.model.MetricsScrapeProperties;
 import io.kafbat.ui.service.metrics.RawMetric;
+import io.kafbat.ui.util.BlockingSchedulers;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,7 +21,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.common.Node;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 
 @Component //need to be a component, since it is closeable
@@ -49,7 +49,7 @@ public class JmxMetricsRetriever implements Closeable {
       return Mono.just(List.of());
     }
     return Mono.fromSupplier(() -> retrieveSync(scrapeProperties, node))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(BlockingSchedulers.boundedElastic());
   }
 
   private boolean isSslJmxEndpoint(MetricsScrapeProperties scrapeProperties) {
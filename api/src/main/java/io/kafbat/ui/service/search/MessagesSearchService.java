@@ -0,0 +1,184 @@
+package io.kafbat.ui.service.search;
+
+import io.kafbat.ui.config.ClustersProperties;
+import io.kafbat.ui.config.ClustersProperties.SearchJobsProperties;
+import io.kafbat.ui.emitter.FilterPushdown;
+import io.kafbat.ui.exception.NotFoundException;
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.model.MessagesSearchJobDTO;
+import io.kafbat.ui.model.MessagesSearchRequestDTO;
+import io.kafbat.ui.model.MessagesSearchResultsDTO;
+import io.kafbat.ui.service.ConsumerGroupService;
+import io.kafbat.ui.service.DeserializationService;
+import io.kafbat.ui.service.MessagesService;
+import io.kafbat.ui.service.TopicsService;
+import io.kafbat.ui.util.BlockingSchedulers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Runs full-topic (or offsets/time range) searches in background. Unlike messages polling,
+ * search is not limited by page size and is not bound to http request: client starts the job,
+ * tracks its progress and reads found messages when (or while) it is running.
+ */
+@Slf4j
+@Component
+public class MessagesSearchService {
+
+  private static final int DEFAULT_PER_PAGE = 100;
+
+  // runs jobs' coordination loops
+  private static final Scheduler JOBS_SCHEDULER = BlockingSchedulers.newBoundedElastic("messages-search-jobs");
+
+  // runs partition groups polling, deserialization and filtering
+  private static final Scheduler WORKERS_SCHEDULER = BlockingSchedulers.newBoundedElastic("messages-search-workers");
+
+  private final MessagesService messagesService;
+  private final DeserializationService deserializationService;
+  private final ConsumerGroupService consumerGroupService;
+  private final TopicsService topicsService;
+  private final SearchJobsProperties properties;
+  private final SearchJobsStore jobsStore;
+
+  public MessagesSearchService(MessagesService messagesService,
+                               DeserializationService deserializationService,
+                               ConsumerGroupService consumerGroupService,
+                               TopicsService topicsService,
+                               ClustersProperties clustersProperties) {
+    this.messagesService = messagesService;
+    this.deserializationService = deserializationService;
+    this.consumerGroupService = consumerGroupService;
+    this.topicsService = topicsService;
+    this.properties = Optional.ofNullable(clustersProperties.getPolling())
+        .map(ClustersProperties.PollingProperties::getSearchJobs)
+        .orElseGet(SearchJobsProperties::new);
+    this.jobsStore = new SearchJobsStore(Duration.ofMillis(properties.getResultsTtlMs()));
+  }
+
+  public Mono<MessagesSearchJobDTO> startSearch(KafkaCluster cluster,
+                                                String topic,
+                                                MessagesSearchRequestDTO request) {
+    return topicsService.getTopicDetails(cluster, topic)
+        .map(_ -> startJob(cluster, topic, request).toDto());
+  }
+
+  private synchronized SearchJob startJob(KafkaCluster cluster, String topic, MessagesSearchRequestDTO request) {
+    var filter = messagesService.getMsgFilter(request.getStringFilter(), request.getSmartFilterId());
+    request = applyPushdown(request, messagesService.getFilterPushdown(request.getSmartFilterId()));
+    if (jobsStore.runningCount() >= properties.getMaxRunningJobs()) {
+      throw new ValidationException(
+          "Too many running search jobs (max %d), try again later".formatted(properties.getMaxRunningJobs()));
+    }
+    var job = new SearchJob(
+        UUID.randomUUID().toString(),
+        cluster.getName(),
+        topic,
+        request,
+        () -> consumerGroupService.createConsumer(
+            cluster,
+            Map.of(
+                ConsumerConfig.RECEIVE_BUFFER_CONFIG, "-1",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "10000"
+            )
+        ),
+        deserializationService.deserializerFor(
+            cluster, topic, request.getKeySerde(), request.getValueSerde(), request.getStringFilter()),
+        filter,
+        WORKERS_SCHEDULER,
+        properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors(),
+        properties.getMaxStoredMessages(),
+        properties.getMaxStoredBytes()
+    );
+    jobsStore.register(job);
+    JOBS_SCHEDULER.schedule(job);
+    return job;
+  }
+
+  // narrows scanned ranges with smart filter's partition, offset and timestamp conditions (in request's copy)
+  private static MessagesSearchRequestDTO applyPushdown(MessagesSearchRequestDTO original, FilterPushdown pushdown) {
+    var request = copy(original);
+    pushdown.partitions().ifPresent(filterPartitions -> {
+      List<Integer> narrowed = request.getPartitions() == null || request.getPartitions().isEmpty()
+          ? filterPartitions.stream().sorted().toList()
+          : request.getPartitions().stream().filter(filterPartitions::contains).toList();
+      // if nothing left, filter will reject all messages anyway
+      if (!narrowed.isEmpty()) {
+        request.setPartitions(narrowed);
+      }
+    });
+    pushdown.offsetsBounds().ifPresent(bounds -> {
+      if (bounds.fromOffset() != null) {
+        request.setFromOffset(max(request.getFromOffset(), bounds.fromOffset()));
+      }
+      if (bounds.toOffset() != null) {
+        // request's toOffset is inclusive
+        long toOffset = bounds.toOffset() - 1;
+        request.setToOffset(request.getToOffset() == null ? toOffset : Math.min(request.getToOffset(), toOffset));
+      }
+      if (bounds.fromTimestamp() != null) {
+        request.setFromTimestamp(max(request.getFromTimestamp(), bounds.fromTimestamp()));
+      }
+    });
+    return request;
+  }
+
+  private static MessagesSearchRequestDTO copy(MessagesSearchRequestDTO request) {
+    return new MessagesSearchRequestDTO()
+        .partitions(request.getPartitions() == null ? null : List.copyOf(request.getPartitions()))
+        .fromOffset(request.getFromOffset())
+        .toOffset(request.getToOffset())
+        .fromTimestamp(request.getFromTimestamp())
+        .toTimestamp(request.getToTimestamp())
+        .stringFilter(request.getStringFilter())
+        .smartFilterId(request.getSmartFilterId())
+        .keySerde(request.getKeySerde())
+        .valueSerde(request.getValueSerde());
+  }
+
+  private static long max(@Nullable Long current, long bound) {
+    return current == null ? bound : Math.max(current, bound);
+  }
+
+  public Optional<MessagesSearchJobDTO> getJob(KafkaCluster cluster, String topic, String jobId) {
+    return findJob(cluster, topic, jobId).map(SearchJob::toDto);
+  }
+
+  public void cancel(KafkaCluster cluster, String topic, String jobId) {
+    findJob(cluster, topic, jobId)
+        .orElseThrow(() -> new NotFoundException("Search job not found"))
+        .cancel();
+  }
+
+  public Optional<MessagesSearchResultsDTO> getResults(KafkaCluster cluster,
+                                                       String topic,
+                                                       String jobId,
+                                                       Integer page,
+                                                       Integer perPage) {
+    int pageSize = perPage == null || perPage <= 0 ? DEFAULT_PER_PAGE : perPage;
+    int pageNum = page == null || page <= 0 ? 1 : page;
+    return findJob(cluster, topic, jobId)
+        .map(SearchJob::results)
+        .map(results -> new MessagesSearchResultsDTO()
+            .totalCount(results.size())
+            .pageCount((results.size() + pageSize - 1) / pageSize)
+            .messages(results.stream()
+                .skip((long) (pageNum - 1) * pageSize)
+                .limit(pageSize)
+                .toList()));
+  }
+
+  private Optional<SearchJob> findJob(KafkaCluster cluster, String topic, String jobId) {
+    return jobsStore.get(jobId)
+        .filter(j -> j.clusterName.equals(cluster.getName()) && j.topic.equals(topic));
+  }
+}
@@ -0,0 +1,357 @@
+package io.kafbat.ui.service.search;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import io.kafbat.ui.emitter.EnhancedConsumer;
+import io.kafbat.ui.emitter.PolledRecords;
+import io.kafbat.ui.model.MessagesSearchJobDTO;
+import io.kafbat.ui.model.MessagesSearchRequestDTO;
+import io.kafbat.ui.model.MessagesSearchStateDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.service.MessagesPageCache;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.utils.Bytes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Scans topic (or its offsets/time range) and stores messages that match the filter. Partitions are split
+ * into groups with (approximately) equal offsets ranges, each group is polled, deserialized and filtered
+ * by its own consumer in parallel.
+ */
+@Slf4j
+class SearchJob implements Runnable {
+
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(3);
+
+  record OffsetsRange(/*inclusive*/ long from, /*exclusive*/ long to) {
+    long size() {
+      return to - from;
+    }
+  }
+
+  final String id;
+  final String clusterName;
+  final String topic;
+
+  private final MessagesSearchRequestDTO request;
+  private final Supplier<EnhancedConsumer> consumerFactory;
+  private final ConsumerRecordDeserializer deserializer;
+  private final Predicate<TopicMessageDTO> filter;
+  private final Scheduler workersScheduler;
+  private final int parallelism;
+  private final int maxStoredMessages;
+  private final long maxStoredBytes;
+
+  private final Instant startedAt = Instant.now();
+  private volatile Instant finishedAt;
+  private volatile MessagesSearchStateDTO state = MessagesSearchStateDTO.RUNNING;
+  private volatile String error;
+  private volatile boolean cancelled;
+
+  private volatile long totalOffsets;
+  private final LongAdder offsetsProcessed = new LongAdder();
+  private final LongAdder msgsScanned = new LongAdder();
+  private final LongAdder bytesScanned = new LongAdder();
+  private final LongAdder matches = new LongAdder();
+  private final LongAdder filterApplyErrors = new LongAdder();
+
+  private final AtomicInteger storedCount = new AtomicInteger();
+  private final AtomicLong storedBytes = new AtomicLong();
+  private volatile boolean resultsTruncated;
+  private final Queue<TopicMessageDTO> found = new ConcurrentLinkedQueue<>();
+
+  // used to wake up polling consumers on cancellation
+  private final Set<EnhancedConsumer> activeConsumers = ConcurrentHashMap.newKeySet();
+
+  SearchJob(String id,
+            String clusterName,
+            String topic,
+            MessagesSearchRequestDTO request,
+            Supplier<EnhancedConsumer> consumerFactory,
+            ConsumerRecordDeserializer deserializer,
+            Predicate<TopicMessageDTO> filter,
+            Scheduler workersScheduler,
+            int parallelism,
+            int maxStoredMessages,
+            long maxStoredBytes) {
+    this.id = id;
+    this.clusterName = clusterName;
+    this.topic = topic;
+    this.request = request;
+    this.consumerFactory = consumerFactory;
+    this.deserializer = deserializer;
+    this.filter = filter;
+    this.workersScheduler = workersScheduler;
+    this.parallelism = parallelism;
+    this.maxStoredMessages = maxStoredMessages;
+    this.maxStoredBytes = maxStoredBytes;
+  }
+
+  @Override
+  public void run() {
+    try {
+      log.info("Starting messages search {} on {}/{}", id, clusterName, topic);
+      Map<TopicPartition, OffsetsRange> ranges;
+      try (EnhancedConsumer consumer = registerConsumer(consumerFactory.get())) {
+        ranges = offsetsRanges(consumer, topic, request);
+        activeConsumers.remove(consumer);
+      }
+      totalOffsets = ranges.values().stream().mapToLong(OffsetsRange::size).sum();
+      var groups = splitIntoGroups(ranges, parallelism);
+      Flux.fromIterable(groups)
+          .flatMap(g -> Mono.fromRunnable(() -> scan(g)).subscribeOn(workersScheduler), groups.size() + 1)
+          .then()
+          .block();
+      finish(cancelled ? MessagesSearchStateDTO.CANCELLED : MessagesSearchStateDTO.COMPLETED, null);
+      log.info("Messages search {} finished, {} matches found", id, matches.sum());
+    } catch (WakeupException | InterruptException cancelException) {
+      log.info("Messages search {} stopped", id);
+      finish(MessagesSearchStateDTO.CANCELLED, null);
+    } catch (Throwable th) {
+      if (cancelled) {
+        finish(MessagesSearchStateDTO.CANCELLED, null);
+      } else {
+        log.error("Error during messages search {}", id, th);
+        finish(MessagesSearchStateDTO.FAILED, th);
+      }
+    }
+  }
+
+  void cancel() {
+    cancelled = true;
+    activeConsumers.forEach(EnhancedConsumer::wakeup);
+  }
+
+  boolean isRunning() {
+    return state == MessagesSearchStateDTO.RUNNING;
+  }
+
+  Optional<Instant> finishedAt() {
+    return Optional.ofNullable(finishedAt);
+  }
+
+  private void finish(MessagesSearchStateDTO finalState, @Nullable Throwable th) {
+    error = th == null ? null : Throwables.getStackTraceAsString(th);
+    finishedAt = Instant.now();
+    state = finalState;
+  }
+
+  private EnhancedConsumer registerConsumer(EnhancedConsumer consumer) {
+    activeConsumers.add(consumer);
+    if (cancelled) {
+      consumer.wakeup();
+    }
+    return consumer;
+  }
+
+  private void scan(Map<TopicPartition, OffsetsRange> group) {
+    try (EnhancedConsumer consumer = registerConsumer(consumerFactory.get())) {
+      try {
+        consumer.assign(group.keySet());
+        group.forEach((tp, range) -> consumer.seek(tp, range.from()));
+        Map<TopicPartition, Long> positions = new HashMap<>();
+        group.forEach((tp, range) -> positions.put(tp, range.from()));
+        Set<TopicPartition> done = new HashSet<>();
+        while (!cancelled && done.size() < group.size()) {
+          PolledRecords polled = consumer.pollEnhanced(POLL_TIMEOUT);
+          bytesScanned.add(polled.bytes());
+          for (TopicPartition tp : polled.partitions()) {
+            long to = group.get(tp).to();
+            for (ConsumerRecord<Bytes, Bytes> rec : polled.records(tp)) {
+              if (rec.offset() >= to) {
+                break;
+              }
+              process(rec);
+            }
+          }
+          for (var e : group.entrySet()) {
+            TopicPartition tp = e.getKey();
+            if (!done.contains(tp)) {
+              long position = Math.min(consumer.position(tp), e.getValue().to());
+              offsetsProcessed.add(position - positions.put(tp, position));
+              if (position >= e.getValue().to()) {
+                done.add(tp);
+                consumer.pause(List.of(tp));
+              }
+            }
+          }
+        }
+      } finally {
+        activeConsumers.remove(consumer);
+      }
+    }
+  }
+
+  private void process(ConsumerRecord<Bytes, Bytes> rec) {
+    msgsScanned.increment();
+    if (!deserializer.passesRawPreFilter(rec)) {
+      return;
+    }
+    TopicMessageDTO msg = deserializer.deserialize(rec);
+    boolean matched;
+    try {
+      matched = filter.test(msg);
+    } catch (Exception e) {
+      filterApplyErrors.increment();
+      log.trace("Error applying filter for message {}", msg, e);
+      return;
+    }
+    if (matched) {
+      matches.increment();
+      store(msg);
+    }
+  }
+
+  // once any of the limits is reached, no more messages are stored
+  private void store(TopicMessageDTO msg) {
+    if (storedCount.incrementAndGet() <= maxStoredMessages
+        && storedBytes.addAndGet(MessagesPageCache.weigh(msg)) <= maxStoredBytes) {
+      found.add(msg);
+    } else {
+      resultsTruncated = true;
+    }
+  }
+
+  // stored messages, sorted by partition & offset
+  List<TopicMessageDTO> results() {
+    List<TopicMessageDTO> results = new ArrayList<>(found);
+    results.sort(
+        Comparator.comparing(TopicMessageDTO::getPartition)
+            .thenComparing(TopicMessageDTO::getOffset));
+    return results;
+  }
+
+  MessagesSearchJobDTO toDto() {
+    long scanned = msgsScanned.sum();
+    long elapsedMs = Duration.between(startedAt, finishedAt == null ? Instant.now() : finishedAt).toMillis();
+    long total = totalOffsets;
+    double completeness = state == MessagesSearchStateDTO.COMPLETED || (total == 0 && finishedAt != null)
+        ? 100.0
+        : total == 0 ? 0.0 : Math.min(100.0, (double) offsetsProcessed.sum() / total * 100);
+    return new MessagesSearchJobDTO()
+        .id(id)
+        .state(state)
+        .startedAt(startedAt.toEpochMilli())
+        .finishedAt(finishedAt == null ? null : finishedAt.toEpochMilli())
+        .completenessPercent(BigDecimal.valueOf(completeness))
+        .msgsScanned(scanned)
+        .bytesScanned(bytesScanned.sum())
+        .msgsPerSecond(elapsedMs == 0 ? 0 : scanned * 1000 / elapsedMs)
+        .matchesFound(matches.sum())
+        .resultsTruncated(resultsTruncated)
+        .filterApplyErrors(filterApplyErrors.sum())
+        .error(error);
+  }
+
+  /**
+   * Calculates offsets ranges to scan. Offset and timestamp bounds can be combined, in this case
+   * intersection of ranges is scanned. Partitions with empty ranges are not included.
+   */
+  @VisibleForTesting
+  static Map<TopicPartition, OffsetsRange> offsetsRanges(Consumer<?, ?> consumer,
+                                                         String topic,
+                                                         MessagesSearchRequestDTO request) {
+    List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+        .filter(pi -> request.getPartitions() == null
+            || request.getPartitions().isEmpty()
+            || request.getPartitions().contains(pi.partition()))
+        .map(pi -> new TopicPartition(topic, pi.partition()))
+        .toList();
+
+    Map<TopicPartition, Long> begin = consumer.beginningOffsets(partitions);
+    Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+    var fromTs = offsetsForTimestamp(consumer, partitions, request.getFromTimestamp());
+    var toTs = offsetsForTimestamp(consumer, partitions, request.getToTimestamp());
+
+    Map<TopicPartition, OffsetsRange> result = new HashMap<>();
+    for (TopicPartition tp : partitions) {
+      long from = begin.get(tp);
+      long to = end.get(tp);
+      if (request.getFromOffset() != null) {
+        from = Math.max(from, request.getFromOffset());
+      }
+      if (request.getToOffset() != null) {
+        to = Math.min(to, request.getToOffset() + 1);
+      }
+      if (fromTs != null) {
+        // null means that all messages in partition are older than timestamp
+        from = Math.max(from, Optional.ofNullable(fromTs.get(tp)).map(OffsetAndTimestamp::offset).orElse(to));
+      }
+      if (toTs != null) {
+        to = Math.min(to, Optional.ofNullable(toTs.get(tp)).map(OffsetAndTimestamp::offset).orElse(to));
+      }
+      if (from < to) {
+        result.put(tp, new OffsetsRange(from, to));
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private static Map<TopicPartition, OffsetAndTimestamp> offsetsForTimestamp(Consumer<?, ?> consumer,
+                                                                             List<TopicPartition> partitions,
+                                                                             @Nullable Long timestamp) {
+    if (timestamp == null) {
+      return null;
+    }
+    Map<TopicPartition, Long> timestamps = new HashMap<>();
+    partitions.forEach(tp -> timestamps.put(tp, timestamp));
+    return consumer.offsetsForTimes(timestamps);
+  }
+
+  /**
+   * Partitions are distributed between groups so that groups have similar summary offsets ranges
+   * (largest ranges go first, each range is added to the least loaded group).
+   */
+  @VisibleForTesting
+  static List<Map<TopicPartition, OffsetsRange>> splitIntoGroups(Map<TopicPartition, OffsetsRange> ranges,
+                                                                 int maxGroups) {
+    int groupsCnt = Math.max(1, Math.min(maxGroups, ranges.size()));
+    record Group(Map<TopicPartition, OffsetsRange> ranges, long[] load) {
+    }
+    PriorityQueue<Group> queue = new PriorityQueue<>(Comparator.comparingLong((Group g) -> g.load()[0]));
+    for (int i = 0; i < groupsCnt; i++) {
+      queue.add(new Group(new HashMap<>(), new long[1]));
+    }
+    ranges.entrySet().stream()
+        .sorted(Comparator.comparingLong((Map.Entry<TopicPartition, OffsetsRange> e) -> e.getValue().size())
+            .reversed())
+        .forEach(e -> {
+          Group least = queue.poll();
+          least.ranges().put(e.getKey(), e.getValue());
+          least.load()[0] += e.getValue().size();
+          queue.add(least);
+        });
+    return queue.stream().map(Group::ranges).filter(g -> !g.isEmpty()).toList();
+  }
+}
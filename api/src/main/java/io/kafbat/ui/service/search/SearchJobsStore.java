@@ -0,0 +1,47 @@
+package io.kafbat.ui.service.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+class SearchJobsStore {
+
+  // finished jobs (with their results) are kept until ttl expires or this limit is reached
+  private static final int MAX_FINISHED_JOBS = 100;
+
+  private final Map<String, SearchJob> jobs = new ConcurrentHashMap<>();
+  private final Duration resultsTtl;
+
+  SearchJobsStore(Duration resultsTtl) {
+    this.resultsTtl = resultsTtl;
+  }
+
+  void register(SearchJob job) {
+    evictFinished();
+    jobs.put(job.id, job);
+  }
+
+  Optional<SearchJob> get(String id) {
+    evictFinished();
+    return Optional.ofNullable(jobs.get(id));
+  }
+
+  long runningCount() {
+    return jobs.values().stream().filter(SearchJob::isRunning).count();
+  }
+
+  private void evictFinished() {
+    Instant expiredBefore = Instant.now().minus(resultsTtl);
+    jobs.values().removeIf(j -> j.finishedAt().map(f -> f.isBefore(expiredBefore)).orElse(false));
+    var finished = jobs.values().stream()
+        .filter(j -> j.finishedAt().isPresent())
+        .sorted(Comparator.comparing(j -> j.finishedAt().get()))
+        .toList();
+    for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+      jobs.remove(finished.get(i).id);
+    }
+  }
+}
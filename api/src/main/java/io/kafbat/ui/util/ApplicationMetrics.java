@@ -3,15 +3,22 @@ package io.kafbat.ui.util;
 import static lombok.AccessLevel.PRIVATE;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.kafbat.ui.emitter.ConsumersPool;
+import io.kafbat.ui.emitter.PolledBytesBudget;
 import io.kafbat.ui.emitter.PolledRecords;
 import io.kafbat.ui.model.KafkaCluster;
+import io.kafbat.ui.service.MessagesPageCache;
+import io.kafbat.ui.service.PollingAdmissionControl.ClusterAdmission;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 
@@ -83,4 +90,85 @@ public class ApplicationMetrics {
     return count;
   }
 
+  public List<Meter> meterConsumersPool(ConsumersPool pool, String poolName) {
+    return List.of(
+        Gauge.builder(COMMON_PREFIX + "consumers_pool_leased", pool, ConsumersPool::leasedCount)
+            .description("Number of consumers currently leased from pool")
+            .tag("cluster", clusterName)
+            .tag("pool", poolName)
+            .register(registry),
+        Gauge.builder(COMMON_PREFIX + "consumers_pool_idle", pool, ConsumersPool::idleCount)
+            .description("Number of idle consumers in pool")
+            .tag("cluster", clusterName)
+            .tag("pool", poolName)
+            .register(registry),
+        FunctionCounter.builder(COMMON_PREFIX + "consumers_pool_created", pool, ConsumersPool::createdCount)
+            .description("Number of consumers created by pool")
+            .tag("cluster", clusterName)
+            .tag("pool", poolName)
+            .register(registry),
+        FunctionCounter.builder(COMMON_PREFIX + "consumers_pool_evicted", pool, ConsumersPool::destroyedCount)
+            .description("Number of pooled consumers closed due to idleness, age or failure")
+            .tag("cluster", clusterName)
+            .tag("pool", poolName)
+            .register(registry),
+        FunctionCounter.builder(COMMON_PREFIX + "consumers_pool_overflow", pool, ConsumersPool::overflowLeasesCount)
+            .description("Number of non-pooled consumers created because pool was exhausted")
+            .tag("cluster", clusterName)
+            .tag("pool", poolName)
+            .register(registry)
+    );
+  }
+
+  public void removeMeters(List<Meter> meters) {
+    meters.forEach(registry::remove);
+  }
+
+  public void meterPollingAdmission(ClusterAdmission admission) {
+    Gauge.builder(COMMON_PREFIX + "polling_admission_running", admission, ClusterAdmission::runningCount)
+        .description("Number of messages emitters currently running")
+        .tag("cluster", clusterName)
+        .register(registry);
+    Gauge.builder(COMMON_PREFIX + "polling_admission_queued", admission, ClusterAdmission::queuedCount)
+        .description("Number of messages requests waiting for admission")
+        .tag("cluster", clusterName)
+        .register(registry);
+    FunctionCounter.builder(COMMON_PREFIX + "polling_admission_rejected", admission, ClusterAdmission::rejectedCount)
+        .description("Number of messages requests rejected because admission queue was full")
+        .tag("cluster", clusterName)
+        .register(registry);
+  }
+
+  // budget is shared by all clusters' consumers, so it is not tagged with cluster
+  public static void meterPolledBytesBudget(PolledBytesBudget budget) {
+    Gauge.builder(COMMON_PREFIX + "polled_bytes_in_flight", budget, PolledBytesBudget::inFlightBytes)
+        .description("Bytes polled by consumers, that are not processed yet")
+        .register(Metrics.globalRegistry);
+    Gauge.builder(COMMON_PREFIX + "polled_bytes_budget_waiting_polls", budget, PolledBytesBudget::waitingPolls)
+        .description("Number of polls waiting for polled bytes budget")
+        .register(Metrics.globalRegistry);
+    FunctionCounter.builder(COMMON_PREFIX + "polled_bytes_budget_overdrafts", budget,
+            PolledBytesBudget::overdraftsCount)
+        .description("Number of polls that exceeded polled bytes budget (without waiting, or after max wait time)")
+        .register(Metrics.globalRegistry);
+  }
+
+  public static void meterMessagesPageCache(MessagesPageCache cache) {
+    FunctionCounter.builder(COMMON_PREFIX + "messages_page_cache_hits", cache, MessagesPageCache::hitCount)
+        .description("Number of messages pages taken from cache")
+        .register(Metrics.globalRegistry);
+    FunctionCounter.builder(COMMON_PREFIX + "messages_page_cache_misses", cache, MessagesPageCache::missCount)
+        .description("Number of cacheable messages pages that were not found in cache")
+        .register(Metrics.globalRegistry);
+    Gauge.builder(COMMON_PREFIX + "messages_page_cache_hit_ratio", cache, MessagesPageCache::hitRatio)
+        .description("Ratio of messages page cache hits to all cache lookups")
+        .register(Metrics.globalRegistry);
+    FunctionCounter.builder(COMMON_PREFIX + "messages_page_cache_evictions", cache, MessagesPageCache::evictionCount)
+        .description("Number of messages pages evicted from cache due to size limit or expiration")
+        .register(Metrics.globalRegistry);
+    Gauge.builder(COMMON_PREFIX + "messages_page_cache_weight_bytes", cache, MessagesPageCache::weightedSize)
+        .description("Approximate size of cached messages pages")
+        .register(Metrics.globalRegistry);
+  }
+
 }
@@ -0,0 +1,108 @@
+package io.kafbat.ui.util;
+
+import io.kafbat.ui.config.ClustersProperties.VirtualThreadsProperties;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedulers for blocking work: consumers' polling loops, serde calls, jmx retrieval, topic analysis.
+ * By default, bounded elastic schedulers are used. With {@code kafka.virtualThreads.enabled} every task runs
+ * on its own virtual thread, so concurrency is not limited by thread pool size. Mode is chosen on application
+ * startup, before any scheduler is created, and can't be changed without JVM restart.
+ */
+@Slf4j
+public final class BlockingSchedulers {
+
+  private static final String PROPERTIES_PREFIX = "kafka.virtual-threads";
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int PINNED_STACK_DEPTH = 15;
+
+  private static volatile VirtualThreadsProperties properties = new VirtualThreadsProperties();
+  private static RecordingStream pinningRecording;
+
+  private BlockingSchedulers() {
+  }
+
+  public static ApplicationContextInitializer<ConfigurableApplicationContext> virtualThreadsInitializer() {
+    return appCtx -> configure(
+        Binder.get(appCtx.getEnvironment())
+            .bind(PROPERTIES_PREFIX, VirtualThreadsProperties.class)
+            .orElseGet(VirtualThreadsProperties::new)
+    );
+  }
+
+  static synchronized void configure(VirtualThreadsProperties props) {
+    properties = props;
+    if (props.isEnabled()) {
+      log.info("Virtual threads are used for blocking operations");
+      if (props.isPinningDiagnostics() && pinningRecording == null) {
+        pinningRecording = startPinningDiagnostics(Duration.ofMillis(props.getPinnedThresholdMs()));
+      }
+    }
+  }
+
+  // replacement for Schedulers.boundedElastic()
+  public static Scheduler boundedElastic() {
+    return properties.isEnabled() ? SharedVirtualScheduler.INSTANCE : Schedulers.boundedElastic();
+  }
+
+  // replacement for dedicated Schedulers.newBoundedElastic(..) schedulers
+  public static Scheduler newBoundedElastic(String name) {
+    if (properties.isEnabled()) {
+      return virtualThreadsScheduler(name);
+    }
+    return Schedulers.newBoundedElastic(
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+        name,
+        10, //ttl for idle threads (in sec)
+        true //daemon
+    );
+  }
+
+  private static Scheduler virtualThreadsScheduler(String name) {
+    return Schedulers.fromExecutorService(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory()),
+        name
+    );
+  }
+
+  // created on first use, only if virtual threads are enabled
+  private static final class SharedVirtualScheduler {
+    private static final Scheduler INSTANCE = virtualThreadsScheduler("blocking-virtual");
+  }
+
+  // virtual thread that is pinned to its carrier (ex. blocked in native frame) occupies carrier thread
+  private static RecordingStream startPinningDiagnostics(Duration threshold) {
+    var recording = new RecordingStream();
+    recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(PINNED_EVENT, BlockingSchedulers::logPinnedEvent);
+    recording.startAsync();
+    return recording;
+  }
+
+  private static void logPinnedEvent(RecordedEvent event) {
+    String stack = event.getStackTrace() == null
+        ? "<no stack trace>"
+        : event.getStackTrace().getFrames().stream()
+            .limit(PINNED_STACK_DEPTH)
+            .map(BlockingSchedulers::formatFrame)
+            .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+    log.warn("Virtual thread was pinned to carrier thread for {} ms:\n{}", event.getDuration().toMillis(), stack);
+  }
+
+  private static String formatFrame(RecordedFrame frame) {
+    return "%s.%s:%d".formatted(
+        frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+  }
+}
@@ -12,7 +12,9 @@ import java.nio.charset.StandardCharsets;
 public class ContentUtils {
   private static final byte[] HEX_ARRAY = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
 
-  private static final CharsetDecoder UTF8_DECODER = StandardCharsets.UTF_8.newDecoder();
+  // decoders are stateful, so each thread uses its own
+  private static final ThreadLocal<CharsetDecoder> UTF8_DECODER =
+      ThreadLocal.withInitial(StandardCharsets.UTF_8::newDecoder);
 
   private ContentUtils() {
   }
@@ -28,7 +30,7 @@ public class ContentUtils {
       return true;
     }
     try {
-      CharBuffer decode = UTF8_DECODER.decode(ByteBuffer.wrap(value));
+      CharBuffer decode = UTF8_DECODER.get().decode(ByteBuffer.wrap(value));
       return decode.chars().allMatch(ContentUtils::isValidUtf8);
     } catch (Exception e) {
       return false;
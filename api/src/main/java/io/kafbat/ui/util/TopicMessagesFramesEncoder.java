@@ -0,0 +1,146 @@
+package io.kafbat.ui.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.SneakyThrows;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * Encodes topic messages events stream into length-prefixed binary frames. Frame layout (big-endian):
+ * <pre>
+ * int32   frame length (not including this field)
+ * byte    frame type: 1 = message, 0 = any other event
+ * message frame: int32 partition, int64 offset, int64 timestamp (epoch ms), key, value,
+ *                int32 headers count, (header key, header value) * headers count
+ * other event frame: event in json
+ * </pre>
+ * Key, value and headers are written as int32 length (-1 for null) followed by UTF-8 bytes, so they are passed
+ * without json escaping. BATCH events are split into message frames followed by the batch event without messages.
+ */
+public class TopicMessagesFramesEncoder implements HttpMessageEncoder<TopicMessageEventDTO> {
+
+  public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/vnd.kafbat.messages-frames");
+
+  private static final byte EVENT_FRAME = 0;
+  private static final byte MESSAGE_FRAME = 1;
+
+  private final ObjectMapper objectMapper;
+
+  public TopicMessagesFramesEncoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+    return TopicMessageEventDTO.class.isAssignableFrom(elementType.toClass())
+        && mimeType != null
+        && MEDIA_TYPE.isCompatibleWith(mimeType);
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<? extends TopicMessageEventDTO> inputStream,
+                                 DataBufferFactory bufferFactory,
+                                 ResolvableType elementType,
+                                 @Nullable MimeType mimeType,
+                                 @Nullable Map<String, Object> hints) {
+    return Flux.from(inputStream)
+        .map(event -> encodeValue(event, bufferFactory, elementType, mimeType, hints));
+  }
+
+  @Override
+  public DataBuffer encodeValue(TopicMessageEventDTO event,
+                                DataBufferFactory bufferFactory,
+                                ResolvableType valueType,
+                                @Nullable MimeType mimeType,
+                                @Nullable Map<String, Object> hints) {
+    return bufferFactory.wrap(encode(event));
+  }
+
+  @Override
+  public List<MimeType> getEncodableMimeTypes() {
+    return List.of(MEDIA_TYPE);
+  }
+
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    // each event is flushed as soon as it is encoded
+    return List.of(MEDIA_TYPE);
+  }
+
+  byte[] encode(TopicMessageEventDTO event) {
+    ByteArrayDataOutput out = ByteStreams.newDataOutput();
+    if (event.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE) {
+      writeMessageFrame(out, event.getMessage());
+    } else if (event.getType() == TopicMessageEventDTO.TypeEnum.BATCH && event.getMessages() != null) {
+      event.getMessages().forEach(m -> writeMessageFrame(out, m));
+      writeEventFrame(out, copyWithoutMessages(event));
+    } else {
+      writeEventFrame(out, event);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeMessageFrame(ByteArrayDataOutput out, TopicMessageDTO msg) {
+    ByteArrayDataOutput frame = ByteStreams.newDataOutput();
+    frame.writeByte(MESSAGE_FRAME);
+    frame.writeInt(msg.getPartition());
+    frame.writeLong(msg.getOffset());
+    frame.writeLong(msg.getTimestamp() != null ? msg.getTimestamp().toInstant().toEpochMilli() : -1);
+    writeString(frame, msg.getKey());
+    writeString(frame, msg.getValue());
+    Map<String, String> headers = msg.getHeaders() != null ? msg.getHeaders() : Map.of();
+    frame.writeInt(headers.size());
+    headers.forEach((k, v) -> {
+      writeString(frame, k);
+      writeString(frame, v);
+    });
+    writeFrame(out, frame.toByteArray());
+  }
+
+  @SneakyThrows
+  private void writeEventFrame(ByteArrayDataOutput out, TopicMessageEventDTO event) {
+    ByteArrayDataOutput frame = ByteStreams.newDataOutput();
+    frame.writeByte(EVENT_FRAME);
+    frame.write(objectMapper.writeValueAsBytes(event));
+    writeFrame(out, frame.toByteArray());
+  }
+
+  private static void writeFrame(ByteArrayDataOutput out, byte[] frame) {
+    out.writeInt(frame.length);
+    out.write(frame);
+  }
+
+  private static void writeString(ByteArrayDataOutput out, @Nullable String str) {
+    if (str == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static TopicMessageEventDTO copyWithoutMessages(TopicMessageEventDTO batch) {
+    return new TopicMessageEventDTO()
+        .type(batch.getType())
+        .messages(new ArrayList<>())
+        .phase(batch.getPhase())
+        .consuming(batch.getConsuming())
+        .cursor(batch.getCursor());
+  }
+}
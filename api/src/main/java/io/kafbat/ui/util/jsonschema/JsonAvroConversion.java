@@ -277,7 +277,7 @@ public class JsonAvroConversion {
   }
 
   // select name for a key field that represents type name of union.
-  private static String selectUnionTypeFieldName(Schema unionSchema,
+  public static String selectUnionTypeFieldName(Schema unionSchema,
                                                  Schema chosenType,
                                                  int chosenTypeIdx,
                                                  boolean forceFullyQualifiedNames) {
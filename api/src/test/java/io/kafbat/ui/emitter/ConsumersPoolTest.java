@@ -0,0 +1,93 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.ConsumersPoolProperties;
+import io.kafbat.ui.util.ApplicationMetrics;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConsumersPoolTest {
+
+  private final AtomicInteger createdConsumers = new AtomicInteger();
+  private ConsumersPool pool;
+
+  @BeforeEach
+  void init() {
+    var properties = new ConsumersPoolProperties();
+    properties.setMaxSize(2);
+    properties.setMinIdle(1);
+    pool = new ConsumersPool(this::createConsumer, properties, ApplicationMetrics.noop());
+  }
+
+  @AfterEach
+  void close() {
+    pool.close();
+  }
+
+  @Test
+  void poolIsPrewarmedToMinIdle() {
+    assertThat(pool.idleCount()).isEqualTo(1);
+    assertThat(createdConsumers).hasValue(1);
+  }
+
+  @Test
+  void closedConsumerIsReturnedToPoolWithResetState() {
+    EnhancedConsumer consumer = pool.lease();
+    consumer.assign(List.of(new TopicPartition("test", 0)));
+    consumer.pause(List.of(new TopicPartition("test", 0)));
+    assertThat(pool.leasedCount()).isEqualTo(1);
+
+    consumer.close();
+    assertThat(pool.leasedCount()).isZero();
+    assertThat(pool.idleCount()).isEqualTo(1);
+
+    EnhancedConsumer leasedAgain = pool.lease();
+    assertThat(leasedAgain).isSameAs(consumer);
+    assertThat(leasedAgain.assignment()).isEmpty();
+    assertThat(leasedAgain.paused()).isEmpty();
+    leasedAgain.close();
+    assertThat(createdConsumers).hasValue(1);
+  }
+
+  @Test
+  void repeatedCloseDoesNotReturnConsumerTwice() {
+    EnhancedConsumer consumer = pool.lease();
+    consumer.close();
+    consumer.close();
+    assertThat(pool.idleCount()).isEqualTo(1);
+    assertThat(pool.lease()).isSameAs(consumer);
+  }
+
+  @Test
+  void nonPooledConsumerIsCreatedWhenPoolIsExhausted() {
+    var first = pool.lease();
+    var second = pool.lease();
+    var overflow = pool.lease();
+
+    assertThat(overflow).isNotSameAs(first).isNotSameAs(second);
+    assertThat(pool.overflowLeasesCount()).isEqualTo(1);
+    assertThat(pool.leasedCount()).isEqualTo(2);
+
+    overflow.close();
+    assertThat(pool.idleCount()).isZero();
+
+    first.close();
+    second.close();
+    assertThat(pool.idleCount()).isEqualTo(2);
+  }
+
+  private EnhancedConsumer createConsumer() {
+    createdConsumers.incrementAndGet();
+    Properties props = new Properties();
+    // consumer does not connect to brokers until polling / metadata requests
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+    return new EnhancedConsumer(props, PollingThrottler.noop(), ApplicationMetrics.noop());
+  }
+}
@@ -0,0 +1,60 @@
+package io.kafbat.ui.emitter;
+
+import static io.kafbat.ui.emitter.MessageFilters.celScriptPushdown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.ConsumerPosition.OffsetsBounds;
+import io.kafbat.ui.model.PollingModeDTO;
+import java.util.List;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class FilterPushdownTest {
+
+  @Test
+  void extractsPartitionAndOffsetConditionsFromConjunction() {
+    var pushdown = celScriptPushdown("record.partition == 3 && record.offset > 1000 && record.valueAsText == 'a'");
+    assertThat(pushdown.partitions()).hasValueSatisfying(p -> assertThat(p).containsExactly(3));
+    assertThat(pushdown.offsetsBounds()).hasValue(new OffsetsBounds(1001L, null, null));
+  }
+
+  @Test
+  void combinesBoundsOfAllConjuncts() {
+    var pushdown = celScriptPushdown(
+        "record.partition in [1, 2, 3] && record.partition != 5 && 2 >= record.partition "
+            + "&& record.offset >= 10 && record.offset <= 20 && 15 > record.offset "
+            + "&& record.timestampMs > 1000 && record.timestampMs < 5000");
+    assertThat(pushdown.partitions()).hasValueSatisfying(p -> assertThat(p).containsExactlyInAnyOrder(1, 2, 3));
+    assertThat(pushdown.offsetsBounds()).hasValue(new OffsetsBounds(10L, 15L, 1001L));
+  }
+
+  @Test
+  void conditionsUnderDisjunctionAreNotUsed() {
+    var pushdown = celScriptPushdown("record.partition == 3 || record.offset > 1000");
+    assertThat(pushdown.partitions()).isEmpty();
+    assertThat(pushdown.offsetsBounds()).isEmpty();
+  }
+
+  @Test
+  void narrowsPositionPartitionsToExistingOnes() {
+    var pushdown = celScriptPushdown("record.partition in [1, 7] && record.offset < 100");
+    var position = pushdown.apply(
+        new ConsumerPosition(PollingModeDTO.LATEST, "test", List.of(), null, null),
+        List.of(0, 1, 2)
+    );
+    assertThat(position.partitions()).containsExactly(new TopicPartition("test", 1));
+    assertThat(position.bounds()).isEqualTo(new OffsetsBounds(null, 100L, null));
+  }
+
+  @Test
+  void positionPartitionsAreNotChangedIfNoneMatch() {
+    var pushdown = celScriptPushdown("record.partition == 7");
+    var position = pushdown.apply(
+        new ConsumerPosition(PollingModeDTO.LATEST, "test", List.of(), null, null),
+        List.of(0, 1, 2)
+    );
+    assertThat(position.partitions()).isEmpty();
+    assertThat(position.bounds()).isNull();
+  }
+}
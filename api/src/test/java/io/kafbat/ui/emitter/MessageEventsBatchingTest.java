@@ -0,0 +1,90 @@
+package io.kafbat.ui.emitter;
+
+import static io.kafbat.ui.emitter.MessageEventsFixtures.consuming;
+import static io.kafbat.ui.emitter.MessageEventsFixtures.done;
+import static io.kafbat.ui.emitter.MessageEventsFixtures.message;
+import static io.kafbat.ui.emitter.MessageEventsFixtures.phase;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.EventsBatchingProperties;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MessageEventsBatchingTest {
+
+  @Test
+  void coalescesMessagesWithLatestPhaseAndConsumingStats() {
+    var result = MessageEventsBatching.coalesce(
+        List.of(
+            phase("polling"),
+            message(1),
+            consuming(10),
+            message(2),
+            phase("next"),
+            consuming(20),
+            done(),
+            message(3) // not expected in real stream, but should not be lost
+        )
+    );
+    assertThat(result).hasSize(3);
+
+    var batch = result.get(0);
+    assertThat(batch.getType()).isEqualTo(TypeEnum.BATCH);
+    assertThat(batch.getMessages()).extracting(TopicMessageDTO::getOffset).containsExactly(1L, 2L);
+    assertThat(batch.getPhase().getName()).isEqualTo("next");
+    assertThat(batch.getConsuming().getMessagesConsumed()).isEqualTo(20);
+
+    assertThat(result.get(1).getType()).isEqualTo(TypeEnum.DONE);
+
+    assertThat(result.get(2).getType()).isEqualTo(TypeEnum.BATCH);
+    assertThat(result.get(2).getMessages()).extracting(TopicMessageDTO::getOffset).containsExactly(3L);
+  }
+
+  @Test
+  void batchesAreLimitedByMaxBatchSize() {
+    var properties = new EventsBatchingProperties();
+    properties.setMaxBatchSize(4);
+    var events = Flux.concat(
+        Flux.fromStream(IntStream.range(0, 10).mapToObj(MessageEventsFixtures::message)),
+        Flux.just(done())
+    );
+    StepVerifier.create(MessageEventsBatching.batch(events, properties))
+        .assertNext(e -> assertThat(e.getMessages()).hasSize(4))
+        .assertNext(e -> assertThat(e.getMessages()).hasSize(4))
+        .assertNext(e -> assertThat(e.getMessages()).hasSize(2))
+        .assertNext(e -> assertThat(e.getType()).isEqualTo(TypeEnum.DONE))
+        .verifyComplete();
+  }
+
+  @Test
+  void slowSubscriberIsNotOverflowedOnLingerTimeouts() {
+    var properties = new EventsBatchingProperties();
+    properties.setMaxBatchSize(4);
+    properties.setLingerMs(5);
+    var events = Flux.interval(Duration.ofMillis(1))
+        .take(50)
+        .map(MessageEventsFixtures::message)
+        .concatWith(Flux.just(done()));
+
+    List<TopicMessageDTO> received = new ArrayList<>();
+    StepVerifier.create(MessageEventsBatching.batch(events, properties), 1)
+        .assertNext(e -> received.addAll(e.getMessages()))
+        // many linger timeouts pass without demand
+        .thenAwait(Duration.ofMillis(200))
+        .thenRequest(Long.MAX_VALUE)
+        .thenConsumeWhile(e -> e.getType() == TypeEnum.BATCH, e -> received.addAll(e.getMessages()))
+        .assertNext(e -> assertThat(e.getType()).isEqualTo(TypeEnum.DONE))
+        .verifyComplete();
+
+    assertThat(received).extracting(TopicMessageDTO::getOffset)
+        .containsExactlyElementsOf(LongStream.range(0, 50).boxed().toList());
+  }
+}
@@ -0,0 +1,37 @@
+package io.kafbat.ui.emitter;
+
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import io.kafbat.ui.model.TopicMessagePhaseDTO;
+
+/**
+ * Messages events used in emitters and messages service tests.
+ */
+public final class MessageEventsFixtures {
+
+  private MessageEventsFixtures() {
+  }
+
+  // message of partition 0, with offset as a value
+  public static TopicMessageEventDTO message(long offset) {
+    return new TopicMessageEventDTO()
+        .type(TypeEnum.MESSAGE)
+        .message(new TopicMessageDTO().partition(0).offset(offset).value(String.valueOf(offset)));
+  }
+
+  public static TopicMessageEventDTO phase(String name) {
+    return new TopicMessageEventDTO().type(TypeEnum.PHASE).phase(new TopicMessagePhaseDTO().name(name));
+  }
+
+  public static TopicMessageEventDTO consuming(int messagesConsumed) {
+    return new TopicMessageEventDTO()
+        .type(TypeEnum.CONSUMING)
+        .consuming(new TopicMessageConsumingDTO().messagesConsumed(messagesConsumed));
+  }
+
+  public static TopicMessageEventDTO done() {
+    return new TopicMessageEventDTO().type(TypeEnum.DONE);
+  }
+}
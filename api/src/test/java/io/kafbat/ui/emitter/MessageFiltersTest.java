@@ -2,6 +2,8 @@ package io.kafbat.ui.emitter;
 
 import static io.kafbat.ui.emitter.MessageFilters.celScriptFilter;
 import static io.kafbat.ui.emitter.MessageFilters.containsStringFilter;
+import static io.kafbat.ui.emitter.MessageFilters.containsStringRawPreFilter;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,9 +16,16 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -129,6 +138,107 @@ class MessageFiltersTest {
 
   }
 
+  @Nested
+  class StringContainsRawPreFilter {
+
+    @Test
+    void rejectsRecordsThatDoNotContainStringInRawKeyValueAndHeaders() {
+      var preFilter = containsStringRawPreFilter("abC", true, true);
+      assertThat(preFilter).isNotNull();
+
+      assertTrue(preFilter.test(rawRecord("contains abCd", "some str")));
+      assertTrue(preFilter.test(rawRecord("some str", "contains abCd")));
+      assertTrue(preFilter.test(rawRecord(null, "x", new RecordHeader("abC", null))));
+      assertTrue(preFilter.test(rawRecord(null, "x", new RecordHeader("h", "val abC".getBytes(UTF_8)))));
+
+      assertFalse(preFilter.test(rawRecord("aBc", "AbC")));
+      assertFalse(preFilter.test(rawRecord(null, null)));
+      assertFalse(preFilter.test(rawRecord("x", "y", new RecordHeader("h", "value".getBytes(UTF_8)))));
+    }
+
+    @Test
+    void matchesUnicodeEscapesInRawBytes() {
+      var preFilter = containsStringRawPreFilter("\u8A66", true, true);
+      assertThat(preFilter).isNotNull();
+      assertTrue(preFilter.test(rawRecord(null, "{\"name\":\"\\u8A66Lipo\"}")));
+      assertTrue(preFilter.test(rawRecord(null, "{\"name\":\"\\u8a66Lipo\"}")));
+      assertTrue(preFilter.test(rawRecord(null, "\u8A66")));
+      assertFalse(preFilter.test(rawRecord(null, "{\"name\":\"Lipo\"}")));
+    }
+
+    @Test
+    void passesRecordsThatCantBeCheckedOnRawBytes() {
+      var preFilter = containsStringRawPreFilter("abC", false, true);
+      assertThat(preFilter).isNotNull();
+      // key is not raw text, so it can contain searched string after deserialization
+      assertTrue(preFilter.test(rawRecord("aaa", "bbb")));
+      assertFalse(preFilter.test(rawRecord(null, "bbb")));
+      // binary header values are shown as numbers or hex strings
+      assertTrue(preFilter.test(rawRecord(null, "bbb", new RecordHeader("h", new byte[] {0, 0, 1, 2}))));
+    }
+
+    @Test
+    void returnsNullWhenNeitherKeyNorValueIsRawText() {
+      assertThat(containsStringRawPreFilter("abC", false, false)).isNull();
+    }
+
+    @Test
+    void preFilterIsConsistentWithContainsStringFilter() {
+      var search = "needle";
+      var filter = containsStringFilter(search);
+      var preFilter = containsStringRawPreFilter(search, true, true);
+      assertThat(preFilter).isNotNull();
+      for (int i = 0; i < 1_000; i++) {
+        String key = RandomStringUtils.insecure().next(10, "needl");
+        String value = RandomStringUtils.insecure().next(20, "needl");
+        var raw = rawRecord(key, value);
+        if (filter.test(msg().key(key).value(value))) {
+          assertTrue(preFilter.test(raw));
+        } else {
+          assertFalse(preFilter.test(raw));
+        }
+      }
+    }
+
+    private ConsumerRecord<Bytes, Bytes> rawRecord(String key, String value, Header... headers) {
+      return new ConsumerRecord<>(
+          "topic", 0, 0, 0L, TimestampType.CREATE_TIME, 0, 0,
+          key == null ? null : Bytes.wrap(key.getBytes(UTF_8)),
+          value == null ? null : Bytes.wrap(value.getBytes(UTF_8)),
+          new RecordHeaders(headers), Optional.empty()
+      );
+    }
+  }
+
+  @Nested
+  class BytesMatcherSearch {
+
+    @Test
+    void findsPatternAtAnyPosition() {
+      var matcher = new BytesMatcher("abcab".getBytes(UTF_8));
+      assertTrue(matcher.foundIn("abcab".getBytes(UTF_8)));
+      assertTrue(matcher.foundIn("xxabcab".getBytes(UTF_8)));
+      assertTrue(matcher.foundIn("abcabxx".getBytes(UTF_8)));
+      assertTrue(matcher.foundIn("ababcabcab".getBytes(UTF_8)));
+      assertFalse(matcher.foundIn("abcaabca".getBytes(UTF_8)));
+      assertFalse(matcher.foundIn("abca".getBytes(UTF_8)));
+      assertFalse(matcher.foundIn(new byte[0]));
+    }
+
+    @Test
+    void emptyPatternMatchesEverything() {
+      assertTrue(new BytesMatcher(new byte[0]).foundIn(new byte[0]));
+      assertTrue(new BytesMatcher(new byte[0]).foundIn("abc".getBytes(UTF_8)));
+    }
+
+    @Test
+    void worksWithNonAsciiBytes() {
+      var matcher = new BytesMatcher(new byte[] {(byte) 0xFF, (byte) 0x80});
+      assertTrue(matcher.foundIn(new byte[] {1, (byte) 0xFF, (byte) 0x80, 2}));
+      assertFalse(matcher.foundIn(new byte[] {1, (byte) 0x80, (byte) 0xFF, 2}));
+    }
+  }
+
   @Nested
   class CelScriptFilter {
 
@@ -138,6 +248,16 @@ class MessageFiltersTest {
           () -> celScriptFilter("this is an invalid CEL syntax = 1"));
     }
 
+    @Test
+    void onlyReferencedRecordFieldsArePassedToProgram() {
+      assertThat(MessageFilters.referencedRecordFields("record.partition == 1 && has(record.headers.k1)"))
+          .containsExactlyInAnyOrder("partition", "headers");
+      assertThat(MessageFilters.referencedRecordFields("record.value.name == 'n' || record.keyAsText == 'k'"))
+          .containsExactlyInAnyOrder("value", "keyAsText");
+      assertThat(MessageFilters.referencedRecordFields("true"))
+          .isEmpty();
+    }
+
     @Test
     void canCheckPartition() {
       var f = celScriptFilter("record.partition == 1");
@@ -2,16 +2,26 @@ package io.kafbat.ui.emitter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.serde.api.Serde;
+import io.kafbat.ui.serdes.ConsumerRecordDeserializer;
+import io.kafbat.ui.serdes.PropertyResolverImpl;
+import io.kafbat.ui.serdes.builtin.StringSerde;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.common.utils.Bytes;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 
 class MessagesProcessingTest {
 
@@ -58,6 +68,84 @@ class MessagesProcessingTest {
     assertThat(sortedList).containsExactlyElementsOf(messagesInOrder);
   }
 
+  @Test
+  void parallelProcessingKeepsSortingOrderAndLimit() {
+    List<ConsumerRecord<Bytes, Bytes>> records = new ArrayList<>();
+    for (int partition = 0; partition < 3; partition++) {
+      for (int i = 0; i < 100; i++) {
+        records.add(valueRecord(partition, i, 1_000L * i + partition, "msg_" + partition + "_" + i));
+      }
+    }
+    Collections.shuffle(records);
+    // filtering out every 5th message
+    Predicate<TopicMessageDTO> filter = msg -> msg.getOffset() % 5 != 0;
+
+    var sequential = sendAndCollect(new MessagesProcessing(createDeserializer(), filter, true, 150, 1), records);
+    var parallel = sendAndCollect(new MessagesProcessing(createDeserializer(), filter, true, 150, 4), records);
+
+    assertThat(parallel).hasSize(150);
+    assertThat(parallel).containsExactlyElementsOf(sequential);
+  }
+
+  @Test
+  void filterApplyErrorsAreCountedInParallelMode() {
+    List<ConsumerRecord<Bytes, Bytes>> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      records.add(valueRecord(0, i, i, "msg_" + i));
+    }
+    Predicate<TopicMessageDTO> filter = msg -> {
+      if (msg.getOffset() % 2 == 0) {
+        throw new IllegalStateException("test");
+      }
+      return true;
+    };
+    var processing = new MessagesProcessing(createDeserializer(), filter, true, null, 4);
+    List<TopicMessageEventDTO> events = Flux.<TopicMessageEventDTO>create(sink -> {
+      processing.send(sink, records, null);
+      processing.sendFinishEvents(sink, null);
+      sink.complete();
+    }).collectList().block();
+
+    assertThat(events).isNotNull();
+    assertThat(events.stream().filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)).hasSize(50);
+    assertThat(events.getLast().getConsuming().getFilterApplyErrors()).isEqualTo(50);
+  }
+
+  private List<String> sendAndCollect(MessagesProcessing processing, List<ConsumerRecord<Bytes, Bytes>> records) {
+    return Flux.<TopicMessageEventDTO>create(sink -> {
+          processing.send(sink, records, null);
+          sink.complete();
+        })
+        .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .map(e -> e.getMessage().getValue())
+        .collectList()
+        .block();
+  }
+
+  private ConsumerRecord<Bytes, Bytes> valueRecord(int partition, long offset, long ts, String value) {
+    return new ConsumerRecord<>(
+        "topic", partition, offset, ts,
+        TimestampType.CREATE_TIME,
+        0, value.length(), null, Bytes.wrap(value.getBytes(StandardCharsets.UTF_8)),
+        new RecordHeaders(), Optional.empty()
+    );
+  }
+
+  private static ConsumerRecordDeserializer createDeserializer() {
+    Serde s = new StringSerde();
+    s.configure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+    return new ConsumerRecordDeserializer(
+        StringSerde.NAME,
+        s.deserializer(null, Serde.Target.KEY),
+        StringSerde.NAME,
+        s.deserializer(null, Serde.Target.VALUE),
+        StringSerde.NAME,
+        s.deserializer(null, Serde.Target.KEY),
+        s.deserializer(null, Serde.Target.VALUE),
+        msg -> msg
+    );
+  }
+
   private ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset, String ts) {
     return new ConsumerRecord<>(
         "topic", partition, offset, OffsetDateTime.parse(ts).toInstant().toEpochMilli(),
@@ -0,0 +1,73 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.emitter.RangePollingEmitter.FromToOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class PartitionGroupsFetcherTest {
+
+  static final String TOPIC = "test";
+
+  @Test
+  void partitionsWithSameLeaderArePutIntoSameGroup() {
+    // 6 partitions, leaders: 0 -> [0, 3], 1 -> [1, 4], 2 -> [2, 5]
+    var range = range(6);
+    var leaders = new HashMap<TopicPartition, Integer>();
+    range.keySet().forEach(tp -> leaders.put(tp, tp.partition() % 3));
+
+    var groups = PartitionGroupsFetcher.splitIntoGroups(range, leaders, 3);
+
+    assertThat(groups).hasSize(3);
+    assertThat(groups.get(0)).containsOnlyKeys(tp(0), tp(3));
+    assertThat(groups.get(1)).containsOnlyKeys(tp(1), tp(4));
+    assertThat(groups.get(2)).containsOnlyKeys(tp(2), tp(5));
+  }
+
+  @Test
+  void groupsCountIsLimitedByParallelismAndGroupsAreBalanced() {
+    var range = range(10);
+    var groups = PartitionGroupsFetcher.splitIntoGroups(range, Map.of(), 4);
+
+    assertThat(groups).hasSize(4);
+    assertThat(groups.stream().map(Map::size)).containsExactly(3, 3, 2, 2);
+    assertThat(groups.stream().flatMap(g -> g.entrySet().stream()))
+        .containsExactlyInAnyOrderElementsOf(range.entrySet());
+  }
+
+  @Test
+  void groupsCountIsLimitedByPartitionsCount() {
+    var groups = PartitionGroupsFetcher.splitIntoGroups(range(2), Map.of(), 8);
+    assertThat(groups).hasSize(2);
+    assertThat(groups).allSatisfy(g -> assertThat(g).hasSize(1));
+  }
+
+  @Test
+  void emptyRangeProducesNoGroups() {
+    assertThat(PartitionGroupsFetcher.splitIntoGroups(Map.of(), Map.of(), 4)).isEmpty();
+  }
+
+  @Test
+  void fanOutIsOnlyApplicableWhenParallelismAndPartitionsCountGreaterThanOne() {
+    try (var noFanOut = new PartitionGroupsFetcher(() -> null, 1, c -> null);
+         var fanOut = new PartitionGroupsFetcher(() -> null, 4, c -> null)) {
+      assertThat(noFanOut.isFanOutApplicable(range(10))).isFalse();
+      assertThat(fanOut.isFanOutApplicable(range(1))).isFalse();
+      assertThat(fanOut.isFanOutApplicable(range(10))).isTrue();
+    }
+  }
+
+  private static Map<TopicPartition, FromToOffset> range(int partitions) {
+    Map<TopicPartition, FromToOffset> range = new HashMap<>();
+    IntStream.range(0, partitions).forEach(p -> range.put(tp(p), new FromToOffset(p * 10L, p * 10L + 5)));
+    return range;
+  }
+
+  private static TopicPartition tp(int partition) {
+    return new TopicPartition(TOPIC, partition);
+  }
+}
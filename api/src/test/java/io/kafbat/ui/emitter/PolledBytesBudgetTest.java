@@ -0,0 +1,92 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class PolledBytesBudgetTest {
+
+  @Test
+  void accountWithoutHeldBytesWaitsUntilBudgetIsReleased() {
+    var budget = new PolledBytesBudget(10 * 1024);
+    var holder = budget.newAccount();
+    holder.charge(8 * 1024);
+    assertThat(budget.inFlightBytes()).isEqualTo(8 * 1024);
+
+    var waiter = budget.newAccount();
+    var waiting = CompletableFuture.runAsync(() -> waiter.charge(4 * 1024));
+    await().atMost(Duration.ofSeconds(5)).until(() -> budget.waitingPolls() == 1);
+    assertThat(waiting).isNotDone();
+
+    holder.release();
+    waiting.join();
+    assertThat(waiter.heldBytes()).isEqualTo(4 * 1024);
+    assertThat(budget.inFlightBytes()).isEqualTo(4 * 1024);
+  }
+
+  @Test
+  void accountHoldingBytesIsChargedWithoutWaiting() {
+    var budget = new PolledBytesBudget(10 * 1024);
+    var account = budget.newAccount();
+    account.charge(8 * 1024);
+    account.charge(8 * 1024);
+    assertThat(account.heldBytes()).isEqualTo(16 * 1024);
+    assertThat(budget.inFlightBytes()).isEqualTo(16 * 1024);
+    assertThat(budget.overdraftsCount()).isEqualTo(1);
+
+    account.release();
+    assertThat(account.heldBytes()).isZero();
+    assertThat(budget.inFlightBytes()).isZero();
+  }
+
+  @Test
+  void onlyOneChargeOfSharedAccountWaitsForBudget() {
+    var budget = new PolledBytesBudget(10 * 1024);
+    var holder = budget.newAccount();
+    holder.charge(10 * 1024);
+
+    var shared = budget.newAccount();
+    var first = CompletableFuture.runAsync(() -> shared.charge(4 * 1024));
+    var second = CompletableFuture.runAsync(() -> shared.charge(4 * 1024));
+    await().atMost(Duration.ofSeconds(5)).until(() -> budget.waitingPolls() == 1);
+    await().during(Duration.ofMillis(200)).atMost(Duration.ofSeconds(5)).until(() -> budget.waitingPolls() == 1);
+
+    holder.release();
+    CompletableFuture.allOf(first, second).join();
+    assertThat(shared.heldBytes()).isEqualTo(8 * 1024);
+    assertThat(budget.overdraftsCount()).isZero();
+  }
+
+  @Test
+  void waitingIsLimitedByMaxWaitTime() {
+    var budget = new PolledBytesBudget(10 * 1024, Duration.ofMillis(100));
+    budget.newAccount().charge(10 * 1024);
+
+    var account = budget.newAccount();
+    account.charge(4 * 1024);
+    assertThat(account.heldBytes()).isEqualTo(4 * 1024);
+    assertThat(budget.overdraftsCount()).isEqualTo(1);
+  }
+
+  @Test
+  void pollBiggerThanBudgetTakesWholeBudget() {
+    var budget = new PolledBytesBudget(10 * 1024);
+    var account = budget.newAccount();
+    account.charge(100 * 1024);
+    assertThat(budget.inFlightBytes()).isEqualTo(10 * 1024);
+    account.release();
+    assertThat(budget.inFlightBytes()).isZero();
+  }
+
+  @Test
+  void unlimitedBudgetIsNotTracked() {
+    var budget = new PolledBytesBudget(0);
+    var account = budget.newAccount();
+    account.charge(100 * 1024);
+    assertThat(account.heldBytes()).isZero();
+    assertThat(budget.inFlightBytes()).isZero();
+  }
+}
@@ -0,0 +1,111 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.emitter.RangePollingEmitter.FromToOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class PollingSessionTest {
+
+  static final String TOPIC = "test";
+  static final TopicPartition TP0 = new TopicPartition(TOPIC, 0);
+  static final TopicPartition TP1 = new TopicPartition(TOPIC, 1);
+
+  @Test
+  void forwardSessionKeepsRecordsAfterNextPageOffsets() {
+    var session = PollingSession.create(
+        null, null, TOPIC, true,
+        Map.of(TP0, new FromToOffset(0, 10), TP1, new FromToOffset(0, 10)),
+        concat(records(TP0, 0, 10), records(TP1, 0, 10)),
+        Map.of(TP0, 4L, TP1, 10L), // TP1 was fully sent
+        Long.MAX_VALUE
+    );
+
+    var taken = session.takeFetched(Map.of(TP0, new FromToOffset(4, 8), TP1, new FromToOffset(10, 14)));
+    assertThat(taken.records()).extracting(ConsumerRecord::offset).containsExactly(4L, 5L, 6L, 7L);
+    assertThat(taken.rangeToPoll()).containsExactlyEntriesOf(Map.of(TP1, new FromToOffset(10, 14)));
+  }
+
+  @Test
+  void notCoveredPartOfRangeIsReturnedForPolling() {
+    var session = PollingSession.create(
+        null, null, TOPIC, true,
+        Map.of(TP0, new FromToOffset(0, 10)),
+        records(TP0, 0, 10),
+        Map.of(TP0, 7L),
+        Long.MAX_VALUE
+    );
+
+    var taken = session.takeFetched(Map.of(TP0, new FromToOffset(7, 15)));
+    assertThat(taken.records()).extracting(ConsumerRecord::offset).containsExactly(7L, 8L, 9L);
+    assertThat(taken.rangeToPoll()).containsExactlyEntriesOf(Map.of(TP0, new FromToOffset(10, 15)));
+  }
+
+  @Test
+  void backwardSessionKeepsRecordsBeforeNextPageOffsets() {
+    var session = PollingSession.create(
+        null, null, TOPIC, false,
+        Map.of(TP0, new FromToOffset(10, 20)),
+        records(TP0, 10, 20),
+        Map.of(TP0, 16L),
+        Long.MAX_VALUE
+    );
+
+    var taken = session.takeFetched(Map.of(TP0, new FromToOffset(8, 16)));
+    assertThat(taken.records()).extracting(ConsumerRecord::offset)
+        .containsExactlyInAnyOrder(10L, 11L, 12L, 13L, 14L, 15L);
+    assertThat(taken.rangeToPoll()).containsExactlyEntriesOf(Map.of(TP0, new FromToOffset(8, 10)));
+  }
+
+  @Test
+  void fetchedRecordsCanOnlyBeTakenOnce() {
+    var session = PollingSession.create(
+        null, null, TOPIC, true,
+        Map.of(TP0, new FromToOffset(0, 10)),
+        records(TP0, 0, 10),
+        Map.of(TP0, 5L),
+        Long.MAX_VALUE
+    );
+    var range = Map.of(TP0, new FromToOffset(5, 10));
+    assertThat(session.takeFetched(range).rangeToPoll()).isEmpty();
+    assertThat(session.takeFetched(range).rangeToPoll()).containsExactlyEntriesOf(range);
+  }
+
+  @Test
+  void partitionsNotFittingIntoBytesLimitAreNotBuffered() {
+    var session = PollingSession.create(
+        null, null, TOPIC, true,
+        Map.of(TP0, new FromToOffset(0, 10)),
+        records(TP0, 0, 10),
+        Map.of(TP0, 0L),
+        5 // each record is 1 byte
+    );
+    var range = Map.of(TP0, new FromToOffset(0, 10));
+    var taken = session.takeFetched(range);
+    assertThat(taken.records()).isEmpty();
+    assertThat(taken.rangeToPoll()).containsExactlyEntriesOf(range);
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> records(TopicPartition tp, long from, long to) {
+    return LongStream.range(from, to)
+        .mapToObj(offset -> new ConsumerRecord<>(
+            tp.topic(), tp.partition(), offset, 0L, TimestampType.CREATE_TIME, -1, 1,
+            (Bytes) null, new Bytes(new byte[] {1}), new RecordHeaders(), Optional.<Integer>empty()))
+        .toList();
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> concat(List<ConsumerRecord<Bytes, Bytes>> l1,
+                                                           List<ConsumerRecord<Bytes, Bytes>> l2) {
+    return Stream.concat(l1.stream(), l2.stream()).toList();
+  }
+}
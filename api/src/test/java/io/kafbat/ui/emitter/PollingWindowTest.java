@@ -0,0 +1,59 @@
+package io.kafbat.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.AdaptiveWindowProperties;
+import org.junit.jupiter.api.Test;
+
+class PollingWindowTest {
+
+  @Test
+  void initialWindowIsPageSizeDividedByPartitions() {
+    var window = new PollingWindow(100, new AdaptiveWindowProperties());
+    assertThat(window.sizePerPartition(10)).isEqualTo(10);
+    assertThat(window.sizePerPartition(1000)).isEqualTo(1);
+  }
+
+  @Test
+  void windowGrowsByMaxFactorWhenNothingMatched() {
+    var window = new PollingWindow(100, new AdaptiveWindowProperties());
+    window.roundCompleted(100, 100, 100, 100, 0, 100);
+    assertThat(window.sizePerPartition(100)).isEqualTo(8);
+    window.roundCompleted(100, 800, 0, 0, 0, 100);
+    assertThat(window.sizePerPartition(100)).isEqualTo(64);
+  }
+
+  @Test
+  void windowIsSizedToFillRemainingPageByObservedHitRate() {
+    var window = new PollingWindow(100, new AdaptiveWindowProperties());
+    // 1 match per 1000 offsets, 99 more messages needed -> 9900 offsets per partition required
+    window.roundCompleted(10, 1000, 1000, 1000, 1, 99);
+    assertThat(window.sizePerPartition(10)).isEqualTo(80); // limited by growth factor
+    window.roundCompleted(10, 800, 800, 800, 1, 98);
+    assertThat(window.sizePerPartition(10)).isEqualTo(640);
+    // 1 match per 64 offsets, 34 more messages needed -> 2176 offsets for all partitions
+    window.roundCompleted(10, 6400, 6400, 6400, 100, 34);
+    assertThat(window.sizePerPartition(10)).isEqualTo(218);
+  }
+
+  @Test
+  void windowIsLimitedByBytesBudget() {
+    var properties = new AdaptiveWindowProperties();
+    properties.setMaxBytesPerRound(1024 * 1024);
+    var window = new PollingWindow(10, properties);
+    // 10kb records, budget allows 102 records per round
+    window.roundCompleted(1, 10, 10, 10 * 10 * 1024, 0, 10);
+    assertThat(window.sizePerPartition(1)).isEqualTo(80);
+    window.roundCompleted(1, 80, 80, 80 * 10 * 1024, 0, 10);
+    assertThat(window.sizePerPartition(1)).isEqualTo(102);
+  }
+
+  @Test
+  void windowIsNotChangedWhenDisabled() {
+    var properties = new AdaptiveWindowProperties();
+    properties.setEnabled(false);
+    var window = new PollingWindow(100, properties);
+    window.roundCompleted(10, 100, 100, 100, 0, 100);
+    assertThat(window.sizePerPartition(10)).isEqualTo(10);
+  }
+}
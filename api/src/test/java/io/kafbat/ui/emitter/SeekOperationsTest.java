@@ -106,4 +106,73 @@ class SeekOperationsTest {
     }
   }
 
+  @Nested
+  class BoundedPosition {
+
+    final ConsumerPosition.OffsetsBounds bounds = new ConsumerPosition.OffsetsBounds(5L, 28L, null);
+
+    @Test
+    void latestStartsFromUpperBound() {
+      var seekOperations = SeekOperations.create(
+          consumer,
+          new ConsumerPosition(LATEST, topic, List.of(), null, null, bounds)
+      );
+      assertThat(seekOperations.getOffsetsForSeek())
+          .containsExactlyInAnyOrderEntriesOf(Map.of(tp2, 20L, tp3, 28L));
+      assertThat(seekOperations.getBeginOffsets())
+          .containsEntry(tp2, 5L)
+          .containsEntry(tp3, 25L);
+    }
+
+    @Test
+    void earliestStartsFromLowerBound() {
+      var seekOperations = SeekOperations.create(
+          consumer,
+          new ConsumerPosition(EARLIEST, topic, List.of(), null, null, bounds)
+      );
+      assertThat(seekOperations.getOffsetsForSeek())
+          .containsExactlyInAnyOrderEntriesOf(Map.of(tp2, 5L, tp3, 25L));
+      assertThat(seekOperations.getEndOffsets())
+          .containsEntry(tp2, 20L)
+          .containsEntry(tp3, 28L);
+    }
+
+    @Test
+    void partitionsOutOfBoundsAreNotPolled() {
+      var seekOperations = SeekOperations.create(
+          consumer,
+          new ConsumerPosition(EARLIEST, topic, List.of(), null, null,
+              new ConsumerPosition.OffsetsBounds(21L, null, null))
+      );
+      assertThat(seekOperations.getOffsetsForSeek())
+          .containsExactlyInAnyOrderEntriesOf(Map.of(tp3, 25L));
+    }
+  }
+
+  @Nested
+  class Sampling {
+
+    @Test
+    void samplesAreSpreadEvenlyFromBeginToLastOffset() {
+      assertThat(SeekOperations.sampleOffsets(0, 101, 5)).containsExactly(0L, 25L, 50L, 75L, 100L);
+      assertThat(SeekOperations.sampleOffsets(10, 20, 1)).containsExactly(10L);
+    }
+
+    @Test
+    void everyOffsetIsSampledIfRangeIsSmallerThanSamplesCount() {
+      assertThat(SeekOperations.sampleOffsets(25, 30, 10)).containsExactly(25L, 26L, 27L, 28L, 29L);
+    }
+
+    @Test
+    void onlyNonEmptyPartitionsAreSampled() {
+      var seekOperations = SeekOperations.create(
+          consumer,
+          new ConsumerPosition(PollingModeDTO.SAMPLING, topic, List.of(), null, null)
+      );
+      assertThat(seekOperations.sampleOffsets(3))
+          .containsOnlyKeys(tp2, tp3)
+          .containsEntry(tp2, List.of(0L, 9L, 19L))
+          .containsEntry(tp3, List.of(25L, 27L, 29L));
+    }
+  }
 }
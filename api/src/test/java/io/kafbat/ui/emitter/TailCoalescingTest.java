@@ -0,0 +1,51 @@
+package io.kafbat.ui.emitter;
+
+import static io.kafbat.ui.emitter.MessageEventsFixtures.consuming;
+import static io.kafbat.ui.emitter.MessageEventsFixtures.message;
+import static io.kafbat.ui.emitter.MessageEventsFixtures.phase;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import java.time.Duration;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class TailCoalescingTest {
+
+  @Test
+  void latestMessagesOfIntervalAreSentAndDroppedAreReported() {
+    var events = Flux.concat(
+        Flux.just(phase("Polling"), consuming(100)),
+        Flux.fromStream(LongStream.range(0, 100).mapToObj(MessageEventsFixtures::message))
+    );
+    StepVerifier.create(events.transform(TailCoalescing.coalescing(Duration.ofSeconds(1), 3)))
+        .assertNext(e -> assertThat(e.getType()).isEqualTo(TypeEnum.PHASE))
+        .assertNext(e -> {
+          assertThat(e.getConsuming().getMessagesConsumed()).isEqualTo(100);
+          assertThat(e.getConsuming().getMessagesDropped()).isEqualTo(97);
+        })
+        .assertNext(e -> assertThat(e.getMessage().getOffset()).isEqualTo(97))
+        .assertNext(e -> assertThat(e.getMessage().getOffset()).isEqualTo(98))
+        .assertNext(e -> assertThat(e.getMessage().getOffset()).isEqualTo(99))
+        .verifyComplete();
+  }
+
+  @Test
+  void eventsAreCoalescedPerInterval() {
+    StepVerifier.withVirtualTime(() ->
+            Flux.concat(
+                Flux.just(phase("first"), consuming(1), phase("second"), message(1)),
+                Flux.just(consuming(2), message(2), message(3)).delaySubscription(Duration.ofMillis(1500))
+            ).transform(TailCoalescing.coalescing(Duration.ofSeconds(1), 1)))
+        .thenAwait(Duration.ofSeconds(1))
+        .assertNext(e -> assertThat(e.getPhase().getName()).isEqualTo("second"))
+        .assertNext(e -> assertThat(e.getConsuming().getMessagesDropped()).isZero())
+        .assertNext(e -> assertThat(e.getMessage().getOffset()).isEqualTo(1))
+        .thenAwait(Duration.ofSeconds(1))
+        .assertNext(e -> assertThat(e.getConsuming().getMessagesDropped()).isEqualTo(1))
+        .assertNext(e -> assertThat(e.getMessage().getOffset()).isEqualTo(3))
+        .verifyComplete();
+  }
+}
@@ -11,6 +11,7 @@ import io.kafbat.ui.serde.api.DeserializeResult;
 import io.kafbat.ui.serde.api.RecordHeaders;
 import io.kafbat.ui.serde.api.Serde;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.UnaryOperator;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -53,4 +54,30 @@ class ConsumerRecordDeserializerTest {
     assertThat(header.value()).isEqualTo("42".getBytes());
   }
 
+  @Test
+  void failingSerdeIsSkippedAfterThresholdAndProbedPeriodically() {
+    AtomicInteger calls = new AtomicInteger();
+    Serde.Deserializer failing = (headers, data) -> {
+      calls.incrementAndGet();
+      throw new IllegalStateException("can't deserialize");
+    };
+    Serde.Deserializer fallback = (headers, data) -> new DeserializeResult("fallback", STRING, Map.of());
+
+    var recordDeser = new ConsumerRecordDeserializer(
+        "failing", failing, "failing", fallback, "fallback", fallback, fallback, msg -> msg)
+        .withCircuits(new DeserializerCircuit(3, 10), DeserializerCircuit.closed());
+    for (int i = 0; i < 100; i++) {
+      var msg = recordDeser.deserialize(
+          new ConsumerRecord<>("t", 0, i, Bytes.wrap("k".getBytes()), Bytes.wrap("v".getBytes())));
+      assertThat(msg.getKey()).isEqualTo("fallback");
+      assertThat(msg.getKeySerde()).isEqualTo("fallback");
+      assertThat(msg.getKeyFallback()).isTrue();
+      assertThat(msg.getValueFallback()).isNull();
+    }
+    // 3 failures open the circuit, then each 10th of remaining 97 records probes serde
+    assertThat(calls).hasValue(3 + 9);
+    assertThat(recordDeser.fallbackStats())
+        .isEqualTo(new ConsumerRecordDeserializer.FallbackStats(12, 100 - 12));
+  }
+
 }
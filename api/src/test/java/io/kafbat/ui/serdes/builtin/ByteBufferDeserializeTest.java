@@ -0,0 +1,75 @@
+package io.kafbat.ui.serdes.builtin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.serde.api.DeserializeResult;
+import io.kafbat.ui.serde.api.RecordHeaders;
+import io.kafbat.ui.serde.api.Serde;
+import io.kafbat.ui.serdes.BuiltInSerde;
+import io.kafbat.ui.serdes.PropertyResolverImpl;
+import io.kafbat.ui.serdes.RecordHeadersImpl;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ByteBufferDeserializeTest {
+
+  private static final RecordHeaders HEADERS = new RecordHeadersImpl();
+
+  static Stream<Supplier<BuiltInSerde>> serdes() {
+    return Stream.of(
+        StringSerde::new,
+        Int32Serde::new,
+        Int64Serde::new,
+        UInt32Serde::new,
+        UInt64Serde::new,
+        UuidBinarySerde::new,
+        HexSerde::new,
+        Base64Serde::new
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("serdes")
+  void bufferSliceIsDeserializedSameWayAsArray(Supplier<BuiltInSerde> serdeSupplier) {
+    var serde = serdeSupplier.get();
+    serde.autoConfigure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+    byte[] data = toBytes(UUID.randomUUID()); // 16 bytes are valid input for all tested serdes
+
+    // data is placed in the middle of bigger array, like records in fetched batches
+    byte[] batch = new byte[data.length + 20];
+    System.arraycopy(data, 0, batch, 10, data.length);
+    ByteBuffer slice = ByteBuffer.wrap(batch, 10, data.length).slice();
+
+    var deserializer = serde.deserializer("test", Serde.Target.VALUE);
+    assertThat(deserializer.deserializeBuffer(HEADERS, slice).getResult())
+        .isEqualTo(deserializer.deserialize(HEADERS, data).getResult());
+    assertThat(Arrays.copyOfRange(batch, 10, 10 + data.length)).isEqualTo(data);
+  }
+
+  @Test
+  void defaultAdapterPassesBufferBytesToArrayMethod() {
+    Serde.Deserializer arrayDeserializer = (headers, data) ->
+        new DeserializeResult(Arrays.toString(data), DeserializeResult.Type.STRING, Map.of());
+
+    var wholeArray = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    assertThat(arrayDeserializer.deserializeBuffer(HEADERS, wholeArray).getResult()).isEqualTo("[1, 2, 3]");
+
+    var slice = ByteBuffer.wrap(new byte[] {1, 2, 3, 4}, 1, 2);
+    assertThat(arrayDeserializer.deserializeBuffer(HEADERS, slice).getResult()).isEqualTo("[2, 3]");
+    assertThat(slice.position()).isEqualTo(1);
+  }
+
+  private static byte[] toBytes(UUID uuid) {
+    return ByteBuffer.allocate(16)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+  }
+}
@@ -7,16 +7,16 @@ import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.util.JsonFormat;
 import com.squareup.wire.schema.ProtoFile;
-import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.kafbat.ui.serde.api.PropertyResolver;
 import io.kafbat.ui.serde.api.Serde;
 import io.kafbat.ui.serdes.builtin.ProtobufFileSerde.Configuration;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -39,41 +39,20 @@ class ProtobufFileSerdeTest {
   // Sample message of type `test.AddressBook`
   private byte[] addressBookMessageBytes;
   private byte[] langDescriptionMessageBytes;
-  private Descriptors.Descriptor personDescriptor;
-  private Descriptors.Descriptor addressBookDescriptor;
-  private Descriptors.Descriptor langDescriptionDescriptor;
-  private Map<Descriptors.Descriptor, Path> descriptorPaths;
+  private ProtobufSchemaSet schemas;
 
   @BeforeEach
   void setUp() throws Exception {
-    Map<Path, ProtobufSchema> files = ProtobufFileSerde.Configuration.loadSchemas(
-        Optional.empty(),
-        Optional.of(protoFilesDir())
-    );
+    schemas = ProtobufSchemaSet.load(Optional.empty(), Optional.of(protoFilesDir()), Optional.empty());
+    personMessageBytes = toBytes("test.Person", samplePersonMsgJson);
+    addressBookMessageBytes = toBytes("test.AddressBook", sampleBookMsgJson);
+    langDescriptionMessageBytes = toBytes("test.LanguageDescription", sampleLangDescriptionMsgJson);
+  }
 
-    Path addressBookSchemaPath = ResourceUtils.getFile("classpath:protobuf-serde/address-book.proto").toPath();
-    var addressBookSchema = files.get(addressBookSchemaPath);
-    var builder = addressBookSchema.newMessageBuilder("test.Person");
-    JsonFormat.parser().merge(samplePersonMsgJson, builder);
-    personMessageBytes = builder.build().toByteArray();
-
-    builder = addressBookSchema.newMessageBuilder("test.AddressBook");
-    JsonFormat.parser().merge(sampleBookMsgJson, builder);
-    addressBookMessageBytes = builder.build().toByteArray();
-    personDescriptor = addressBookSchema.toDescriptor("test.Person");
-    addressBookDescriptor = addressBookSchema.toDescriptor("test.AddressBook");
-
-    Path languageDescriptionPath = ResourceUtils.getFile("classpath:protobuf-serde/lang-description.proto").toPath();
-    var languageDescriptionSchema = files.get(languageDescriptionPath);
-    builder = languageDescriptionSchema.newMessageBuilder("test.LanguageDescription");
-    JsonFormat.parser().merge(sampleLangDescriptionMsgJson, builder);
-    langDescriptionMessageBytes = builder.build().toByteArray();
-    langDescriptionDescriptor = languageDescriptionSchema.toDescriptor("test.LanguageDescription");
-
-    descriptorPaths = Map.of(
-        personDescriptor, addressBookSchemaPath,
-        addressBookDescriptor, addressBookSchemaPath
-    );
+  private byte[] toBytes(String messageName, String json) throws Exception {
+    var builder = DynamicMessage.newBuilder(schemas.descriptor(messageName));
+    JsonFormat.parser().merge(json, builder);
+    return builder.build().toByteArray();
   }
 
   @Test
@@ -210,20 +189,20 @@ class ProtobufFileSerdeTest {
 
       var configuration = Configuration.create(resolver);
 
-      assertThat(configuration.defaultMessageDescriptor())
+      assertThat(descriptor(configuration, configuration.defaultMessageName()))
           .matches(d -> d.getFullName().equals("test.Sensor"));
-      assertThat(configuration.defaultKeyMessageDescriptor())
+      assertThat(descriptor(configuration, configuration.defaultKeyMessageName()))
           .matches(d -> d.getFullName().equals("test.AddressBook"));
 
-      assertThat(configuration.messageDescriptorMap())
+      assertThat(configuration.messageNameByTopic())
           .containsOnlyKeys("topic1", "topic2")
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.Sensor"))
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.AddressBook"));
+          .anySatisfy(resolvesTo(configuration, "test.Sensor"))
+          .anySatisfy(resolvesTo(configuration, "test.AddressBook"));
 
-      assertThat(configuration.keyMessageDescriptorMap())
+      assertThat(configuration.keyMessageNameByTopic())
           .containsOnlyKeys("topic1", "topic2")
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.Person"))
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.AnotherPerson"));
+          .anySatisfy(resolvesTo(configuration, "test.Person"))
+          .anySatisfy(resolvesTo(configuration, "test.AnotherPerson"));
     }
 
     @Test
@@ -252,38 +231,38 @@ class ProtobufFileSerdeTest {
 
       var configuration = Configuration.create(resolver);
 
-      assertThat(configuration.defaultMessageDescriptor())
+      assertThat(descriptor(configuration, configuration.defaultMessageName()))
           .matches(d -> d.getFullName().equals("test.Sensor"));
-      assertThat(configuration.defaultKeyMessageDescriptor())
+      assertThat(descriptor(configuration, configuration.defaultKeyMessageName()))
           .matches(d -> d.getFullName().equals("test.AddressBook"));
 
-      assertThat(configuration.messageDescriptorMap())
+      assertThat(configuration.messageNameByTopic())
           .containsOnlyKeys("topic1", "topic2")
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.Sensor"))
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.LanguageDescription"));
+          .anySatisfy(resolvesTo(configuration, "test.Sensor"))
+          .anySatisfy(resolvesTo(configuration, "test.LanguageDescription"));
 
-      assertThat(configuration.keyMessageDescriptorMap())
+      assertThat(configuration.keyMessageNameByTopic())
           .containsOnlyKeys("topic1", "topic2")
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.Person"))
-          .anySatisfy((topic, descr) -> assertThat(descr.getFullName()).isEqualTo("test.AnotherPerson"));
+          .anySatisfy(resolvesTo(configuration, "test.Person"))
+          .anySatisfy(resolvesTo(configuration, "test.AnotherPerson"));
     }
   }
 
   @Test
   void deserializeUsesTopicsMappingToFindMsgDescriptor() {
     var messageNameMap = Map.of(
-        "persons", personDescriptor,
-        "books", addressBookDescriptor,
-        "langs", langDescriptionDescriptor
+        "persons", "test.Person",
+        "books", "test.AddressBook",
+        "langs", "test.LanguageDescription"
     );
     var keyMessageNameMap = Map.of(
-        "books", addressBookDescriptor);
+        "books", "test.AddressBook");
     var serde = new ProtobufFileSerde();
     serde.configure(
         new Configuration(
+            schemas,
             null,
             null,
-            descriptorPaths,
             messageNameMap,
             keyMessageNameMap
         )
@@ -307,9 +286,9 @@ class ProtobufFileSerdeTest {
     var serde = new ProtobufFileSerde();
     serde.configure(
         new Configuration(
-            personDescriptor,
-            addressBookDescriptor,
-            descriptorPaths,
+            schemas,
+            "test.Person",
+            "test.AddressBook",
             Map.of(),
             Map.of()
         )
@@ -327,19 +306,19 @@ class ProtobufFileSerdeTest {
   @Test
   void serializeUsesTopicsMappingToFindMsgDescriptor() {
     var messageNameMap = Map.of(
-        "persons", personDescriptor,
-        "books", addressBookDescriptor,
-        "langs", langDescriptionDescriptor
+        "persons", "test.Person",
+        "books", "test.AddressBook",
+        "langs", "test.LanguageDescription"
     );
     var keyMessageNameMap = Map.of(
-        "books", addressBookDescriptor);
+        "books", "test.AddressBook");
 
     var serde = new ProtobufFileSerde();
     serde.configure(
         new Configuration(
+            schemas,
             null,
             null,
-            descriptorPaths,
             messageNameMap,
             keyMessageNameMap
         )
@@ -359,9 +338,9 @@ class ProtobufFileSerdeTest {
     var serde = new ProtobufFileSerde();
     serde.configure(
         new Configuration(
-            personDescriptor,
-            addressBookDescriptor,
-            descriptorPaths,
+            schemas,
+            "test.Person",
+            "test.AddressBook",
             Map.of(),
             Map.of()
         )
@@ -376,6 +355,14 @@ class ProtobufFileSerdeTest {
     assertThat(booksBytes).isEqualTo(addressBookMessageBytes);
   }
 
+  private static Descriptors.Descriptor descriptor(Configuration configuration, String messageName) {
+    return configuration.schemas().descriptor(messageName);
+  }
+
+  private static BiConsumer<String, String> resolvesTo(Configuration configuration, String fullName) {
+    return (topic, messageName) -> assertThat(descriptor(configuration, messageName).getFullName()).isEqualTo(fullName);
+  }
+
   @SneakyThrows
   private void assertJsonEquals(String expectedJson, String actualJson) {
     var mapper = new JsonMapper();
@@ -0,0 +1,158 @@
+package io.kafbat.ui.serdes.builtin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.util.JsonFormat;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProtobufJsonPrinterTest {
+
+  private static final ProtobufSchema SCHEMA = new ProtobufSchema(
+      """
+          syntax = "proto3";
+          package test;
+
+          import "google/protobuf/any.proto";
+          import "google/protobuf/duration.proto";
+          import "google/protobuf/timestamp.proto";
+          import "google/protobuf/wrappers.proto";
+
+          message Sample {
+            enum Color {
+              RED = 0;
+              GREEN = 1;
+            }
+            message Child {
+              string name = 1;
+              repeated int32 values = 2;
+              Child next = 3;
+            }
+            int32 int32_field = 1;
+            int64 int64_field = 2;
+            uint32 uint32_field = 3;
+            uint64 uint64_field = 4;
+            sint32 sint32_field = 5;
+            fixed64 fixed64_field = 6;
+            float float_field = 7;
+            double double_field = 8;
+            bool bool_field = 9;
+            string string_field = 10;
+            bytes bytes_field = 11;
+            Color color = 12;
+            repeated Color colors = 13;
+            repeated string strings = 14;
+            repeated double doubles = 15;
+            Child child = 16;
+            repeated Child children = 17;
+            map<string, Child> child_by_name = 18;
+            map<int64, string> names_by_id = 19;
+            map<bool, Color> colors_by_flag = 20;
+            oneof choice {
+              string choice_text = 21;
+              Child choice_child = 22;
+            }
+            optional int32 optional_int = 23;
+            optional string unset_optional = 24;
+            google.protobuf.Timestamp created_at = 25;
+            google.protobuf.Duration took = 26;
+            google.protobuf.Int64Value wrapped_long = 27;
+            google.protobuf.StringValue wrapped_string = 28;
+            int32 unset_int = 29;
+            Child unset_child = 30;
+            float nan_float = 31;
+            uint32 big_number_field = 100000;
+          }
+
+          message WithAny {
+            google.protobuf.Any any = 1;
+          }
+          """
+  );
+
+  private static final String JSON = """
+      {
+        "int32_field": -5, "int64_field": "-9000000000", "uint32_field": 4000000000,
+        "uint64_field": "18446744073709551615", "sint32_field": -3, "fixed64_field": "12",
+        "float_field": 1.5, "double_field": 1e-7, "bool_field": true,
+        "string_field": "quote \\" <tag> & 'x' = \\u2028\\u2029 юникод \\n\\t\\u0001",
+        "bytes_field": "AQL/", "color": "GREEN", "colors": ["GREEN", "RED"],
+        "strings": ["a", ""], "doubles": [1.0, -0.0],
+        "child": { "name": "c", "values": [1, 2, 3], "next": { "name": "n" } },
+        "children": [{ "name": "x" }, {}],
+        "child_by_name": { "k": { "name": "v" }, "e": {} },
+        "names_by_id": { "-1": "minus", "2": "two" },
+        "colors_by_flag": { "true": "GREEN" },
+        "choice_child": { "name": "chosen" },
+        "optional_int": 0,
+        "created_at": "2024-01-02T03:04:05.123Z", "took": "1.500s",
+        "wrapped_long": "7", "wrapped_string": "",
+        "nan_float": "NaN", "big_number_field": 1
+      }
+      """;
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void producesSameJsonAsJsonFormat(boolean preservingProtoFieldNames) throws IOException {
+    Descriptor descriptor = SCHEMA.toDescriptor("test.Sample");
+    byte[] data = sampleMessage(descriptor);
+
+    var jsonFormatPrinter = JsonFormat.printer()
+        .includingDefaultValueFields()
+        .omittingInsignificantWhitespace();
+    if (preservingProtoFieldNames) {
+      jsonFormatPrinter = jsonFormatPrinter.preservingProtoFieldNames();
+    }
+    String expected = jsonFormatPrinter.print(DynamicMessage.parseFrom(descriptor, data));
+
+    var printer = ProtobufJsonPrinter.compiled(descriptor, preservingProtoFieldNames);
+    assertThat(printer).isPresent();
+    assertThat(printer.get().print(data, 0, data.length)).isEqualTo(expected);
+  }
+
+  @Test
+  void emptyMessageIsPrintedWithDefaultValues() throws IOException {
+    Descriptor descriptor = SCHEMA.toDescriptor("test.Sample");
+    String expected = JsonFormat.printer()
+        .includingDefaultValueFields()
+        .omittingInsignificantWhitespace()
+        .print(DynamicMessage.getDefaultInstance(descriptor));
+
+    assertThat(ProtobufJsonPrinter.compiled(descriptor, false).orElseThrow().print(new byte[0], 0, 0))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  void messagesWithUnsupportedWellKnownTypesAreNotCompiled() {
+    assertThat(ProtobufJsonPrinter.compiled(SCHEMA.toDescriptor("test.WithAny"), false)).isEmpty();
+  }
+
+  // sample json message with appended fields: unknown enum value, oneof switch and singular message merge
+  private static byte[] sampleMessage(Descriptor descriptor) throws IOException {
+    var builder = DynamicMessage.newBuilder(descriptor);
+    JsonFormat.parser().merge(JSON, builder);
+
+    var childDescriptor = descriptor.findNestedTypeByName("Child");
+    var childUpdate = DynamicMessage.newBuilder(childDescriptor)
+        .addRepeatedField(childDescriptor.findFieldByName("values"), 4)
+        .build();
+
+    var out = new ByteArrayOutputStream();
+    builder.build().writeTo(out);
+    var appended = CodedOutputStream.newInstance(out);
+    appended.writeEnum(12, 7);
+    appended.writeString(21, "late choice");
+    appended.writeBytes(16, childUpdate.toByteString());
+    appended.writeBytes(1000, ByteString.copyFromUtf8("unknown field"));
+    appended.flush();
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,126 @@
+package io.kafbat.ui.serdes.builtin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.ResourceUtils;
+import org.testcontainers.shaded.org.awaitility.Awaitility;
+
+class ProtobufSchemaSetTest {
+
+  private static final List<String> MESSAGES = List.of(
+      "test.Person", "test.Person.PhoneNumber", "test.AddressBook", "test.LanguageDescription", "test.Sensor");
+
+  @TempDir
+  Path tmpDir;
+
+  @Test
+  void setsLoadedFromSameFilesAreShared() throws IOException {
+    var dir = protoFilesDir().toString();
+    assertThat(ProtobufSchemaSet.load(Optional.empty(), Optional.of(dir), Optional.empty()))
+        .isSameAs(ProtobufSchemaSet.load(Optional.empty(), Optional.of(dir), Optional.empty()));
+  }
+
+  @Test
+  void loadsPrecompiledDescriptorSets() throws IOException {
+    var parsed = ProtobufSchemaSet.load(Optional.empty(), Optional.of(protoFilesDir().toString()), Optional.empty());
+    Path descFile = tmpDir.resolve("schemas.desc");
+    writeDescriptorSet(descFile, parsed, "test.AddressBook", "test.LanguageDescription");
+
+    var loaded = ProtobufSchemaSet.load(Optional.of(List.of(descFile.toString())), Optional.empty(), Optional.empty());
+
+    assertThat(loaded.containsMessage("test.Sensor")).isFalse();
+    for (String name : List.of("test.Person", "test.Person.PhoneNumber", "test.LanguageDescription")) {
+      assertThat(loaded.containsMessage(name)).isTrue();
+      assertThat(loaded.descriptor(name).toProto()).isEqualTo(parsed.descriptor(name).toProto());
+      assertThat(loaded.path(name)).isEqualTo(descFile);
+    }
+  }
+
+  @Test
+  void resolvedDescriptorsAreCachedOnDisk() throws IOException {
+    Path cacheDir = tmpDir.resolve("cache");
+    var parsed = ProtobufSchemaSet.load(
+        Optional.empty(), Optional.of(copyProtoFiles("dir1").toString()), Optional.of(cacheDir.toString()));
+    awaitCacheWritten(cacheDir);
+
+    // same content in another directory resolves to the same cache file
+    Path dir2 = copyProtoFiles("dir2");
+    var cached = ProtobufSchemaSet.load(
+        Optional.empty(), Optional.of(dir2.toString()), Optional.of(cacheDir.toString()));
+    for (String name : MESSAGES) {
+      assertThat(cached.descriptor(name).toProto()).isEqualTo(parsed.descriptor(name).toProto());
+    }
+    assertThat(cached.path("test.LanguageDescription")).isEqualTo(dir2.resolve("lang-description.proto"));
+
+    // broken cache file is ignored
+    Files.write(cacheFiles(cacheDir).getFirst(), new byte[] {1, 2, 3});
+    var reparsed = ProtobufSchemaSet.load(
+        Optional.empty(), Optional.of(copyProtoFiles("dir3").toString()), Optional.of(cacheDir.toString()));
+    for (String name : MESSAGES) {
+      assertThat(reparsed.descriptor(name).toProto()).isEqualTo(parsed.descriptor(name).toProto());
+    }
+    awaitCacheWritten(cacheDir);
+  }
+
+  private static void awaitCacheWritten(Path cacheDir) {
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(30))
+        .until(() -> Files.isDirectory(cacheDir)
+            && cacheFiles(cacheDir).size() == 1
+            && Files.size(cacheFiles(cacheDir).getFirst()) > 3);
+  }
+
+  private static List<Path> cacheFiles(Path cacheDir) throws IOException {
+    return listFiles(cacheDir).stream()
+        .filter(f -> f.toString().endsWith(ProtobufSchemaSet.DESCRIPTOR_SET_EXTENSION))
+        .toList();
+  }
+
+  private static void writeDescriptorSet(Path file, ProtobufSchemaSet schemas, String... messages)
+      throws IOException {
+    Map<String, FileDescriptorProto> files = new LinkedHashMap<>();
+    for (String message : messages) {
+      collectFile(schemas.descriptor(message).getFile(), files);
+    }
+    Files.write(file, FileDescriptorSet.newBuilder().addAllFile(files.values()).build().toByteArray());
+  }
+
+  private static void collectFile(FileDescriptor file, Map<String, FileDescriptorProto> files) {
+    file.getDependencies().forEach(dependency -> collectFile(dependency, files));
+    files.putIfAbsent(file.getName(), file.toProto());
+  }
+
+  private Path copyProtoFiles(String targetDir) throws IOException {
+    Path source = protoFilesDir();
+    Path target = tmpDir.resolve(targetDir);
+    for (Path file : listFiles(source)) {
+      Path copy = target.resolve(source.relativize(file).toString());
+      Files.createDirectories(copy.getParent());
+      Files.copy(file, copy);
+    }
+    return target;
+  }
+
+  private static List<Path> listFiles(Path dir) throws IOException {
+    try (var files = Files.walk(dir)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+
+  private static Path protoFilesDir() throws IOException {
+    return ResourceUtils.getFile("classpath:protobuf-serde/").toPath();
+  }
+}
@@ -0,0 +1,108 @@
+package io.kafbat.ui.serdes.builtin.sr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import io.kafbat.ui.util.jsonschema.JsonAvroConversion;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AvroJsonWriterTest {
+
+  private static final Schema SCHEMA = new Schema.Parser().parse(
+      """
+          {
+            "type": "record",
+            "name": "Node",
+            "namespace": "test",
+            "fields": [
+              { "name": "f_int", "type": "int" },
+              { "name": "f_long", "type": "long" },
+              { "name": "f_float", "type": "float" },
+              { "name": "f_double", "type": "double" },
+              { "name": "f_boolean", "type": "boolean" },
+              { "name": "f_null", "type": "null" },
+              { "name": "f_string", "type": "string" },
+              { "name": "f_bytes", "type": "bytes" },
+              { "name": "f_fixed", "type": { "type": "fixed", "name": "Fixed3", "size": 3 } },
+              { "name": "f_enum", "type": { "type": "enum", "name": "Color", "symbols": ["RED", "GREEN"] } },
+              { "name": "f_optional", "type": ["null", "string"] },
+              { "name": "f_absent", "type": ["null", "string"] },
+              { "name": "f_union", "type": ["null", "int", "string", "Color"] },
+              { "name": "f_array", "type": { "type": "array", "items": ["null", "long"] } },
+              { "name": "f_map", "type": { "type": "map", "values": { "type": "array", "items": "string" } } },
+              { "name": "f_date", "type": { "type": "int", "logicalType": "date" } },
+              { "name": "f_uuid", "type": { "type": "string", "logicalType": "uuid" } },
+              { "name": "f_ts", "type": ["null", { "type": "long", "logicalType": "timestamp-millis" }] },
+              {
+                "name": "f_decimal",
+                "type": { "type": "bytes", "logicalType": "decimal", "precision": 8, "scale": 3 }
+              },
+              { "name": "f_child", "type": ["null", "Node"] }
+            ]
+          }"""
+  );
+
+  private static final String JSON = """
+      {
+        "f_int": -7, "f_long": 9000000000, "f_float": 1.25, "f_double": 3.0E-10, "f_boolean": true,
+        "f_null": null, "f_string": "quote \\" and юникод", "f_bytes": "\\u0001\\u00ff", "f_fixed": "abc",
+        "f_enum": "GREEN", "f_optional": { "string": "opt" }, "f_absent": null, "f_union": { "Color": "RED" },
+        "f_array": [{ "long": 1 }, null, { "long": 3 }],
+        "f_map": { "k1": ["a"], "k2": [], "key3": ["b", "c"], "k0": ["d"] },
+        "f_date": "1991-08-14", "f_uuid": "a37b75ca-097c-5d46-6119-f0637922e908",
+        "f_ts": { "long": "2007-12-03T10:15:30.123Z" }, "f_decimal": 12345.678,
+        "f_child": {
+          "Node": {
+            "f_int": 1, "f_long": 2, "f_float": 3.5, "f_double": 4.5, "f_boolean": false,
+            "f_null": null, "f_string": "", "f_bytes": "", "f_fixed": "xyz",
+            "f_enum": "RED", "f_optional": null, "f_absent": null, "f_union": { "int": 5 },
+            "f_array": [], "f_map": {},
+            "f_date": "1970-01-01", "f_uuid": "00000000-0000-0000-0000-000000000000",
+            "f_ts": null, "f_decimal": 0.001, "f_child": null
+          }
+        }
+      }
+      """;
+
+  @ParameterizedTest
+  @CsvSource({"false, false", "true, false", "false, true", "true, true"})
+  void producesSameJsonAsGenericRecordConversion(boolean showNullValues, boolean fullyQualifiedNames)
+      throws IOException {
+    var properties = new FormatterProperties(showNullValues, fullyQualifiedNames);
+    byte[] binary = toBinary(JSON);
+
+    var datum = new GenericDatumReader<>(SCHEMA, SCHEMA, AvroSchemaUtils.getGenericData())
+        .read(null, DecoderFactory.get().binaryDecoder(binary, null));
+    String expected = JsonAvroConversion.convertAvroToJson(datum, SCHEMA, properties).toString();
+
+    assertThat(AvroJsonWriter.compile(SCHEMA, properties).write(binary, 0)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1", "5"})
+  void readsDatumFromOffset(int offset) throws IOException {
+    byte[] binary = toBinary(JSON);
+    byte[] withPrefix = new byte[binary.length + offset];
+    System.arraycopy(binary, 0, withPrefix, offset, binary.length);
+
+    var writer = AvroJsonWriter.compile(SCHEMA, FormatterProperties.EMPTY);
+    assertThat(writer.write(withPrefix, offset)).isEqualTo(writer.write(binary, 0));
+  }
+
+  private static byte[] toBinary(String json) throws IOException {
+    Object datum = JsonAvroConversion.convertJsonToAvro(json, SCHEMA);
+    var out = new ByteArrayOutputStream();
+    var encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(SCHEMA, AvroSchemaUtils.getGenericData()).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+}
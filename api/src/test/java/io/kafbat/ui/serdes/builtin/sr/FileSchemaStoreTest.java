@@ -0,0 +1,63 @@
+package io.kafbat.ui.serdes.builtin.sr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSchemaStoreTest {
+
+  private static final List<String> URLS = List.of("http://sr1:8081", "http://sr2:8081");
+
+  @TempDir
+  Path tmpDir;
+
+  @Test
+  void storedSchemasAreLoadedOnReopen() {
+    var avro = new Schema(null, null, 1, "AVRO", List.of(),
+        "{\"type\":\"record\",\"name\":\"Test\",\"fields\":[{\"name\":\"f\",\"type\":\"int\"}]}");
+    var proto = new Schema(null, null, 2, "PROTOBUF",
+        List.of(new SchemaReference("ref.proto", "ref-subject", 3)), "syntax = \"proto3\";\nmessage M {}\n");
+
+    var store = FileSchemaStore.open(tmpDir, URLS);
+    store.put(avro);
+    store.put(proto);
+    store.put(avro);
+
+    // store is shared within application, urls order doesn't matter
+    assertThat(FileSchemaStore.open(tmpDir, URLS.reversed())).isSameAs(store);
+
+    var reopened = FileSchemaStore.load(FileSchemaStore.storeFile(tmpDir, URLS));
+    assertThat(reopened.size()).isEqualTo(2);
+    assertThat(reopened.get(1)).contains(avro);
+    assertThat(reopened.get(2)).contains(proto);
+    assertThat(reopened.get(3)).isEmpty();
+  }
+
+  @Test
+  void unreadableLinesAreSkipped() throws IOException {
+    var schema = new Schema(null, null, 1, "JSON", List.of(), "{\"type\":\"object\"}");
+    FileSchemaStore.open(tmpDir, URLS).put(schema);
+    Path file = FileSchemaStore.storeFile(tmpDir, URLS);
+    Files.writeString(file, "{\"id\":2,\"sche", StandardOpenOption.APPEND);
+
+    var reopened = FileSchemaStore.load(file);
+    assertThat(reopened.size()).isEqualTo(1);
+    assertThat(reopened.get(1)).contains(schema);
+  }
+
+  @Test
+  void schemasOfDifferentRegistriesAreStoredSeparately() {
+    FileSchemaStore.open(tmpDir, URLS).put(new Schema(null, null, 1, "JSON", List.of(), "{}"));
+
+    assertThat(FileSchemaStore.open(tmpDir, List.of("http://other:8081")).get(1)).isEmpty();
+    assertThat(FileSchemaStore.load(FileSchemaStore.storeFile(tmpDir, List.of("http://other:8081"))).size()).isZero();
+  }
+}
@@ -2,6 +2,9 @@ package io.kafbat.ui.serdes.builtin.sr;
 
 import static io.kafbat.ui.serdes.builtin.sr.SchemaRegistrySerde.SUBJECT_PARAMETER_NAME;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
@@ -16,6 +19,7 @@ import io.kafbat.ui.util.jsonschema.JsonAvroConversion;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import lombok.SneakyThrows;
@@ -134,6 +138,37 @@ class SchemaRegistrySerdeTest {
         .contains(Map.entry("subjects", List.of(topic + "-value")));
   }
 
+  @Test
+  void prefetchResolvesSubjectsOfAllSchemaIdsInBatch() throws Exception {
+    var client = spy(new MockSchemaRegistryClient());
+    serde.configure(List.of("wontbeused"), client, "%s-key", "%s-value", false, FormatterProperties.EMPTY, 1024, 0, 4);
+
+    List<Integer> schemaIds = new ArrayList<>();
+    List<byte[]> values = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      var schema = new AvroSchema(
+          "{\"type\": \"record\", \"name\": \"Rec%d\", \"fields\": [{ \"name\": \"f\", \"type\": \"int\" }]}"
+              .formatted(i));
+      int schemaId = client.register("subject" + i, schema);
+      schemaIds.add(schemaId);
+      values.add(toBytesWithMagicByteAndSchemaId(schemaId, "{\"f\": %d}".formatted(i), schema));
+    }
+    values.add(new byte[] {1, 2, 3}); // no schema id prefix, skipped
+
+    var deserializer = serde.deserializer("test", Serde.Target.VALUE);
+    deserializer.prefetch(values.stream().map(ByteBuffer::wrap).toList());
+    for (int schemaId : schemaIds) {
+      verify(client).getAllVersionsById(schemaId);
+    }
+
+    // deserialization uses prefetched subjects
+    for (int i = 0; i < schemaIds.size(); i++) {
+      assertThat(deserializer.deserialize(null, values.get(i)).getAdditionalProperties())
+          .containsEntry("subjects", List.of("subject" + i));
+      verify(client, times(1)).getAllVersionsById(schemaIds.get(i));
+    }
+  }
+
   @Nested
   class SerdeWithDisabledSubjectExistenceCheck {
 
@@ -0,0 +1,67 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.kafbat.ui.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+class KeyLookupPartitionerTest {
+
+  private static final Node NODE = new Node(1, "localhost", 9092);
+
+  private final TopicDescription topic = new TopicDescription(
+      "test",
+      false,
+      IntStream.range(0, 12)
+          .mapToObj(i -> new TopicPartitionInfo(i, NODE, List.of(NODE), List.of(NODE)))
+          .toList()
+  );
+
+  @Test
+  void usesProducersDefaultMurmur2Hashing() {
+    byte[] key = "some-key".getBytes(StandardCharsets.UTF_8);
+    assertThat(KeyLookupPartitioner.partitionFor(topic, key, null, Map.of()))
+        .isEqualTo(Utils.toPositive(Utils.murmur2(key)) % 12);
+  }
+
+  @Test
+  void usesConfiguredPartitionerClass() {
+    byte[] key = "some-key".getBytes(StandardCharsets.UTF_8);
+    int partition = KeyLookupPartitioner.partitionFor(
+        topic, key, LastPartitionPartitioner.class.getName(), Map.of());
+    assertThat(partition).isEqualTo(11);
+  }
+
+  @Test
+  void throwsValidationExceptionIfPartitionerClassNotFound() {
+    assertThatThrownBy(() -> KeyLookupPartitioner.partitionFor(topic, new byte[] {1}, "not.existing.Class", Map.of()))
+        .isInstanceOf(ValidationException.class);
+  }
+
+  public static class LastPartitionPartitioner implements Partitioner {
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+      return cluster.partitionsForTopic(topic).size() - 1;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+  }
+}
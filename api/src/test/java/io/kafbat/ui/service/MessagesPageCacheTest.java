@@ -0,0 +1,118 @@
+package io.kafbat.ui.service;
+
+import static io.kafbat.ui.emitter.MessageEventsFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.PageCacheProperties;
+import io.kafbat.ui.emitter.Cursor;
+import io.kafbat.ui.model.ConsumerPosition;
+import io.kafbat.ui.model.MessagesPageScope;
+import io.kafbat.ui.model.PollingModeDTO;
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageNextPageCursorDTO;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class MessagesPageCacheTest {
+
+  private static final MessagesPageScope SCOPE =
+      new MessagesPageScope("local", "test", null, null, null, null, null);
+
+  private final PollingCursorsStorage cursorsStorage = new PollingCursorsStorage();
+  private final MessagesPageCache cache = new MessagesPageCache(enabledCache(), cursorsStorage);
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void forwardPageWithNextPageIsCachedAndReplayedWithNewCursor() {
+    var key = key(PollingModeDTO.FROM_OFFSET);
+    Cursor nextPage = cursor(PollingModeDTO.FROM_OFFSET);
+    var loaded = cache.cached(key, false, () -> load(cursorsStorage.register(nextPage))).collectList().block();
+    var replayed = cache.cached(key, false, () -> load(null)).collectList().block();
+
+    assertThat(loads).hasValue(1);
+    assertThat(messages(replayed)).isEqualTo(messages(loaded));
+    var replayedCursorId = done(replayed).getCursor().getId();
+    assertThat(replayedCursorId).isNotEqualTo(done(loaded).getCursor().getId());
+    assertThat(cursorsStorage.getCursor(replayedCursorId)).hasValue(nextPage);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void forwardPageThatReachedTopicEndIsNotCached() {
+    var key = key(PollingModeDTO.FROM_OFFSET);
+    cache.cached(key, false, () -> load(null)).blockLast();
+    cache.cached(key, false, () -> load(null)).blockLast();
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void backwardPageIsOnlyCachedWhenLoadedByCursor() {
+    var key = key(PollingModeDTO.TO_OFFSET);
+    cache.cached(key, false, () -> load(null)).blockLast();
+    cache.cached(key, false, () -> load(null)).blockLast();
+    assertThat(loads).hasValue(2);
+
+    cache.cached(key, true, () -> load(null)).blockLast();
+    cache.cached(key, true, () -> load(null)).blockLast();
+    assertThat(loads).hasValue(3);
+  }
+
+  @Test
+  void weightIsEstimatedFromMessagesContent() {
+    var message = new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .message(new TopicMessageDTO().key("k").value("value").headers(Map.of("h", "v")));
+    assertThat(MessagesPageCache.weigh(List.of(message, message))).isEqualTo(2 * (256 + 1 + 5 + 2));
+  }
+
+  private static PageCacheProperties enabledCache() {
+    var properties = new PageCacheProperties();
+    properties.setEnabled(true);
+    return properties;
+  }
+
+  private static MessagesPageCache.PageKey key(PollingModeDTO mode) {
+    var tp = new TopicPartition("test", 0);
+    var position = new ConsumerPosition(
+        mode, "test", List.of(tp), null, new ConsumerPosition.Offsets(null, Map.of(tp, 100L)));
+    return new MessagesPageCache.PageKey(SCOPE, position, 2);
+  }
+
+  private static Cursor cursor(PollingModeDTO mode) {
+    return new Cursor(null, key(mode).position(), _ -> true, 2, SCOPE);
+  }
+
+  private Flux<TopicMessageEventDTO> load(@Nullable String nextCursorId) {
+    return Flux.defer(() -> {
+      loads.incrementAndGet();
+      return Flux.just(
+          new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.PHASE),
+          message(100),
+          message(101),
+          new TopicMessageEventDTO()
+              .type(TopicMessageEventDTO.TypeEnum.DONE)
+              .cursor(nextCursorId == null ? null : new TopicMessageNextPageCursorDTO().id(nextCursorId))
+              .consuming(new TopicMessageConsumingDTO().messagesConsumed(2))
+      );
+    });
+  }
+
+
+  private static List<TopicMessageDTO> messages(List<TopicMessageEventDTO> events) {
+    return events.stream()
+        .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+        .map(TopicMessageEventDTO::getMessage)
+        .toList();
+  }
+
+  private static TopicMessageEventDTO done(List<TopicMessageEventDTO> events) {
+    return events.getLast();
+  }
+}
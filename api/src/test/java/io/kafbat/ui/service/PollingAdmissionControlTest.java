@@ -0,0 +1,87 @@
+package io.kafbat.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.AdmissionProperties;
+import io.kafbat.ui.exception.ValidationException;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessagePhaseDTO;
+import io.kafbat.ui.service.PollingAdmissionControl.ClusterAdmission;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class PollingAdmissionControlTest {
+
+  private static final TopicMessageEventDTO DONE = new TopicMessageEventDTO()
+      .type(TopicMessageEventDTO.TypeEnum.DONE);
+
+  private static ClusterAdmission admission(int perCluster, int perUser, int maxQueued) {
+    var properties = new AdmissionProperties();
+    properties.setMaxConcurrentPerCluster(perCluster);
+    properties.setMaxConcurrentPerUser(perUser);
+    properties.setMaxQueued(maxQueued);
+    return new ClusterAdmission(properties);
+  }
+
+  @Test
+  void requestsAboveClusterLimitAreQueuedUntilRunningOneCompletes() {
+    var admission = admission(1, 0, 10);
+    Sinks.Many<TopicMessageEventDTO> first = Sinks.many().unicast().onBackpressureBuffer();
+
+    var firstRequest = PollingAdmissionControl.admit(admission, "user1", first.asFlux()).subscribe();
+    assertThat(admission.runningCount()).isEqualTo(1);
+
+    StepVerifier.create(PollingAdmissionControl.admit(admission, "user2", Flux.just(DONE)))
+        .assertNext(e -> assertThat(e.getPhase()).extracting(TopicMessagePhaseDTO::getName)
+            .isEqualTo("Queued (position 1)"))
+        .then(() -> assertThat(admission.queuedCount()).isEqualTo(1))
+        .then(first::tryEmitComplete)
+        .expectNext(DONE)
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(firstRequest.isDisposed()).isTrue();
+    assertThat(admission.runningCount()).isZero();
+    assertThat(admission.queuedCount()).isZero();
+  }
+
+  @Test
+  void userLimitDoesNotBlockOtherUsers() {
+    var admission = admission(10, 1, 10);
+    var running = PollingAdmissionControl.admit(admission, "user1", Flux.never()).subscribe();
+
+    StepVerifier.create(PollingAdmissionControl.admit(admission, "user1", Flux.just(DONE)))
+        .expectNextMatches(e -> e.getType() == TopicMessageEventDTO.TypeEnum.PHASE)
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+    assertThat(admission.queuedCount()).isZero(); // cancelled request left the queue
+
+    StepVerifier.create(PollingAdmissionControl.admit(admission, "user2", Flux.just(DONE)))
+        .expectNext(DONE)
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+
+    running.dispose();
+    assertThat(admission.runningCount()).isZero();
+  }
+
+  @Test
+  void requestsAboveQueueCapacityAreRejected() {
+    var admission = admission(1, 0, 1);
+    var running = PollingAdmissionControl.admit(admission, "user", Flux.never()).subscribe();
+    var queued = PollingAdmissionControl.admit(admission, "user", Flux.never()).subscribe();
+
+    StepVerifier.create(PollingAdmissionControl.admit(admission, "user", Flux.just(DONE)))
+        .expectError(ValidationException.class)
+        .verify(Duration.ofSeconds(5));
+    assertThat(admission.rejectedCount()).isEqualTo(1);
+
+    queued.dispose();
+    running.dispose();
+    assertThat(admission.runningCount()).isZero();
+    assertThat(admission.queuedCount()).isZero();
+  }
+}
@@ -0,0 +1,88 @@
+package io.kafbat.ui.service;
+
+import static io.kafbat.ui.emitter.MessageEventsFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.SharedTailingProperties;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class SharedTailingHubsTest {
+
+  private static final SharedTailingHubs.HubKey KEY =
+      new SharedTailingHubs.HubKey("local", "topic", null, null);
+
+  private final SharedTailingHubs hubs = new SharedTailingHubs(new SharedTailingProperties());
+
+  @Test
+  void singleSourceIsSharedBetweenSubscribersWithTheirOwnFilters() {
+    Sinks.Many<TopicMessageEventDTO> source = Sinks.many().multicast().directBestEffort();
+    var sourceSubscriptions = new AtomicInteger();
+    var sourceCancelled = new AtomicBoolean();
+    Flux<TopicMessageEventDTO> sourceFlux = source.asFlux()
+        .doOnSubscribe(_ -> sourceSubscriptions.incrementAndGet())
+        .doOnCancel(() -> sourceCancelled.set(true));
+
+    List<String> all = new CopyOnWriteArrayList<>();
+    List<String> even = new CopyOnWriteArrayList<>();
+    var allSubscription = hubs.subscribe(KEY, () -> sourceFlux, m -> true)
+        .subscribe(e -> all.add(e.getMessage().getValue()));
+    var evenSubscription = hubs.subscribe(KEY, () -> sourceFlux, m -> m.getOffset() % 2 == 0)
+        .subscribe(e -> even.add(e.getMessage().getValue()));
+
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> source.currentSubscriberCount() == 1);
+    for (long i = 0; i < 4; i++) {
+      source.tryEmitNext(message(i));
+    }
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+      assertThat(all).containsExactly("0", "1", "2", "3");
+      assertThat(even).containsExactly("0", "2");
+    });
+    assertThat(sourceSubscriptions).hasValue(1);
+    assertThat(hubs.hubsCount()).isEqualTo(1);
+
+    allSubscription.dispose();
+    assertThat(sourceCancelled).isFalse();
+
+    evenSubscription.dispose();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+      assertThat(sourceCancelled).isTrue();
+      assertThat(hubs.hubsCount()).isZero();
+    });
+  }
+
+  @Test
+  void newHubIsStartedAfterPreviousOneStoppedOrTerminated() {
+    Sinks.Many<TopicMessageEventDTO> source = Sinks.many().multicast().directBestEffort();
+    Flux<TopicMessageEventDTO> sourceFlux = source.asFlux();
+
+    hubs.subscribe(KEY, () -> sourceFlux, m -> true).subscribe().dispose();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> hubs.hubsCount() == 0);
+
+    var completed = new AtomicBoolean();
+    hubs.subscribe(KEY, () -> sourceFlux, m -> true).subscribe(_ -> { }, _ -> { }, () -> completed.set(true));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> source.currentSubscriberCount() == 1);
+    source.tryEmitComplete();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+      assertThat(completed).isTrue();
+      assertThat(hubs.hubsCount()).isZero();
+    });
+
+    Sinks.Many<TopicMessageEventDTO> nextSource = Sinks.many().multicast().directBestEffort();
+    List<String> received = new CopyOnWriteArrayList<>();
+    var subscription = hubs.subscribe(KEY, nextSource::asFlux, m -> true)
+        .subscribe(e -> received.add(e.getMessage().getValue()));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> nextSource.currentSubscriberCount() == 1);
+    nextSource.tryEmitNext(message(1));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(received).containsExactly("1"));
+    subscription.dispose();
+  }
+}
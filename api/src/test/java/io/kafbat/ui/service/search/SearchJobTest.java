@@ -0,0 +1,72 @@
+package io.kafbat.ui.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.model.MessagesSearchRequestDTO;
+import io.kafbat.ui.service.search.SearchJob.OffsetsRange;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchJobTest {
+
+  static final String TOPIC = "test";
+  static final TopicPartition TP0 = new TopicPartition(TOPIC, 0);
+  static final TopicPartition TP1 = new TopicPartition(TOPIC, 1);
+  static final TopicPartition TP2 = new TopicPartition(TOPIC, 2);
+
+  private MockConsumer<Object, Object> consumer;
+
+  @BeforeEach
+  void init() {
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    Node node = new Node(1, "localhost", 9092);
+    consumer.updatePartitions(TOPIC, List.of(
+        new PartitionInfo(TOPIC, 0, node, null, null),
+        new PartitionInfo(TOPIC, 1, node, null, null),
+        new PartitionInfo(TOPIC, 2, node, null, null)
+    ));
+    consumer.updateBeginningOffsets(Map.of(TP0, 0L, TP1, 10L, TP2, 5L));
+    consumer.updateEndOffsets(Map.of(TP0, 100L, TP1, 20L, TP2, 5L));
+  }
+
+  @Test
+  void wholePartitionsAreScannedWhenNoBoundsSet() {
+    var ranges = SearchJob.offsetsRanges(consumer, TOPIC, new MessagesSearchRequestDTO());
+    // TP2 is empty
+    assertThat(ranges).containsExactlyInAnyOrderEntriesOf(
+        Map.of(TP0, new OffsetsRange(0, 100), TP1, new OffsetsRange(10, 20)));
+  }
+
+  @Test
+  void offsetBoundsAndPartitionsAreApplied() {
+    var ranges = SearchJob.offsetsRanges(consumer, TOPIC,
+        new MessagesSearchRequestDTO().partitions(List.of(0, 1)).fromOffset(15L).toOffset(50L));
+    assertThat(ranges).containsExactlyInAnyOrderEntriesOf(
+        Map.of(TP0, new OffsetsRange(15, 51), TP1, new OffsetsRange(15, 20)));
+  }
+
+  @Test
+  void partitionsAreSplitIntoGroupsWithSimilarRanges() {
+    var ranges = Map.of(
+        new TopicPartition(TOPIC, 0), new OffsetsRange(0, 100),
+        new TopicPartition(TOPIC, 1), new OffsetsRange(0, 60),
+        new TopicPartition(TOPIC, 2), new OffsetsRange(0, 50),
+        new TopicPartition(TOPIC, 3), new OffsetsRange(0, 40)
+    );
+    var groups = SearchJob.splitIntoGroups(ranges, 2);
+    assertThat(groups).hasSize(2);
+    assertThat(groups)
+        .extracting(g -> g.values().stream().mapToLong(OffsetsRange::size).sum())
+        .containsExactlyInAnyOrder(140L, 110L);
+
+    assertThat(SearchJob.splitIntoGroups(ranges, 10)).hasSize(4);
+    assertThat(SearchJob.splitIntoGroups(Map.of(), 4)).isEmpty();
+  }
+}
@@ -0,0 +1,45 @@
+package io.kafbat.ui.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.kafbat.ui.config.ClustersProperties.VirtualThreadsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class BlockingSchedulersTest {
+
+  @AfterEach
+  void resetToDefaults() {
+    BlockingSchedulers.configure(new VirtualThreadsProperties());
+  }
+
+  @Test
+  void platformThreadsAreUsedByDefault() {
+    var scheduler = BlockingSchedulers.newBoundedElastic("test-platform");
+    try {
+      Thread thread = Mono.fromSupplier(Thread::currentThread).subscribeOn(scheduler).block();
+      assertThat(thread.isVirtual()).isFalse();
+      assertThat(thread.getName()).startsWith("test-platform");
+    } finally {
+      scheduler.dispose();
+    }
+  }
+
+  @Test
+  void virtualThreadsAreUsedWhenEnabled() {
+    var properties = new VirtualThreadsProperties();
+    properties.setEnabled(true);
+    properties.setPinningDiagnostics(false);
+    BlockingSchedulers.configure(properties);
+
+    var scheduler = BlockingSchedulers.newBoundedElastic("test-virtual");
+    try {
+      Thread thread = Mono.fromSupplier(Thread::currentThread).subscribeOn(scheduler).block();
+      assertThat(thread.isVirtual()).isTrue();
+      assertThat(thread.getName()).startsWith("test-virtual-");
+    } finally {
+      scheduler.dispose();
+    }
+  }
+}
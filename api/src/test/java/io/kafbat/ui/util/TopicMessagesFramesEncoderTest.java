@@ -0,0 +1,84 @@
+package io.kafbat.ui.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.kafbat.ui.model.TopicMessageConsumingDTO;
+import io.kafbat.ui.model.TopicMessageDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO;
+import io.kafbat.ui.model.TopicMessageEventDTO.TypeEnum;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TopicMessagesFramesEncoderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final TopicMessagesFramesEncoder encoder = new TopicMessagesFramesEncoder(objectMapper);
+
+  @Test
+  void messageIsEncodedAsBinaryFrame() {
+    var ts = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    var event = new TopicMessageEventDTO()
+        .type(TypeEnum.MESSAGE)
+        .message(new TopicMessageDTO()
+            .partition(3)
+            .offset(100L)
+            .timestamp(ts)
+            .key(null)
+            .value("{\"f\": \"значение\"}")
+            .headers(Map.of("h", "v")));
+
+    var buf = ByteBuffer.wrap(encoder.encode(event));
+    int length = buf.getInt();
+    assertThat(buf.remaining()).isEqualTo(length);
+    assertThat(buf.get()).isEqualTo((byte) 1);
+    assertThat(buf.getInt()).isEqualTo(3);
+    assertThat(buf.getLong()).isEqualTo(100L);
+    assertThat(buf.getLong()).isEqualTo(ts.toInstant().toEpochMilli());
+    assertThat(buf.getInt()).isEqualTo(-1);
+    assertThat(readString(buf)).isEqualTo("{\"f\": \"значение\"}");
+    assertThat(buf.getInt()).isEqualTo(1);
+    assertThat(readString(buf)).isEqualTo("h");
+    assertThat(readString(buf)).isEqualTo("v");
+    assertThat(buf.hasRemaining()).isFalse();
+  }
+
+  @Test
+  void batchIsSplitIntoMessageFramesAndEventFrame() throws Exception {
+    var messages = new ArrayList<TopicMessageDTO>();
+    messages.add(new TopicMessageDTO().partition(0).offset(1L).value("a"));
+    messages.add(new TopicMessageDTO().partition(0).offset(2L).value("b"));
+    var event = new TopicMessageEventDTO()
+        .type(TypeEnum.BATCH)
+        .messages(messages)
+        .consuming(new TopicMessageConsumingDTO().messagesConsumed(2));
+
+    var buf = ByteBuffer.wrap(encoder.encode(event));
+    List<Byte> frameTypes = new ArrayList<>();
+    byte[] lastFrame = null;
+    while (buf.hasRemaining()) {
+      lastFrame = new byte[buf.getInt()];
+      buf.get(lastFrame);
+      frameTypes.add(lastFrame[0]);
+    }
+    assertThat(frameTypes).containsExactly((byte) 1, (byte) 1, (byte) 0);
+
+    var batchEvent = objectMapper.readValue(lastFrame, 1, lastFrame.length - 1, TopicMessageEventDTO.class);
+    assertThat(batchEvent.getType()).isEqualTo(TypeEnum.BATCH);
+    assertThat(batchEvent.getMessages()).isEmpty();
+    assertThat(batchEvent.getConsuming().getMessagesConsumed()).isEqualTo(2);
+  }
+
+  private static String readString(ByteBuffer buf) {
+    byte[] bytes = new byte[buf.getInt()];
+    buf.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
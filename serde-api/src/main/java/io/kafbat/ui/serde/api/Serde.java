@@ -1,6 +1,7 @@
 package io.kafbat.ui.serde.api;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -187,6 +188,55 @@ public interface Serde extends Closeable {
      * @return deserialized object. Can be null if input is null or an empty string.
      */
     DeserializeResult deserialize(RecordHeaders headers, byte[] data);
+
+    /**
+     * Deserializes record's key/value from buffer's remaining bytes (from its position to limit).
+     * This method is called by kafbat-ui for polled records, so implementations can read data
+     * without copying it. Each call gets its own buffer, so implementation can move its position.
+     * Default implementation passes buffer's bytes to {@link #deserialize(RecordHeaders, byte[])}
+     * (copying them only if buffer is not backed by the whole array).
+     * @param headers record's headers
+     * @param data    record's key/value, should not be modified
+     * @return deserialized object. Can be null if input is null or an empty string.
+     */
+    default DeserializeResult deserializeBuffer(RecordHeaders headers, ByteBuffer data) {
+      if (data.hasArray()
+          && data.arrayOffset() == 0
+          && data.position() == 0
+          && data.remaining() == data.array().length) {
+        return deserialize(headers, data.array());
+      }
+      byte[] bytes = new byte[data.remaining()];
+      data.duplicate().get(bytes);
+      return deserialize(headers, bytes);
+    }
+
+    /**
+     * Called by kafbat-ui with keys/values of a polled batch before they are deserialized one by one,
+     * so implementation can prepare everything needed for their deserialization in bulk
+     * (for example, fetch schemas referenced by the data concurrently).
+     * Errors thrown by this method are ignored. Default implementation does nothing.
+     * @param data batch's keys/values (without nulls), should not be modified
+     */
+    default void prefetch(List<ByteBuffer> data) {
+      //intentionally left blank
+    }
+  }
+
+  /**
+   * {@code Deserializer} that reads data from {@code ByteBuffer}, can be used by serdes that
+   * do not need data as an array.
+   */
+  @FunctionalInterface
+  interface ByteBufferDeserializer extends Deserializer {
+
+    @Override
+    DeserializeResult deserializeBuffer(RecordHeaders headers, ByteBuffer data);
+
+    @Override
+    default DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+      return deserializeBuffer(headers, ByteBuffer.wrap(data));
+    }
   }
 
 }